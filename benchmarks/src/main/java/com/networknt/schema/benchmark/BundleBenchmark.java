@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaBundle;
+import com.networknt.schema.SchemaBundleLoader;
+import com.networknt.schema.SchemaValidatorsConfig;
+import com.networknt.schema.URIFetcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compiling a catalogue of {@link #SCHEMAS} schema documents that refer to each other, one by
+ * one with getSchema or as a bundle with SchemaBundleLoader on the common ForkJoinPool. Every
+ * tenth document also has a properties object with {@link #WIDE_PROPERTIES} members. The
+ * sources are held in memory, so no I/O is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BundleBenchmark {
+    static final int SCHEMAS = 2000;
+    static final int WIDE_PROPERTIES = 1000;
+    static final String PREFIX = "http://example.com/schemas/";
+
+    private final Map<URI, byte[]> sources = new TreeMap<URI, byte[]>();
+    private final URIFetcher fetcher = new URIFetcher() {
+        @Override
+        public InputStream fetch(URI uri) throws IOException {
+            return new ByteArrayInputStream(sources.get(uri));
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SCHEMAS; i++) {
+            sources.put(URI.create(PREFIX + "s" + i + ".json"), source(i));
+        }
+    }
+
+    private static byte[] source(int i) {
+        StringBuilder properties = new StringBuilder();
+        int width = i % 10 == 0 ? WIDE_PROPERTIES : 20;
+        for (int p = 0; p < width; p++) {
+            properties.append("\"field").append(p).append("\": {\"type\": \"string\", \"maxLength\": ")
+                .append(16 + (i + p) % 240).append("}, ");
+        }
+        // each schema refers to two with a lower number, like a catalogue of components does
+        return ("{\"id\": \"" + PREFIX + "s" + i + ".json\", \"type\": \"object\", \"properties\": {" + properties
+            + "\"parent\": {\"$ref\": \"s" + (i / 2) + ".json\"}, \"sibling\": {\"$ref\": \"s" + (i * 7 % (i + 1))
+            + ".json\"}}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private JsonSchemaFactory factory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setSchemaCacheSize(SCHEMAS);
+        return new JsonSchemaFactory(config, fetcher);
+    }
+
+    @Benchmark
+    public JsonSchemaFactory oneByOne() {
+        JsonSchemaFactory factory = factory();
+        for (URI uri : sources.keySet()) {
+            factory.getSchema(uri);
+        }
+        return factory;
+    }
+
+    @Benchmark
+    public SchemaBundle bundle() {
+        SchemaBundleLoader loader = new SchemaBundleLoader(factory());
+        for (URI uri : sources.keySet()) {
+            loader.add(uri);
+        }
+        return loader.load();
+    }
+
+}
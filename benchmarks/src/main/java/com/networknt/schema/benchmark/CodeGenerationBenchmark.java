@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.networknt.schema.CompiledSchema;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * isValid of the payloads of {@link LargePayloadBenchmark}, interpreted by the JsonSchema and
+ * run by the class SchemaCodeGenerator generated for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeGenerationBenchmark {
+
+    @Param({"deepNesting", "largeArray", "wideObject"})
+    public String payload;
+
+    private JsonSchema schema;
+    private CompiledSchema compiled;
+    private JsonElement node;
+
+    @Setup
+    public void setUp() {
+        JsonSchemaFactory factory = new JsonSchemaFactory();
+        if ("deepNesting".equals(payload)) {
+            schema = factory.getSchema(LargePayloadBenchmark.deepNestingSchema());
+            node = LargePayloadBenchmark.deepNestingData(true);
+        } else if ("largeArray".equals(payload)) {
+            schema = factory.getSchema(LargePayloadBenchmark.largeArraySchema());
+            node = LargePayloadBenchmark.largeArrayData(true);
+        } else if ("wideObject".equals(payload)) {
+            schema = factory.getSchema(LargePayloadBenchmark.wideObjectSchema());
+            node = LargePayloadBenchmark.wideObjectData(true);
+        } else {
+            throw new IllegalArgumentException(payload);
+        }
+        compiled = SchemaCodeGenerator.generate(schema);
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        return schema.isValid(node);
+    }
+
+    @Benchmark
+    public boolean generated() {
+        return compiled.isValid(node);
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaValidatorsConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Synthetic documents that are much larger than anything in the draft-4 suites:
+ * <ul>
+ * <li>deepNesting - an object nested {@link #DEPTH} levels deep through a recursive $ref</li>
+ * <li>largeArray - an array of {@link #ARRAY_SIZE} small objects</li>
+ * <li>wideObject - a single object with {@link #WIDTH} declared properties</li>
+ * </ul>
+ * When valid is false every element carries a type error, which exercises the error path;
+ * failFast then shows how much of that work SchemaValidatorsConfig.setFailFast saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargePayloadBenchmark {
+    static final int DEPTH = 200;
+    static final int ARRAY_SIZE = 10000;
+    static final int WIDTH = 1000;
+
+    @Param({"deepNesting", "largeArray", "wideObject"})
+    public String payload;
+
+    @Param({"true", "false"})
+    public boolean valid;
+
+    @Param({"false", "true"})
+    public boolean failFast;
+
+    private JsonSchema schema;
+    private JsonElement node;
+
+    @Setup
+    public void setUp() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setFailFast(failFast);
+        JsonSchemaFactory factory = new JsonSchemaFactory(config);
+        if ("deepNesting".equals(payload)) {
+            schema = factory.getSchema(deepNestingSchema());
+            node = deepNestingData(valid);
+        } else if ("largeArray".equals(payload)) {
+            schema = factory.getSchema(largeArraySchema());
+            node = largeArrayData(valid);
+        } else if ("wideObject".equals(payload)) {
+            schema = factory.getSchema(wideObjectSchema());
+            node = wideObjectData(valid);
+        } else {
+            throw new IllegalArgumentException(payload);
+        }
+    }
+
+    @Benchmark
+    public Object validate() {
+        return schema.validate(node);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return schema.isValid(node);
+    }
+
+    static JsonElement deepNestingSchema() {
+        return new JsonParser().parse("{"
+            + "\"type\": \"object\","
+            + "\"properties\": {"
+            + "  \"value\": {\"type\": \"integer\", \"minimum\": 0},"
+            + "  \"name\": {\"type\": \"string\", \"maxLength\": 32},"
+            + "  \"child\": {\"$ref\": \"#\"}"
+            + "},"
+            + "\"required\": [\"value\"]"
+            + "}");
+    }
+
+    static JsonElement deepNestingData(boolean valid) {
+        JsonObject node = null;
+        for (int i = 0; i < DEPTH; i++) {
+            JsonObject parent = new JsonObject();
+            parent.add("value", valid ? new JsonPrimitive(i) : new JsonPrimitive("v" + i));
+            parent.addProperty("name", "level" + i);
+            if (node != null) {
+                parent.add("child", node);
+            }
+            node = parent;
+        }
+        return node;
+    }
+
+    static JsonElement largeArraySchema() {
+        return new JsonParser().parse("{"
+            + "\"type\": \"array\","
+            + "\"items\": {"
+            + "  \"type\": \"object\","
+            + "  \"properties\": {"
+            + "    \"id\": {\"type\": \"integer\"},"
+            + "    \"name\": {\"type\": \"string\", \"maxLength\": 64},"
+            + "    \"price\": {\"type\": \"number\", \"minimum\": 0},"
+            + "    \"tags\": {\"type\": \"array\", \"items\": {\"type\": \"string\"}, \"uniqueItems\": true}"
+            + "  },"
+            + "  \"required\": [\"id\", \"name\"],"
+            + "  \"additionalProperties\": false"
+            + "}"
+            + "}");
+    }
+
+    static JsonElement largeArrayData(boolean valid) {
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < ARRAY_SIZE; i++) {
+            JsonObject item = new JsonObject();
+            item.add("id", valid ? new JsonPrimitive(i) : new JsonPrimitive("id" + i));
+            item.addProperty("name", "item" + i);
+            item.addProperty("price", i * 0.25);
+            JsonArray tags = new JsonArray();
+            tags.add("tag" + (i % 7));
+            tags.add("tag" + (i % 11 + 7));
+            item.add("tags", tags);
+            array.add(item);
+        }
+        return array;
+    }
+
+    static JsonElement wideObjectSchema() {
+        JsonObject properties = new JsonObject();
+        for (int i = 0; i < WIDTH; i++) {
+            JsonObject property = new JsonObject();
+            property.addProperty("type", "string");
+            property.addProperty("maxLength", 255);
+            properties.add("field" + i, property);
+        }
+        JsonObject schema = new JsonObject();
+        schema.addProperty("type", "object");
+        schema.add("properties", properties);
+        schema.addProperty("additionalProperties", false);
+        return schema;
+    }
+
+    static JsonElement wideObjectData(boolean valid) {
+        JsonObject object = new JsonObject();
+        for (int i = 0; i < WIDTH; i++) {
+            object.add("field" + i, valid ? new JsonPrimitive("value" + i) : new JsonPrimitive(i));
+        }
+        return object;
+    }
+
+}
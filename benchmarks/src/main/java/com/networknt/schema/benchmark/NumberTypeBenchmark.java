@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.JsonType;
+import com.networknt.schema.TypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Number classification on a telemetry-like document where most values are numbers, half of
+ * them with a fraction. legacyClassify is the previous exception-driven TypeFactory code, kept
+ * here as the baseline for classify; validate shows the effect on a whole validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberTypeBenchmark {
+    static final int SAMPLES = 5000;
+
+    private List<JsonElement> numbers;
+    private JsonSchema schema;
+    private JsonElement telemetry;
+
+    @Setup
+    public void setUp() {
+        schema = new JsonSchemaFactory().getSchema(new JsonParser().parse("{"
+            + "\"type\": \"array\","
+            + "\"items\": {"
+            + "  \"type\": \"object\","
+            + "  \"properties\": {"
+            + "    \"timestamp\": {\"type\": \"integer\", \"minimum\": 0},"
+            + "    \"sensor\": {\"type\": \"integer\"},"
+            + "    \"value\": {\"type\": \"number\", \"minimum\": -1000, \"maximum\": 1000},"
+            + "    \"error\": {\"type\": \"number\", \"multipleOf\": 0.001}"
+            + "  }"
+            + "}"
+            + "}"));
+
+        JsonArray samples = new JsonArray();
+        for (int i = 0; i < SAMPLES; i++) {
+            JsonObject sample = new JsonObject();
+            sample.addProperty("timestamp", 1500000000000L + i);
+            sample.addProperty("sensor", i % 64);
+            sample.addProperty("value", (i % 2000 - 1000) / 3.0);
+            sample.addProperty("error", (i % 100) / 1000.0);
+            samples.add(sample);
+        }
+        // parse the text so the numbers are LazilyParsedNumber, as in a real request
+        telemetry = new JsonParser().parse(samples.toString());
+
+        numbers = new ArrayList<JsonElement>();
+        for (JsonElement sample : telemetry.getAsJsonArray()) {
+            for (String name : sample.getAsJsonObject().keySet()) {
+                numbers.add(sample.getAsJsonObject().get(name));
+            }
+        }
+    }
+
+    @Benchmark
+    public void classify(Blackhole bh) {
+        for (JsonElement number : numbers) {
+            bh.consume(TypeFactory.getValueNodeType(number));
+        }
+    }
+
+    @Benchmark
+    public void legacyClassify(Blackhole bh) {
+        for (JsonElement number : numbers) {
+            bh.consume(legacyValueNodeType(number.getAsJsonPrimitive()));
+        }
+    }
+
+    @Benchmark
+    public Object validate() {
+        return schema.validate(telemetry);
+    }
+
+    private static JsonType legacyValueNodeType(JsonPrimitive primitive) {
+        String numberAsString = primitive.getAsNumber().toString();
+        try {
+            Long.parseLong(numberAsString);
+            return JsonType.INTEGER;
+        } catch (NumberFormatException ignored) {
+            try {
+                new BigInteger(numberAsString);
+                return JsonType.INTEGER;
+            } catch (NumberFormatException moreIgnored) {
+                return JsonType.NUMBER;
+            }
+        }
+    }
+
+}
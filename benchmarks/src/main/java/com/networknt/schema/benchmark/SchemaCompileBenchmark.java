@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.networknt.schema.JsonSchemaFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of JsonSchemaFactory.getSchema(...) for every schema of a draft-4 suite file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaCompileBenchmark {
+
+    @Param({"additionalItems.json", "additionalProperties.json", "allOf.json", "anyOf.json",
+        "default.json", "definitions.json", "dependencies.json", "enum.json", "items.json",
+        "maxItems.json", "maxLength.json", "maxProperties.json", "maximum.json", "minItems.json",
+        "minLength.json", "minProperties.json", "minimum.json", "multipleOf.json", "not.json",
+        "oneOf.json", "pattern.json", "patternProperties.json", "properties.json", "ref.json",
+        "required.json", "type.json", "uniqueItems.json", "optional/bignum.json",
+        "optional/format.json", "optional/zeroTerminatedFloats.json"})
+    public String suite;
+
+    private List<JsonElement> schemas;
+    private List<String> schemaSources;
+    private JsonSchemaFactory factory;
+
+    @Setup
+    public void setUp() throws IOException {
+        TestSuite testSuite = TestSuite.load(suite);
+        schemas = testSuite.getSchemas();
+        schemaSources = testSuite.getSchemaSources();
+        factory = new JsonSchemaFactory();
+    }
+
+    @Benchmark
+    public void compileJsonElement(Blackhole bh) {
+        for (JsonElement schema : schemas) {
+            bh.consume(factory.getSchema(schema));
+        }
+    }
+
+    @Benchmark
+    public void compileString(Blackhole bh) {
+        for (String schema : schemaSources) {
+            bh.consume(factory.getSchema(schema));
+        }
+    }
+
+}
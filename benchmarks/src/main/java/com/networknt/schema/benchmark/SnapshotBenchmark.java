@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaValidatorsConfig;
+import com.networknt.schema.URIFetcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a catalogue of {@link #SCHEMAS} schema documents into a new factory, either from
+ * their JSON sources (held in memory, so no I/O is measured) or from a snapshot written by
+ * JsonSchemaFactory.writeSnapshot. Both compile every schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+    static final int SCHEMAS = 500;
+
+    private final Map<URI, byte[]> sources = new HashMap<URI, byte[]>();
+    private final URIFetcher fetcher = new URIFetcher() {
+        @Override
+        public InputStream fetch(URI uri) throws IOException {
+            return new ByteArrayInputStream(sources.get(uri));
+        }
+    };
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SCHEMAS; i++) {
+            sources.put(URI.create("http://example.com/schemas/s" + i + ".json"), source(i));
+        }
+        JsonSchemaFactory factory = fromSources();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        factory.writeSnapshot(out, "v1");
+        snapshot = out.toByteArray();
+    }
+
+    private static byte[] source(int i) {
+        StringBuilder properties = new StringBuilder();
+        for (int p = 0; p < 20; p++) {
+            if (p > 0) {
+                properties.append(", ");
+            }
+            properties.append("\"field").append(p).append("\": {\"type\": \"string\", \"maxLength\": ")
+                .append(16 + (i + p) % 240).append("}");
+        }
+        return ("{\"title\": \"Schema " + i + "\", \"type\": \"object\","
+            + " \"definitions\": {\"money\": {\"type\": \"object\", \"properties\": {\"amount\": {\"type\": \"number\","
+            + " \"minimum\": 0}, \"currency\": {\"enum\": [\"EUR\", \"USD\", \"GBP\"]}}, \"required\": [\"amount\"]}},"
+            + " \"properties\": {" + properties + ", \"price\": {\"$ref\": \"#/definitions/money\"}},"
+            + " \"required\": [\"field0\"], \"additionalProperties\": false}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonSchemaFactory fromSources() {
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+        for (URI uri : sources.keySet()) {
+            factory.getSchema(uri);
+        }
+        return factory;
+    }
+
+    @Benchmark
+    public JsonSchemaFactory fromSnapshot() {
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+        factory.loadSnapshot(new ByteArrayInputStream(snapshot), "v1");
+        for (URI uri : sources.keySet()) {
+            factory.getSchema(uri);
+        }
+        return factory;
+    }
+
+}
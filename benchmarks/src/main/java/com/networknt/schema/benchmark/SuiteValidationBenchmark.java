@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonElement;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of JsonSchema.validate(JsonElement) over every test of a draft-4 suite file,
+ * valid and invalid data alike. Schemas are compiled once in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuiteValidationBenchmark {
+
+    @Param({"additionalItems.json", "additionalProperties.json", "allOf.json", "anyOf.json",
+        "default.json", "definitions.json", "dependencies.json", "enum.json", "items.json",
+        "maxItems.json", "maxLength.json", "maxProperties.json", "maximum.json", "minItems.json",
+        "minLength.json", "minProperties.json", "minimum.json", "multipleOf.json", "not.json",
+        "oneOf.json", "pattern.json", "patternProperties.json", "properties.json", "ref.json",
+        "required.json", "type.json", "uniqueItems.json", "optional/bignum.json",
+        "optional/format.json", "optional/zeroTerminatedFloats.json"})
+    public String suite;
+
+    private List<JsonSchema> schemas;
+    private List<List<JsonElement>> data;
+
+    @Setup
+    public void setUp() throws IOException {
+        TestSuite testSuite = TestSuite.load(suite);
+        schemas = testSuite.compile(new JsonSchemaFactory());
+        data = testSuite.getData();
+    }
+
+    @Benchmark
+    public void validate(Blackhole bh) {
+        for (int i = 0; i < schemas.size(); i++) {
+            JsonSchema schema = schemas.get(i);
+            for (JsonElement node : data.get(i)) {
+                bh.consume(schema.validate(node));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isValid(Blackhole bh) {
+        for (int i = 0; i < schemas.size(); i++) {
+            JsonSchema schema = schemas.get(i);
+            for (JsonElement node : data.get(i)) {
+                bh.consume(schema.isValid(node));
+            }
+        }
+    }
+
+}
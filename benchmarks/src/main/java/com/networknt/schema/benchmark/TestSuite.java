@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaException;
+import com.networknt.schema.JsonSchemaFactory;
+
+/**
+ * One of the draft-4 suite files under src/test/resources/tests, loaded from the classpath.
+ * Schemas the validator rejects at compile time are skipped, the same way JsonSchemaTest
+ * bypasses them.
+ */
+public class TestSuite {
+    private final List<JsonElement> schemas = new ArrayList<JsonElement>();
+    private final List<String> schemaSources = new ArrayList<String>();
+    private final List<List<JsonElement>> data = new ArrayList<List<JsonElement>>();
+
+    public static TestSuite load(String name) throws IOException {
+        InputStream in = TestSuite.class.getClassLoader().getResourceAsStream("tests/" + name);
+        if (in == null) {
+            throw new IOException("Test suite " + name + " is not on the classpath");
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return new TestSuite(new JsonParser().parse(reader).getAsJsonArray());
+        }
+    }
+
+    private TestSuite(JsonArray testCases) {
+        JsonSchemaFactory factory = new JsonSchemaFactory();
+        for (JsonElement element : testCases) {
+            JsonObject testCase = element.getAsJsonObject();
+            JsonElement schema = testCase.get("schema");
+            try {
+                factory.getSchema(schema);
+            } catch (JsonSchemaException e) {
+                continue;
+            }
+            List<JsonElement> nodes = new ArrayList<JsonElement>();
+            for (JsonElement test : testCase.get("tests").getAsJsonArray()) {
+                nodes.add(test.getAsJsonObject().get("data"));
+            }
+            schemas.add(schema);
+            schemaSources.add(schema.toString());
+            data.add(nodes);
+        }
+    }
+
+    public List<JsonElement> getSchemas() {
+        return schemas;
+    }
+
+    public List<String> getSchemaSources() {
+        return schemaSources;
+    }
+
+    /**
+     * @param factory JsonSchemaFactory
+     * @return the compiled schemas, in the same order as {@link #getData()}
+     */
+    public List<JsonSchema> compile(JsonSchemaFactory factory) {
+        List<JsonSchema> compiled = new ArrayList<JsonSchema>(schemas.size());
+        for (JsonElement schema : schemas) {
+            compiled.add(factory.getSchema(schema));
+        }
+        return compiled;
+    }
+
+    public List<List<JsonElement>> getData() {
+        return data;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * uniqueItems on an array of {@link #SIZE} strings or nested objects. With duplicate the last
+ * item repeats the first one; with early the second one does. legacyIsValid is the previous
+ * implementation, which put every item into a HashSet&lt;JsonElement&gt; and compared sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UniqueItemsBenchmark {
+    static final int SIZE = 5000;
+
+    @Param({"strings", "objects"})
+    public String items;
+
+    @Param({"none", "duplicate", "early"})
+    public String duplicates;
+
+    private JsonSchema schema;
+    private JsonArray array;
+
+    @Setup
+    public void setUp() {
+        schema = new JsonSchemaFactory().getSchema(new JsonParser().parse("{\"uniqueItems\": true}"));
+        JsonArray built = new JsonArray();
+        for (int i = 0; i < SIZE; i++) {
+            built.add(item(i));
+        }
+        if ("duplicate".equals(duplicates)) {
+            built.set(SIZE - 1, item(0));
+        } else if ("early".equals(duplicates)) {
+            built.set(1, item(0));
+        }
+        array = new JsonParser().parse(built.toString()).getAsJsonArray();
+    }
+
+    private JsonElement item(int i) {
+        if ("strings".equals(items)) {
+            return new JsonParser().parse("\"code-" + i + "\"");
+        }
+        JsonObject address = new JsonObject();
+        address.addProperty("street", i + " Main Street");
+        address.addProperty("zip", 10000 + i % 90000);
+        JsonArray phones = new JsonArray();
+        phones.add("555-" + i);
+        phones.add("555-" + (i + 1));
+        JsonObject item = new JsonObject();
+        item.addProperty("id", i);
+        item.addProperty("name", "customer" + i);
+        item.add("address", address);
+        item.add("phones", phones);
+        return item;
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return schema.isValid(array);
+    }
+
+    @Benchmark
+    public boolean legacyIsValid() {
+        Set<JsonElement> set = new HashSet<JsonElement>();
+        for (JsonElement n : array) {
+            set.add(n);
+        }
+        return set.size() == array.size();
+    }
+
+}
@@ -16,15 +16,11 @@
 
 package com.networknt.schema;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,8 +29,7 @@ public class AdditionalPropertiesValidator extends BaseJsonValidator implements
 
     private boolean allowAdditionalProperties;
     private JsonSchema additionalPropertiesSchema;
-    private Set<String> allowedProperties = new HashSet<String>();
-    private List<Pattern> patternProperties = new ArrayList<Pattern>();
+    private PropertyClassifier classifier;
 
     public AdditionalPropertiesValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ADDITIONAL_PROPERTIES);
@@ -45,27 +40,15 @@ public class AdditionalPropertiesValidator extends BaseJsonValidator implements
         if (schemaNode.isJsonObject()) {
             allowAdditionalProperties = true;
             additionalPropertiesSchema =
-                new JsonSchema(getValidatorType().getValue(), schemaNode, parentSchema);
+                parentSchema.compileSubschema(getValidatorType().getValue(), schemaNode);
         }
 
-        JsonObject parentSchemaObj = parentSchema.getSchemaNode().getAsJsonObject();
-
-        JsonElement propertiesNode = parentSchemaObj.get(PropertiesValidator.PROPERTY);
-        if (propertiesNode != null) {
-            allowedProperties.addAll(propertiesNode.getAsJsonObject().keySet());
-        }
-
-        JsonElement patternPropertiesNode = parentSchemaObj.get(PatternPropertiesValidator.PROPERTY);
-        if (patternPropertiesNode != null) {
-            for (String pattern : patternPropertiesNode.getAsJsonObject().keySet()) {
-                patternProperties.add(Pattern.compile(pattern));
-            }
-        }
+        classifier = parentSchema.getPropertyClassifier();
 
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         if (logger.isDebugEnabled()) debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
@@ -75,26 +58,18 @@ public class AdditionalPropertiesValidator extends BaseJsonValidator implements
         }
 
         for (String pname : node.getAsJsonObject().keySet()) {
-            // skip the context items
-            if (pname.startsWith("#")) {
+            if (!isAdditionalProperty(pname)) {
                 continue;
             }
-            boolean handledByPatternProperties = false;
-            for (Pattern pattern : patternProperties) {
-                Matcher m = pattern.matcher(pname);
-                if (m.find()) {
-                    handledByPatternProperties = true;
+            if (!allowAdditionalProperties) {
+                if (collectError(errors, buildValidationMessage(at, pname))) {
                     break;
                 }
-            }
-
-            if (!allowedProperties.contains(pname) && !handledByPatternProperties) {
-                if (!allowAdditionalProperties) {
-                    errors.add(buildValidationMessage(at, pname));
-                } else {
-                    if (additionalPropertiesSchema != null) {
-                        JsonElement value = node.getAsJsonObject().get(pname);
-                        errors.addAll(additionalPropertiesSchema.validate(value, rootNode, at + "." + pname));
+            } else {
+                if (additionalPropertiesSchema != null) {
+                    JsonElement value = node.getAsJsonObject().get(pname);
+                    if (collectErrors(errors, additionalPropertiesSchema.validate(value, rootNode, at.property(pname)))) {
+                        break;
                     }
                 }
             }
@@ -102,4 +77,41 @@ public class AdditionalPropertiesValidator extends BaseJsonValidator implements
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!node.isJsonObject()) {
+            return true;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : node.getAsJsonObject().entrySet()) {
+            if (!isAdditionalProperty(entry.getKey())) {
+                continue;
+            }
+            if (!allowAdditionalProperties) {
+                return false;
+            }
+            if (additionalPropertiesSchema != null
+                && !additionalPropertiesSchema.isValid(entry.getValue(), rootNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isAllowAdditionalProperties() {
+        return allowAdditionalProperties;
+    }
+
+    JsonSchema getAdditionalPropertiesSchema() {
+        return additionalPropertiesSchema;
+    }
+
+    boolean isAdditionalProperty(String pname) {
+        // skip the context items
+        if (pname.startsWith("#")) {
+            return false;
+        }
+        return classifier.isAdditional(pname);
+    }
+
 }
@@ -33,20 +33,36 @@ public class AllOfValidator extends BaseJsonValidator implements JsonValidator {
     public AllOfValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ALL_OF);
         for (JsonElement subSchema : schemaNode.getAsJsonArray()) {
-            schemas.add(new JsonSchema(getValidatorType().getValue(), subSchema, parentSchema));
+            schemas.add(parentSchema.compileSubschema(getValidatorType().getValue(), subSchema));
         }
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    List<JsonSchema> getSchemas() {
+        return schemas;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
 
         for (JsonSchema schema : schemas) {
-            errors.addAll(schema.validate(node, rootNode, at));
+            if (collectErrors(errors, schema.validate(node, rootNode, at))) {
+                break;
+            }
         }
 
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (JsonSchema schema : schemas) {
+            if (!schema.isValid(node, rootNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
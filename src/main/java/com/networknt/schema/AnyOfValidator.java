@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -34,24 +35,45 @@ public class AnyOfValidator extends BaseJsonValidator implements JsonValidator {
     public AnyOfValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ANY_OF);
         for (JsonElement subSchema : schemaNode.getAsJsonArray()) {
-            schemas.add(new JsonSchema(getValidatorType().getValue(), subSchema, parentSchema));
+            schemas.add(parentSchema.compileSubschema(getValidatorType().getValue(), subSchema));
         }
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    List<JsonSchema> getSchemas() {
+        return schemas;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> allErrors = new HashSet<>();
 
         for (JsonSchema schema : schemas) {
-            Set<ValidationMessage> errors = schema.validate(node, rootNode, at);
+            if (isErrorLimitReached(allErrors)) {
+                // no more messages would be reported, only look for a matching schema
+                if (CombinatorMemo.isValid(schema, node, rootNode)) {
+                    return Collections.emptySet();
+                }
+                continue;
+            }
+            Set<ValidationMessage> errors = CombinatorMemo.validate(schema, node, rootNode, at);
             if (errors.isEmpty()) {
                 return errors;
             }
-            allErrors.addAll(errors);
+            collectErrors(allErrors, errors);
         }
 
         return allErrors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (JsonSchema schema : schemas) {
+            if (CombinatorMemo.isValid(schema, node, rootNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -21,8 +21,7 @@ import com.google.gson.JsonObject;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.util.Collection;
 import java.util.Set;
 
 public abstract class BaseJsonValidator implements JsonValidator {
@@ -35,11 +34,7 @@ public abstract class BaseJsonValidator implements JsonValidator {
 
     public BaseJsonValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema,
                              ValidatorTypeCode validatorType) {
-        this.schemaPath = schemaPath;
-        this.schemaNode = schemaNode;
-        this.parentSchema = parentSchema;
-        this.validatorType = validatorType;
-        this.subSchema = obtainSubSchemaNode(schemaNode);
+        this(schemaPath, schemaNode, parentSchema, validatorType, null);
     }
 
     public BaseJsonValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema,
@@ -71,29 +66,25 @@ public abstract class BaseJsonValidator implements JsonValidator {
         return subSchema != null;
     }
 
-    protected JsonSchema obtainSubSchemaNode(JsonElement schemaNode) {
-        if (schemaNode.isJsonObject()) {
-            JsonObject schemaObject = schemaNode.getAsJsonObject();
-            JsonElement node = schemaObject.get("id");
-            if (node == null) return null;
-            if (node.equals(schemaObject.get("$schema"))) return null;
-
-            try {
-                JsonSchemaFactory factory = new JsonSchemaFactory();
-                URL url = new URL(node.toString());
-                return factory.getSchema(url);
-            } catch (MalformedURLException e) {
-                return null;
-            }
-        } else {
-            return null;
-        }
+    void setSubSchema(JsonSchema subSchema) {
+        this.subSchema = subSchema;
     }
 
     public Set<ValidationMessage> validate(JsonElement node) {
-        return validate(node, node, AT_ROOT);
+        return validate(node, node, DataPath.ROOT);
     }
 
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+        return validate(node, rootNode, DataPath.of(at));
+    }
+
+    /**
+     * Validators extending this class implement the DataPath overload, the String one delegates
+     * to it. It is abstract again here, as the String one was before, so a subclass implementing
+     * neither does not compile instead of recursing between the two defaults.
+     */
+    public abstract Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at);
+
     protected boolean equals(double n1, double n2) {
         return Math.abs(n1 - n2) < 1e-12;
     }
@@ -126,6 +117,10 @@ public abstract class BaseJsonValidator implements JsonValidator {
         return StringUtils.isNotBlank(errorCode);
     }
 
+    protected ValidationMessage buildValidationMessage(DataPath at, String... arguments) {
+        return buildValidationMessage(at.toString(), arguments);
+    }
+
     protected ValidationMessage buildValidationMessage(String at, String... arguments) {
         ValidationMessage.Builder builder = new ValidationMessage.Builder();
         if (isUsingCustomErrorCode()) {
@@ -137,7 +132,7 @@ public abstract class BaseJsonValidator implements JsonValidator {
         return builder.build();
     }
 
-    protected void debug(Logger logger, JsonElement node, JsonElement rootNode, String at) {
+    protected void debug(Logger logger, JsonElement node, JsonElement rootNode, Object at) {
         if (logger.isDebugEnabled()) {
             logger.debug("validate( " + node + ", " + rootNode + ", " + at + ")");
         }
@@ -147,6 +142,49 @@ public abstract class BaseJsonValidator implements JsonValidator {
         return validatorType;
     }
 
+    protected SchemaValidatorsConfig getConfig() {
+        return parentSchema.getConfig();
+    }
+
+    /**
+     * Add validation messages to errors until the configured maximum number of errors is reached.
+     *
+     * @param errors    the messages collected so far
+     * @param newErrors the messages to add
+     * @return true if the maximum is reached and the caller should stop validating
+     */
+    protected boolean collectErrors(Set<ValidationMessage> errors, Collection<ValidationMessage> newErrors) {
+        int maxErrors = getConfig().getMaxErrors();
+        if (maxErrors == SchemaValidatorsConfig.UNLIMITED_ERRORS) {
+            errors.addAll(newErrors);
+            return false;
+        }
+        for (ValidationMessage error : newErrors) {
+            if (errors.size() >= maxErrors) {
+                break;
+            }
+            errors.add(error);
+        }
+        return errors.size() >= maxErrors;
+    }
+
+    /**
+     * @param errors Set
+     * @param error  ValidationMessage
+     * @return true if the maximum number of errors is reached
+     * @see #collectErrors(Set, Collection)
+     */
+    protected boolean collectError(Set<ValidationMessage> errors, ValidationMessage error) {
+        if (errors.size() < getConfig().getMaxErrors()) {
+            errors.add(error);
+        }
+        return isErrorLimitReached(errors);
+    }
+
+    protected boolean isErrorLimitReached(Set<ValidationMessage> errors) {
+        return errors.size() >= getConfig().getMaxErrors();
+    }
+
     static boolean isInteger(JsonElement element) {
         return TypeFactory.getValueNodeType(element) == JsonType.INTEGER;
     }
@@ -0,0 +1,550 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The built-in formats, checked by hand-written parsers that read the string once and do not
+ * allocate. They accept what the regular expressions they replace accepted, except that dates
+ * and times must exist (no 2017-02-30 or 25:00:00), scheme names of uri may not contain a
+ * comma, host names are at most 253 characters, hex colors have 3 or 6 digits, rgb()
+ * percentages are single values and ipv6 does not allow surrounding whitespace.
+ * Whitespace means the characters of \s in java.util.regex.
+ */
+enum BuiltInFormat implements Format {
+    DATE_TIME("date-time", "yyyy-MM-ddTHH:mm:ss[.S](Z|+hh:mm)") {
+        @Override
+        public boolean matches(String value) {
+            return isDateTime(value);
+        }
+    },
+    DATE("date", "yyyy-MM-dd") {
+        @Override
+        public boolean matches(String value) {
+            return value.length() == 10 && isDate(value, 0);
+        }
+    },
+    TIME("time", "HH:mm:ss") {
+        @Override
+        public boolean matches(String value) {
+            return value.length() == 8 && isTime(value, 0);
+        }
+    },
+    EMAIL("email", "local@domain") {
+        @Override
+        public boolean matches(String value) {
+            return isEmail(value);
+        }
+    },
+    IP_ADDRESS("ip-address", "n.n.n.n") {
+        @Override
+        public boolean matches(String value) {
+            return isIpv4(value, 0, value.length(), true);
+        }
+    },
+    IPV4("ipv4", "n.n.n.n") {
+        @Override
+        public boolean matches(String value) {
+            return isIpv4(value, 0, value.length(), true);
+        }
+    },
+    IPV6("ipv6", "x:x:x:x:x:x:x:x") {
+        @Override
+        public boolean matches(String value) {
+            return isIpv6(value);
+        }
+    },
+    URI("uri", "scheme:path or //authority/path") {
+        @Override
+        public boolean matches(String value) {
+            return isUri(value);
+        }
+    },
+    COLOR("color", "#rgb, #rrggbb, a CSS 2 color name or rgb(r, g, b)") {
+        @Override
+        public boolean matches(String value) {
+            return isColor(value);
+        }
+    },
+    HOSTNAME("hostname", "RFC 1123 host name") {
+        @Override
+        public boolean matches(String value) {
+            return isHostname(value);
+        }
+    },
+    ALPHA("alpha", "[a-zA-Z]+") {
+        @Override
+        public boolean matches(String value) {
+            return isAlphanumeric(value, false);
+        }
+    },
+    ALPHANUMERIC("alphanumeric", "[a-zA-Z0-9]+") {
+        @Override
+        public boolean matches(String value) {
+            return isAlphanumeric(value, true);
+        }
+    },
+    PHONE("phone", "+ and 7 to 15 digits, optionally separated by single spaces") {
+        @Override
+        public boolean matches(String value) {
+            return isPhone(value);
+        }
+    },
+    UTC_MILLISEC("utc-millisec", "digits[.digits]") {
+        @Override
+        public boolean matches(String value) {
+            return isUtcMillisec(value);
+        }
+    },
+    STYLE("style", "name: value;") {
+        @Override
+        public boolean matches(String value) {
+            return isStyle(value);
+        }
+    };
+
+    private static final Set<String> COLOR_NAMES = new HashSet<String>(Arrays.asList("aqua", "black", "blue",
+        "fuchsia", "gray", "green", "lime", "maroon", "navy", "olive", "orange", "purple", "red", "silver", "teal",
+        "white", "yellow"));
+
+    private final String name;
+    private final String description;
+
+    BuiltInFormat(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    static boolean isDateTime(String s) {
+        int length = s.length();
+        if (length < 20 || !isDate(s, 0)) {
+            return false;
+        }
+        char separator = s.charAt(10);
+        if (separator != 'T' && separator != 't' && separator != ' ') {
+            return false;
+        }
+        if (!isTime(s, 11)) {
+            return false;
+        }
+        int i = 19;
+        if (s.charAt(i) == '.') {
+            int start = ++i;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == start || i == length) {
+                return false;
+            }
+        }
+        char c = s.charAt(i);
+        if (c == 'Z' || c == 'z') {
+            return i + 1 == length;
+        }
+        return (c == '+' || c == '-') && i + 6 == length && isNumber(s, i + 1, 2, 0, 23)
+            && s.charAt(i + 3) == ':' && isNumber(s, i + 4, 2, 0, 59);
+    }
+
+    /**
+     * yyyy-MM-dd at the given offset, a day that exists in the proleptic Gregorian calendar
+     */
+    static boolean isDate(String s, int i) {
+        if (s.length() < i + 10 || s.charAt(i + 4) != '-' || s.charAt(i + 7) != '-') {
+            return false;
+        }
+        int year = number(s, i, 4);
+        int month = number(s, i + 5, 2);
+        int day = number(s, i + 8, 2);
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * HH:mm:ss at the given offset, where ss may be 60 for a leap second
+     */
+    static boolean isTime(String s, int i) {
+        return s.length() >= i + 8 && isNumber(s, i, 2, 0, 23) && s.charAt(i + 2) == ':'
+            && isNumber(s, i + 3, 2, 0, 59) && s.charAt(i + 5) == ':' && isNumber(s, i + 6, 2, 0, 60);
+    }
+
+    static boolean isEmail(String s) {
+        int length = s.length();
+        boolean at = false;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (isWhitespace(c)) {
+                return false;
+            }
+            if (c == '@' && i > 0 && i < length - 1) {
+                at = true;
+            }
+        }
+        return at;
+    }
+
+    /**
+     * @param leadingZeros whether an octet may have leading zeros, as in 010.0.0.1
+     */
+    static boolean isIpv4(String s, int start, int end, boolean leadingZeros) {
+        int i = start;
+        for (int octet = 0; octet < 4; octet++) {
+            if (octet > 0) {
+                if (i == end || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+            int from = i;
+            int value = 0;
+            while (i < end && i - from < 3 && isDigit(s.charAt(i))) {
+                value = value * 10 + s.charAt(i++) - '0';
+            }
+            if (i == from || value > 255 || (!leadingZeros && i - from > 1 && s.charAt(from) == '0')) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    /**
+     * Eight groups of one to four hex digits separated by colons, where "::" may stand for one
+     * or more groups of zeros and the last two groups may be written as an IPv4 address, with an
+     * optional zone index after a '%'.
+     */
+    static boolean isIpv6(String s) {
+        int end = s.indexOf('%');
+        if (end < 0) {
+            end = s.length();
+        } else {
+            if (end == s.length() - 1) {
+                return false;
+            }
+            for (int i = end + 1; i < s.length(); i++) {
+                if (isLineTerminator(s.charAt(i))) {
+                    return false;
+                }
+            }
+        }
+        if (end < 2) {
+            return false;
+        }
+        int i = 0;
+        int groups = 0;
+        boolean compressed = false;
+        if (s.charAt(0) == ':') {
+            if (s.charAt(1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i = 2;
+        }
+        while (i < end) {
+            int from = i;
+            while (i < end && i - from < 5 && isHexDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i < end && s.charAt(i) == '.') {
+                // the IPv4 address can only be the last part
+                if (!isIpv4(s, from, end, false)) {
+                    return false;
+                }
+                groups += 2;
+                break;
+            }
+            if (i == from || i - from > 4) {
+                return false;
+            }
+            groups++;
+            if (i == end) {
+                break;
+            }
+            if (s.charAt(i++) != ':' || i == end) {
+                return false;
+            }
+            if (s.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            }
+        }
+        return compressed ? groups <= 7 : groups == 8;
+    }
+
+    static boolean isUri(String s) {
+        int length = s.length();
+        int i;
+        if (s.startsWith("//")) {
+            i = 2;
+        } else {
+            if (length == 0 || !isAsciiLetter(s.charAt(0))) {
+                return false;
+            }
+            i = 1;
+            while (i < length && isSchemeChar(s.charAt(i))) {
+                i++;
+            }
+            if (i == length || s.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+        }
+        for (; i < length; i++) {
+            if (isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSchemeChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '+' || c == '-' || c == '.';
+    }
+
+    static boolean isColor(String s) {
+        int length = s.length();
+        int start = length > 0 && s.charAt(0) == '#' ? 1 : 0;
+        if (length - start == 3 || length - start == 6) {
+            boolean hex = true;
+            for (int i = start; i < length && hex; i++) {
+                hex = isHexDigit(s.charAt(i));
+            }
+            if (hex) {
+                return true;
+            }
+        }
+        if (s.startsWith("rgb(") && s.endsWith(")")) {
+            return isRgb(s, 4, length - 1);
+        }
+        return COLOR_NAMES.contains(s);
+    }
+
+    /**
+     * Three numbers from 0 to 255 or three percentages, separated by commas.
+     */
+    private static boolean isRgb(String s, int i, int end) {
+        boolean percentages = false;
+        for (int component = 0; component < 3; component++) {
+            if (component > 0) {
+                if (i == end || s.charAt(i) != ',') {
+                    return false;
+                }
+                i++;
+            }
+            i = skipWhitespace(s, i, end);
+            int from = i;
+            while (i < end && i - from < 3 && isDigit(s.charAt(i))) {
+                i++;
+            }
+            int digits = i - from;
+            boolean percentage = i < end && s.charAt(i) == '%';
+            if (digits == 0 || (component > 0 && percentage != percentages)) {
+                return false;
+            }
+            percentages = percentage;
+            if (percentage) {
+                if (digits == 3 && !s.startsWith("100", from)) {
+                    return false;
+                }
+                i++;
+            } else if ((digits > 1 && s.charAt(from) == '0') || number(s, from, digits) > 255) {
+                return false;
+            }
+            i = skipWhitespace(s, i, end);
+        }
+        return i == end;
+    }
+
+    static boolean isHostname(String s) {
+        int length = s.length();
+        if (length == 0 || length > 253) {
+            return false;
+        }
+        int labelStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || s.charAt(i) == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || labelLength > 63 || s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else if (!isAsciiLetter(s.charAt(i)) && !isDigit(s.charAt(i)) && s.charAt(i) != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isAlphanumeric(String s, boolean digits) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!isAsciiLetter(c) && !(digits && isDigit(c))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isPhone(String s) {
+        int length = s.length();
+        if (length < 8 || s.charAt(0) != '+' || !isDigit(s.charAt(length - 1))) {
+            return false;
+        }
+        int digits = 0;
+        boolean afterDigit = false;
+        for (int i = 1; i < length; i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+                afterDigit = true;
+            } else if (c == ' ' && afterDigit) {
+                afterDigit = false;
+            } else {
+                return false;
+            }
+        }
+        return digits >= 7 && digits <= 15;
+    }
+
+    static boolean isUtcMillisec(String s) {
+        int length = s.length();
+        int i = 0;
+        while (i < length && isDigit(s.charAt(i))) {
+            i++;
+        }
+        if (i == 0) {
+            return false;
+        }
+        if (i < length && s.charAt(i) == '.') {
+            int from = ++i;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == from) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * A name of at least one character on the last line before a colon, after which comes a
+     * value without semicolons, optionally followed by one. Lines before the name may only
+     * contain whitespace.
+     */
+    static boolean isStyle(String s) {
+        int length = s.length();
+        int end = length > 0 && s.charAt(length - 1) == ';' ? length - 1 : length;
+        // the colon must come after any semicolon in the value
+        int from = s.lastIndexOf(';', end - 1) + 1;
+        int lastTerminator = -1;
+        boolean blankLines = true;
+        boolean blankLine = true;
+        for (int i = 0; i < end - 1 && blankLines; i++) {
+            char c = s.charAt(i);
+            if (c == ':' && i >= from && i > lastTerminator + 1) {
+                return true;
+            }
+            if (isLineTerminator(c)) {
+                blankLines = blankLine && isWhitespace(c);
+                lastTerminator = i;
+                blankLine = true;
+            } else if (!isWhitespace(c)) {
+                blankLine = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the value of the digits, or -1 if one of the characters is not a digit
+     */
+    private static int number(String s, int i, int count) {
+        int value = 0;
+        for (int end = i + count; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + c - '0';
+        }
+        return value;
+    }
+
+    private static boolean isNumber(String s, int i, int count, int min, int max) {
+        int value = number(s, i, count);
+        return value >= min && value <= max;
+    }
+
+    private static int skipWhitespace(String s, int i, int end) {
+        while (i < end && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000b' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+}
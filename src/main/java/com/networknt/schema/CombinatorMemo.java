@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Whether a subschema of oneOf or anyOf accepted a node, remembered for one call of
+ * {@link JsonSchema#validate(JsonElement)} or {@link JsonSchema#isValid(JsonElement)} when
+ * {@link SchemaValidatorsConfig#isMemoizeCombinators()} is set. Keys are the identity of the
+ * compiled subschema and of the node, so nested combinators that reach the same pair through
+ * different branches evaluate it once. The memo lives in a ThreadLocal for the duration of the
+ * top-level call; without one the combinators evaluate every time.
+ */
+final class CombinatorMemo {
+    private static final ThreadLocal<CombinatorMemo> current = new ThreadLocal<CombinatorMemo>();
+
+    private final Map<JsonSchema, Map<JsonElement, Boolean>> results =
+        new IdentityHashMap<JsonSchema, Map<JsonElement, Boolean>>();
+
+    private CombinatorMemo() {
+    }
+
+    /**
+     * Start a memo for a validation run, unless memoisation is off or a run is already active
+     * on this thread.
+     *
+     * @param config SchemaValidatorsConfig
+     * @return the memo to pass to {@link #end(CombinatorMemo)}, or null
+     */
+    static CombinatorMemo begin(SchemaValidatorsConfig config) {
+        if (!config.isMemoizeCombinators() || current.get() != null) {
+            return null;
+        }
+        CombinatorMemo memo = new CombinatorMemo();
+        current.set(memo);
+        return memo;
+    }
+
+    static void end(CombinatorMemo memo) {
+        if (memo != null) {
+            current.remove();
+        }
+    }
+
+    /**
+     * @return schema.isValid(node, rootNode), from the memo of the current run if there is one
+     */
+    static boolean isValid(JsonSchema schema, JsonElement node, JsonElement rootNode) {
+        CombinatorMemo memo = current.get();
+        if (memo == null) {
+            return schema.isValid(node, rootNode);
+        }
+        Boolean valid = memo.get(schema, node);
+        if (valid == null) {
+            valid = schema.isValid(node, rootNode);
+            memo.put(schema, node, valid);
+        }
+        return valid;
+    }
+
+    /**
+     * Validate unless the current run already knows the node is valid. An invalid pair is
+     * validated again, as its messages are not remembered.
+     *
+     * @return the validation messages, or an empty set if the node is valid
+     */
+    static Set<ValidationMessage> validate(JsonSchema schema, JsonElement node, JsonElement rootNode, DataPath at) {
+        CombinatorMemo memo = current.get();
+        if (memo == null) {
+            return schema.validate(node, rootNode, at);
+        }
+        if (Boolean.TRUE.equals(memo.get(schema, node))) {
+            return Collections.emptySet();
+        }
+        Set<ValidationMessage> errors = schema.validate(node, rootNode, at);
+        memo.put(schema, node, errors.isEmpty());
+        return errors;
+    }
+
+    private Boolean get(JsonSchema schema, JsonElement node) {
+        Map<JsonElement, Boolean> nodes = results.get(schema);
+        return nodes == null ? null : nodes.get(node);
+    }
+
+    private void put(JsonSchema schema, JsonElement node, boolean valid) {
+        Map<JsonElement, Boolean> nodes = results.get(schema);
+        if (nodes == null) {
+            nodes = new IdentityHashMap<JsonElement, Boolean>();
+            results.put(schema, nodes);
+        }
+        nodes.put(node, valid);
+    }
+
+}
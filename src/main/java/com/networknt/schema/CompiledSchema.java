@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+
+/**
+ * A JsonSchema compiled to a Java class by {@link SchemaCodeGenerator}. isValid runs the
+ * generated code; validate builds its messages with the interpreted schema, so both give the
+ * same results as the schema they were generated from.
+ */
+public abstract class CompiledSchema implements JsonValidator {
+    private final JsonSchema schema;
+
+    protected CompiledSchema(JsonSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * @return the schema this class was generated from
+     */
+    public JsonSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public Set<ValidationMessage> validate(JsonElement rootNode) {
+        return schema.validate(rootNode);
+    }
+
+    @Override
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+        return schema.validate(node, rootNode, at);
+    }
+
+    @Override
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
+        return schema.validate(node, rootNode, at);
+    }
+
+    @Override
+    public abstract boolean isValid(JsonElement node, JsonElement rootNode);
+
+    /**
+     * @return the {@link JsonType#ordinal()} of the type of the node
+     */
+    protected static int type(JsonElement node) {
+        return TypeFactory.getValueNodeType(node).ordinal();
+    }
+
+    /**
+     * @return the length of a string node in code points, as minLength and maxLength count it
+     */
+    protected static int length(JsonElement node) {
+        String text = node.getAsString();
+        return text.codePointCount(0, text.length());
+    }
+
+    /**
+     * Gson has no other kinds of JsonElement than object, array, primitive and null, so the
+     * generated code does not expect nodes of unknown type.
+     */
+    protected static IllegalArgumentException unknownType(JsonElement node) {
+        return new IllegalArgumentException("Node of unknown type: " + node.getClass().getName());
+    }
+
+    protected static double number(JsonElement node) {
+        return node.getAsJsonPrimitive().getAsNumber().doubleValue();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " of " + schema;
+    }
+
+}
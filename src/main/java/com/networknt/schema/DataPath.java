@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.networknt.schema;
+
+/**
+ * The location of a node in the validated document, e.g. $.items[2].name. Validators extend
+ * the path of their parent node with one segment per step, which costs one small object; the
+ * string is only built when a ValidationMessage needs it.
+ */
+public final class DataPath {
+    public static final DataPath ROOT = new DataPath(JsonValidator.AT_ROOT);
+
+    private final DataPath parent;
+    private final String name;
+    private final int index;
+    private String path;
+
+    private DataPath(String path) {
+        this.parent = null;
+        this.name = null;
+        this.index = -1;
+        this.path = path;
+    }
+
+    private DataPath(DataPath parent, String name, int index) {
+        this.parent = parent;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * @param path a rendered path, e.g. passed to {@link JsonValidator#validate(com.google.gson.JsonElement,
+     *             com.google.gson.JsonElement, String)}
+     * @return DataPath
+     */
+    public static DataPath of(String path) {
+        return JsonValidator.AT_ROOT.equals(path) ? ROOT : new DataPath(path);
+    }
+
+    /**
+     * @param name String
+     * @return the path of the named property of this node
+     */
+    public DataPath property(String name) {
+        return new DataPath(this, name, -1);
+    }
+
+    /**
+     * @param index int
+     * @return the path of the array item of this node at the index
+     */
+    public DataPath index(int index) {
+        return new DataPath(this, null, index);
+    }
+
+    @Override
+    public String toString() {
+        // racy but safe, the rendered string is always the same
+        String rendered = path;
+        if (rendered == null) {
+            StringBuilder builder = new StringBuilder();
+            render(builder);
+            rendered = builder.toString();
+            path = rendered;
+        }
+        return rendered;
+    }
+
+    private void render(StringBuilder builder) {
+        if (path != null) {
+            builder.append(path);
+            return;
+        }
+        parent.render(builder);
+        if (name != null) {
+            builder.append('.').append(name);
+        } else {
+            builder.append('[').append(index).append(']');
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof DataPath && toString().equals(o.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+
+}
@@ -53,14 +53,14 @@ public class DependenciesValidator extends BaseJsonValidator implements JsonVali
                     depsProps.add(asText(element));
                 }
             } else if (value.isJsonObject()) {
-                schemaDeps.put(name, new JsonSchema(name, value, parentSchema));
+                schemaDeps.put(name, parentSchema.compileSubschema(name, value));
             }
         }
 
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
@@ -72,13 +72,17 @@ public class DependenciesValidator extends BaseJsonValidator implements JsonVali
                 if (propertyDeps.containsKey(name)) {
                     for (String requiredField : propertyDeps.get(name)) {
                         if (!object.has(requiredField)) {
-                            errors.add(buildValidationMessage(at, propertyDeps.toString()));
+                            if (collectError(errors, buildValidationMessage(at, propertyDeps.toString()))) {
+                                return errors;
+                            }
                         }
                     }
                 }
 
                 if (schemaDeps.containsKey(name)) {
-                    errors.addAll(schemaDeps.get(name).validate(node, rootNode, at));
+                    if (collectErrors(errors, schemaDeps.get(name).validate(node, rootNode, at))) {
+                        return errors;
+                    }
                 }
             }
         }
@@ -86,4 +90,29 @@ public class DependenciesValidator extends BaseJsonValidator implements JsonVali
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!node.isJsonObject()) {
+            return true;
+        }
+
+        JsonObject object = node.getAsJsonObject();
+        for (String name : object.keySet()) {
+            List<String> requiredFields = propertyDeps.get(name);
+            if (requiredFields != null) {
+                for (String requiredField : requiredFields) {
+                    if (!object.has(requiredField)) {
+                        return false;
+                    }
+                }
+            }
+
+            JsonSchema schema = schemaDeps.get(name);
+            if (schema != null && !schema.isValid(node, rootNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The $ref dependencies between schema documents, keyed by their normalized URI.
+ */
+class DependencyGraph {
+    private final Map<String, Set<String>> dependencies;
+
+    /**
+     * @param dependencies the documents each document refers to; targets that are not keys are
+     *                     ignored
+     */
+    DependencyGraph(Map<String, Set<String>> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Group the documents that refer to each other, directly or not, with Tarjan's algorithm.
+     * A group comes after all groups it refers to, so compiling them in this order finds the
+     * targets of every $ref outside the group compiled.
+     *
+     * @return the groups, each sorted, in dependency order
+     */
+    List<List<String>> components() {
+        Map<String, Integer> index = new HashMap<String, Integer>();
+        Map<String, Integer> lowLink = new HashMap<String, Integer>();
+        Deque<String> stack = new ArrayDeque<String>();
+        Set<String> onStack = Collections.newSetFromMap(new HashMap<String, Boolean>());
+        List<List<String>> components = new ArrayList<List<String>>();
+        // explicit stacks, a long chain of references must not overflow the thread's stack
+        Deque<String> path = new ArrayDeque<String>();
+        Deque<Iterator<String>> pending = new ArrayDeque<Iterator<String>>();
+
+        for (String start : dependencies.keySet()) {
+            if (index.containsKey(start)) {
+                continue;
+            }
+            visit(start, index, lowLink, stack, onStack, path, pending);
+            while (!path.isEmpty()) {
+                String node = path.peek();
+                Iterator<String> targets = pending.peek();
+                if (targets.hasNext()) {
+                    String target = targets.next();
+                    if (!dependencies.containsKey(target)) {
+                        continue;
+                    }
+                    if (!index.containsKey(target)) {
+                        visit(target, index, lowLink, stack, onStack, path, pending);
+                    } else if (onStack.contains(target)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(target)));
+                    }
+                    continue;
+                }
+                path.pop();
+                pending.pop();
+                if (!path.isEmpty()) {
+                    String parent = path.peek();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    List<String> component = new ArrayList<String>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    Collections.sort(component);
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    private void visit(String node, Map<String, Integer> index, Map<String, Integer> lowLink, Deque<String> stack,
+                       Set<String> onStack, Deque<String> path, Deque<Iterator<String>> pending) {
+        index.put(node, index.size());
+        lowLink.put(node, index.get(node));
+        stack.push(node);
+        onStack.add(node);
+        path.push(node);
+        pending.push(dependencies.get(node).iterator());
+    }
+
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Set;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,19 +32,24 @@ import static org.apache.commons.lang3.StringUtils.join;
 public class EnumValidator extends BaseJsonValidator implements JsonValidator {
     private static final Logger logger = LoggerFactory.getLogger(EnumValidator.class);
 
-    private List<JsonElement> nodes;
+    // the values are indexed by type, so that a lookup does not scan the whole enumeration
+    private final Set<String> strings = new HashSet<String>();
+    private final Set<Object> numbers = new HashSet<Object>();
+    private final Set<JsonValues.Key> containers = new HashSet<JsonValues.Key>();
+    private boolean allowTrue;
+    private boolean allowFalse;
+    private boolean allowNull;
     private String error;
 
     public EnumValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ENUM);
-        nodes = new ArrayList<>();
         error = "[none]";
 
         if (schemaNode != null && schemaNode.isJsonArray()) {
             List<String> errorStrings = new ArrayList<String>(schemaNode.getAsJsonArray().size());
 
             for (JsonElement n : schemaNode.getAsJsonArray()) {
-                nodes.add(n);
+                add(n);
                 errorStrings.add(asText(n));
             }
             this.error = "[" + join(errorStrings, ", ") + "]";
@@ -52,14 +58,53 @@ public class EnumValidator extends BaseJsonValidator implements JsonValidator {
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    private void add(JsonElement n) {
+        if (n.isJsonNull()) {
+            allowNull = true;
+        } else if (n.isJsonPrimitive()) {
+            JsonPrimitive primitive = n.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                numbers.add(TypeFactory.numberKey(primitive.getAsNumber()));
+            } else if (primitive.isBoolean()) {
+                if (primitive.getAsBoolean()) {
+                    allowTrue = true;
+                } else {
+                    allowFalse = true;
+                }
+            } else {
+                strings.add(primitive.getAsString());
+            }
+        } else {
+            containers.add(new JsonValues.Key(n));
+        }
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
-        if (!nodes.contains(node)) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, error));
         } else {
             return Collections.emptySet();
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (node.isJsonNull()) {
+            return allowNull;
+        }
+        if (node.isJsonPrimitive()) {
+            JsonPrimitive primitive = node.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return !numbers.isEmpty() && numbers.contains(TypeFactory.numberKey(primitive.getAsNumber()));
+            }
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean() ? allowTrue : allowFalse;
+            }
+            return strings.contains(primitive.getAsString());
+        }
+        return !containers.isEmpty() && containers.contains(new JsonValues.Key(node));
+    }
+
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+/**
+ * A value of the format keyword, e.g. "date-time". The built-in formats are checked without
+ * regular expressions; custom formats are added with {@link FormatRegistry#register(Format)} or
+ * listed in META-INF/services/com.networknt.schema.Format to be found by the ServiceLoader.
+ * Implementations must be thread-safe.
+ */
+public interface Format {
+
+    /**
+     * @return the value of the format keyword
+     */
+    String getName();
+
+    /**
+     * @param value the string to check
+     * @return true if the value is in this format
+     */
+    boolean matches(String value);
+
+    /**
+     * @return a short description of the format for validation messages
+     */
+    default String getDescription() {
+        return getName();
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the values of the format keyword to their {@link Format}. It holds the built-in formats
+ * and the formats found by the ServiceLoader; more can be added with {@link #register(Format)}.
+ * Unknown formats are not checked.
+ */
+public final class FormatRegistry {
+    private static final Map<String, Format> formats = new ConcurrentHashMap<String, Format>();
+
+    static {
+        for (BuiltInFormat format : BuiltInFormat.values()) {
+            formats.put(format.getName(), format);
+        }
+        for (Format format : ServiceLoader.load(Format.class)) {
+            formats.put(format.getName(), format);
+        }
+    }
+
+    private FormatRegistry() {
+    }
+
+    /**
+     * Register a custom format. Registering a built-in format again replaces it for all schemas
+     * read afterwards.
+     *
+     * @param format Format
+     */
+    public static void register(Format format) {
+        if (format == null || format.getName() == null) {
+            throw new IllegalArgumentException("format and its name must not be null");
+        }
+        formats.put(format.getName(), format);
+    }
+
+    /**
+     * @param name the value of the format keyword
+     * @return the format, or null if it is not supported
+     */
+    public static Format get(String name) {
+        return formats.get(name);
+    }
+
+}
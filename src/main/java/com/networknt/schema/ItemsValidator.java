@@ -39,11 +39,11 @@ public class ItemsValidator extends BaseJsonValidator implements JsonValidator {
     public ItemsValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ITEMS);
         if (schemaNode.isJsonObject()) {
-            schema = new JsonSchema(getValidatorType().getValue(), schemaNode, parentSchema);
+            schema = parentSchema.compileSubschema(getValidatorType().getValue(), schemaNode);
         } else if (schemaNode.isJsonArray()) {
             tupleSchema = new ArrayList<>();
             for (JsonElement s : schemaNode.getAsJsonArray()) {
-                tupleSchema.add(new JsonSchema(getValidatorType().getValue(), s, parentSchema));
+                tupleSchema.add(parentSchema.compileSubschema(getValidatorType().getValue(), s));
             }
 
             JsonObject parentSchemaObject = getParentSchema().getSchemaNode().getAsJsonObject();
@@ -52,7 +52,7 @@ public class ItemsValidator extends BaseJsonValidator implements JsonValidator {
                 if (isBoolean(addItemNode)) {
                     additionalItems = addItemNode.getAsJsonPrimitive().getAsBoolean();
                 } else if (addItemNode.isJsonObject()) {
-                    additionalSchema = new JsonSchema(addItemNode);
+                    additionalSchema = parentSchema.compileSubschema(PROPERTY_ADDITIONAL_ITEMS, addItemNode);
                 }
             }
         }
@@ -60,7 +60,32 @@ public class ItemsValidator extends BaseJsonValidator implements JsonValidator {
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    /**
+     * @param index int
+     * @return the schema the item at the index is validated against, or null
+     */
+    JsonSchema getItemSchema(int index) {
+        if (schema != null) {
+            return schema;
+        }
+        if (tupleSchema != null) {
+            return index < tupleSchema.size() ? tupleSchema.get(index) : additionalSchema;
+        }
+        return null;
+    }
+
+    boolean isItemAllowed(int index) {
+        return tupleSchema == null || index < tupleSchema.size() || additionalSchema != null || additionalItems;
+    }
+
+    /**
+     * @return true if items is an array of schemas, one per position
+     */
+    boolean isTuple() {
+        return tupleSchema != null;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         if (!node.isJsonArray()) {
@@ -74,20 +99,28 @@ public class ItemsValidator extends BaseJsonValidator implements JsonValidator {
         for (JsonElement n : node.getAsJsonArray()) {
             if (schema != null) {
                 // validate with item schema (the whole array has the same item schema)
-                errors.addAll(schema.validate(n, rootNode, at + "[" + i + "]"));
+                if (collectErrors(errors, schema.validate(n, rootNode, at.index(i)))) {
+                    break;
+                }
             }
 
             if (tupleSchema != null) {
                 if (i < tupleSchema.size()) {
                     // validate against tuple schema
-                    errors.addAll(tupleSchema.get(i).validate(n, rootNode, at + "[" + i + "]"));
+                    if (collectErrors(errors, tupleSchema.get(i).validate(n, rootNode, at.index(i)))) {
+                        break;
+                    }
                 } else {
                     if (additionalSchema != null) {
                         // validate against additional item schema
-                        errors.addAll(additionalSchema.validate(n, rootNode, at + "[" + i + "]"));
+                        if (collectErrors(errors, additionalSchema.validate(n, rootNode, at.index(i)))) {
+                            break;
+                        }
                     } else if (!additionalItems) {
                         // no additional item allowed, return error
-                        errors.add(buildValidationMessage(at, "" + i));
+                        if (collectError(errors, buildValidationMessage(at, "" + i))) {
+                            break;
+                        }
                     }
                 }
             }
@@ -97,4 +130,35 @@ public class ItemsValidator extends BaseJsonValidator implements JsonValidator {
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!node.isJsonArray()) {
+            return true;
+        }
+
+        int i = 0;
+        for (JsonElement n : node.getAsJsonArray()) {
+            if (schema != null && !schema.isValid(n, rootNode)) {
+                return false;
+            }
+
+            if (tupleSchema != null) {
+                if (i < tupleSchema.size()) {
+                    if (!tupleSchema.get(i).isValid(n, rootNode)) {
+                        return false;
+                    }
+                } else if (additionalSchema != null) {
+                    if (!additionalSchema.isValid(n, rootNode)) {
+                        return false;
+                    }
+                } else if (!additionalItems) {
+                    return false;
+                }
+            }
+
+            i++;
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.regex.Pattern;
+
+/**
+ * The {@link RegexEngine} based on java.util.regex.
+ */
+public class JdkRegexEngine implements RegexEngine {
+
+    @Override
+    public Regex compile(String pattern) {
+        final Pattern p = Pattern.compile(pattern);
+        return new Regex() {
+            @Override
+            public boolean find(String input) {
+                return p.matcher(input).find();
+            }
+
+            @Override
+            public boolean matches(String input) {
+                return p.matcher(input).matches();
+            }
+
+            @Override
+            public String pattern() {
+                return p.pattern();
+            }
+
+            @Override
+            public String toString() {
+                return p.pattern();
+            }
+        };
+    }
+
+}
@@ -17,18 +17,27 @@
 package com.networknt.schema;
 
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.slf4j.Logger;
@@ -41,32 +50,244 @@ import org.slf4j.LoggerFactory;
  */
 public class JsonSchema extends BaseJsonValidator {
     private static final Logger logger = LoggerFactory.getLogger(JsonSchema.class);
-    private static final Pattern intPattern = Pattern.compile("^[0-9]+$");
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+    static final int MIN_CHUNK_SIZE = 64;
+    /**
+     * Sibling subschemas are compiled in parallel if there are at least this many and the schema
+     * is compiled in a ForkJoinPool, as {@link SchemaBundleLoader} does.
+     */
+    static final int PARALLEL_SIBLINGS = 2 * MIN_CHUNK_SIZE;
     protected Map<String, JsonValidator> validators;
+    /**
+     * The validators that apply to each JSON type, indexed by {@link JsonType#ordinal()}.
+     */
+    private JsonValidator[][] validatorsByType;
+    private volatile PropertyClassifier propertyClassifier;
+    private final JsonSchemaFactory factory;
+    private final JsonSchema root;
+    /**
+     * Compiled $ref targets by JSON pointer, only kept by the root schema.
+     */
+    private final ConcurrentMap<String, JsonSchema> refSchemas;
+    /**
+     * $ref of this schema document waiting to be compiled, only kept by the root schema.
+     */
+    private final Queue<RefValidator> unresolvedRefs;
+    /**
+     * The URI the document of this root schema was loaded from, null if it was not loaded by URI.
+     */
+    private volatile String documentKey;
+    /**
+     * The subschema fingerprints of the document while the root schema compiles it, when
+     * subschemas are shared.
+     */
+    private volatile Map<JsonElement, String> fingerprints;
 
     JsonSchema(JsonElement schemaNode) {
-        this("#", schemaNode, null);
+        this(new JsonSchemaFactory(), schemaNode);
+        resolveRefs();
+    }
+
+    JsonSchema(JsonSchemaFactory factory, JsonElement schemaNode) {
+        this(factory, schemaNode, factory.getConfig().isShareSubschemas()
+            ? SubschemaPool.fingerprints(schemaNode) : null);
+    }
+
+    /**
+     * @param fingerprints the subschema fingerprints of a document containing the schema
+     */
+    JsonSchema(JsonSchemaFactory factory, JsonElement schemaNode, Map<JsonElement, String> fingerprints) {
+        super("#", schemaNode, null, null);
+        this.factory = factory;
+        this.root = this;
+        this.refSchemas = new ConcurrentHashMap<String, JsonSchema>();
+        this.unresolvedRefs = new ConcurrentLinkedQueue<RefValidator>();
+        this.fingerprints = fingerprints;
+        setSubSchema(obtainSubSchemaNode(schemaNode));
+        this.init(schemaNode);
+        this.fingerprints = null;
     }
 
     JsonSchema(String schemaPath, JsonElement schemaNode,
                JsonSchema parent) {
         super(schemaPath, schemaNode, parent, null);
+        this.factory = parent != null ? parent.getFactory() : new JsonSchemaFactory();
+        this.root = parent != null ? parent.findAncestor() : this;
+        this.refSchemas = parent != null ? null : new ConcurrentHashMap<String, JsonSchema>();
+        this.unresolvedRefs = parent != null ? null : new ConcurrentLinkedQueue<RefValidator>();
+        setSubSchema(obtainSubSchemaNode(schemaNode));
         this.init(schemaNode);
     }
 
-    JsonSchema(String schemaPath, JsonElement schemaNode,
-               JsonSchema parent, JsonSchema subSchema) {
-        super(schemaPath, schemaNode, parent, null, subSchema);
+    JsonSchema(JsonSchemaFactory factory, JsonElement schemaNode, JsonSchema subSchema) {
+        super("#", schemaNode, null, null, subSchema);
+        this.factory = factory;
+        this.root = this;
+        this.refSchemas = new ConcurrentHashMap<String, JsonSchema>();
+        this.unresolvedRefs = new ConcurrentLinkedQueue<RefValidator>();
+        this.fingerprints = factory.getConfig().isShareSubschemas() ? SubschemaPool.fingerprints(schemaNode) : null;
         this.init(schemaNode);
+        this.fingerprints = null;
     }
 
     public JsonSchema(JsonElement schemaNode, JsonSchema subSchema) {
-        this("#", schemaNode, null, subSchema);
+        this(new JsonSchemaFactory(), schemaNode, subSchema);
+        resolveRefs();
+    }
+
+    private JsonSchema obtainSubSchemaNode(JsonElement schemaNode) {
+        if (schemaNode.isJsonObject()) {
+            JsonObject schemaObject = schemaNode.getAsJsonObject();
+            JsonElement node = schemaObject.get("id");
+            if (node == null) return null;
+            if (node.equals(schemaObject.get("$schema"))) return null;
+
+            try {
+                URL url = new URL(node.toString());
+                return factory.getSchema(url);
+            } catch (MalformedURLException e) {
+                return null;
+            }
+        } else {
+            return null;
+        }
     }
 
     private void init(JsonElement schemaNode) {
         this.validators = new LinkedHashMap<String, JsonValidator>();
         this.read(schemaNode);
+        this.sortValidators();
+        this.bucketValidators();
+        if (getConfig().isShareSubschemas()) {
+            factory.getSubschemaPool().compiled(validators.size());
+        }
+    }
+
+    /**
+     * @param schemaNode a subschema of this root schema
+     * @return fingerprints including the one of the subschema: those of the document while it is
+     * compiled, otherwise those of the subschema alone, e.g. for a $ref target compiled later
+     */
+    Map<JsonElement, String> getFingerprints(JsonElement schemaNode) {
+        Map<JsonElement, String> documentFingerprints = fingerprints;
+        if (documentFingerprints != null && documentFingerprints.containsKey(schemaNode)) {
+            return documentFingerprints;
+        }
+        return SubschemaPool.fingerprints(schemaNode);
+    }
+
+    /**
+     * Compile a subschema of this schema. Validators call this rather than the constructor, so
+     * that identical subschemas can be shared, see {@link SchemaValidatorsConfig#isShareSubschemas()}.
+     *
+     * @param schemaPath String
+     * @param schemaNode JsonElement
+     * @return JsonSchema
+     */
+    JsonSchema compileSubschema(String schemaPath, JsonElement schemaNode) {
+        return factory.getSubschema(schemaPath, schemaNode, this);
+    }
+
+    /**
+     * Compile the subschemas that are the members of an object, e.g. of properties. Many of them
+     * are compiled in chunks on the ForkJoinPool this runs in, if it runs in one; the result is
+     * the same either way.
+     *
+     * @param schemaPath the path of the object
+     * @param node       JsonObject
+     * @return the compiled subschemas, in the order of the members
+     */
+    JsonSchema[] compileSubschemas(final String schemaPath, JsonObject node) {
+        final List<Map.Entry<String, JsonElement>> members =
+            new ArrayList<Map.Entry<String, JsonElement>>(node.entrySet());
+        final int size = members.size();
+        final JsonSchema[] schemas = new JsonSchema[size];
+        if (size < PARALLEL_SIBLINGS || !ForkJoinTask.inForkJoinPool()) {
+            for (int i = 0; i < size; i++) {
+                schemas[i] = compileSubschema(schemaPath + "/" + members.get(i).getKey(), members.get(i).getValue());
+            }
+            return schemas;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+        final RuntimeException[] failures = new RuntimeException[(size + MIN_CHUNK_SIZE - 1) / MIN_CHUNK_SIZE];
+        for (int start = 0; start < size; start += MIN_CHUNK_SIZE) {
+            final int from = start;
+            final int to = Math.min(size, start + MIN_CHUNK_SIZE);
+            tasks.add(ForkJoinTask.adapt(new Runnable() {
+                public void run() {
+                    // the worker may be waiting for another compile, which must not count these
+                    int[] outer = factory.getSubschemaPool().suspendCount();
+                    try {
+                        for (int i = from; i < to; i++) {
+                            schemas[i] = compileSubschema(schemaPath + "/" + members.get(i).getKey(),
+                                members.get(i).getValue());
+                        }
+                    } catch (RuntimeException e) {
+                        // rethrown below as it is, joining a task would wrap it
+                        failures[from / MIN_CHUNK_SIZE] = e;
+                    } finally {
+                        factory.getSubschemaPool().resumeCount(outer);
+                    }
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        for (RuntimeException failure : failures) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return schemas;
+    }
+
+    String getDocumentKey() {
+        return documentKey;
+    }
+
+    void setDocumentKey(String documentKey) {
+        this.documentKey = documentKey;
+    }
+
+    void addUnresolvedRef(RefValidator ref) {
+        root.unresolvedRefs.add(ref);
+    }
+
+    /**
+     * Compile the targets of all $ref of this schema document, including the $ref found in the
+     * targets themselves. Each target is compiled once, so recursive schemas terminate.
+     */
+    void resolveRefs() {
+        RefValidator ref;
+        while ((ref = root.unresolvedRefs.poll()) != null) {
+            ref.getSchema();
+        }
+    }
+
+    /**
+     * Find the compiled schema for a $ref of this schema document. Every pointer is resolved and
+     * compiled once per root schema, all $ref to the same pointer share the result.
+     *
+     * @param ref String
+     * @return JsonSchema or null if the pointer does not resolve
+     */
+    JsonSchema getRefSchema(String ref) {
+        if (root != this) {
+            return root.getRefSchema(ref);
+        }
+        JsonSchema schema = refSchemas.get(ref);
+        if (schema == null) {
+            JsonElement node = getRefSchemaNode(ref);
+            if (node == null) {
+                return null;
+            }
+            schema = compileSubschema(ref, node);
+            JsonSchema existing = refSchemas.putIfAbsent(ref, schema);
+            if (existing != null) {
+                schema = existing;
+            }
+        }
+        return schema;
     }
 
     /**
@@ -83,15 +304,18 @@ public class JsonSchema extends BaseJsonValidator {
             // handle local ref
             String[] keys = ref.substring(2).split("/");
             for (String key : keys) {
-                try {
-                    key = URLDecoder.decode(key, "utf-8");
-                } catch (UnsupportedEncodingException e) {
+                if (key.indexOf('%') >= 0 || key.indexOf('+') >= 0) {
+                    try {
+                        key = URLDecoder.decode(key, "utf-8");
+                    } catch (UnsupportedEncodingException e) {
+                    }
                 }
-                Matcher matcher = intPattern.matcher(key);
-                if (matcher.matches()) {
+                if (node.isJsonArray() && isArrayIndex(key)) {
                     node = node.getAsJsonArray().get(Integer.parseInt(key));
-                } else {
+                } else if (node.isJsonObject()) {
                     node = node.getAsJsonObject().get(key);
+                } else {
+                    node = null;
                 }
                 if (node == null && schema.hasSubSchema()) {
                     node = schema.getSubSchema().getRefSchemaNode(ref);
@@ -104,62 +328,231 @@ public class JsonSchema extends BaseJsonValidator {
         return node;
     }
 
-    public JsonSchema findAncestor() {
-        JsonSchema ancestor = this;
-        if (this.getParentSchema() != null) {
-            ancestor = this.getParentSchema().findAncestor();
+    private static boolean isArrayIndex(String key) {
+        if (key.isEmpty() || key.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
         }
-        return ancestor;
+        return true;
     }
 
-    @SuppressWarnings("unchecked")
-    private void read(JsonElement schemaNode) {
-        Iterator<String> pnames = schemaNode.getAsJsonObject().keySet().iterator();
-        while (pnames.hasNext()) {
-            String pname = pnames.next();
-            JsonElement n = schemaNode.getAsJsonObject().get(pname);
+    /**
+     * @return the classifier of property names shared by the properties, patternProperties and
+     * additionalProperties keywords of this schema
+     */
+    PropertyClassifier getPropertyClassifier() {
+        PropertyClassifier classifier = propertyClassifier;
+        if (classifier == null) {
+            synchronized (this) {
+                classifier = propertyClassifier;
+                if (classifier == null) {
+                    classifier = new PropertyClassifier(getSchemaNode(), getConfig().getRegexEngine());
+                    propertyClassifier = classifier;
+                }
+            }
+        }
+        return classifier;
+    }
+
+    /**
+     * @return the factory that compiled this schema, shared by all of its subschemas
+     */
+    public JsonSchemaFactory getFactory() {
+        return factory;
+    }
 
-            String shortClassName = pname;
-            if (shortClassName.startsWith("$")) {
-                // remove "$" from class name for $ref schema
-                shortClassName = shortClassName.substring(1);
+    @Override
+    protected SchemaValidatorsConfig getConfig() {
+        return factory.getConfig();
+    }
+
+    public JsonSchema findAncestor() {
+        return root;
+    }
+
+    private void read(JsonElement schemaNode) {
+        for (Map.Entry<String, JsonElement> entry : schemaNode.getAsJsonObject().entrySet()) {
+            String pname = entry.getKey();
+            KeywordValidatorFactory factory = KeywordRegistry.get(pname);
+            if (factory == null) {
+                // ignore unsupported schema node
+                continue;
             }
 
+            String path = getSchemaPath() + "/" + pname;
             try {
-                ValidatorTypeCode.fromValue(shortClassName);
-
-                String className = Character.toUpperCase(shortClassName.charAt(0))
-                    + shortClassName.substring(1) + "Validator";
-                Class<JsonValidator> clazz = (Class<JsonValidator>) Class
-                    .forName("com.networknt.schema." + className);
-                Constructor<JsonValidator> c = null;
-                c = clazz.getConstructor(new Class[]{String.class,
-                    JsonElement.class, JsonSchema.class});
-                validators.put(getSchemaPath() + "/" + pname, c.newInstance(
-                    getSchemaPath() + "/" + pname, n, this));
-            } catch (IllegalArgumentException e) {
-                // ignore unsupported schema node
-            } catch (InvocationTargetException e) {
-                if (e.getTargetException() instanceof JsonSchemaException) {
-                    throw (JsonSchemaException) e.getTargetException();
-                } else {
-                    logger.info("Could not load validator " + pname);
-                }
-            } catch (Exception e) {
+                validators.put(path, factory.newValidator(path, entry.getValue(), this));
+            } catch (JsonSchemaException e) {
+                throw e;
+            } catch (RuntimeException e) {
                 logger.info("Could not load validator " + pname);
             }
         }
     }
 
+    /**
+     * Order the validators from the cheapest keyword to the most expensive one, keeping the
+     * order of the schema document for keywords of the same cost.
+     */
+    private void sortValidators() {
+        List<Map.Entry<String, JsonValidator>> entries =
+            new ArrayList<Map.Entry<String, JsonValidator>>(validators.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, JsonValidator>>() {
+            public int compare(Map.Entry<String, JsonValidator> e1, Map.Entry<String, JsonValidator> e2) {
+                return Integer.compare(cost(e1.getValue()), cost(e2.getValue()));
+            }
+        });
+        validators = new LinkedHashMap<String, JsonValidator>();
+        for (Map.Entry<String, JsonValidator> entry : entries) {
+            validators.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static int cost(JsonValidator validator) {
+        if (validator instanceof BaseJsonValidator && ((BaseJsonValidator) validator).getValidatorType() != null) {
+            return ((BaseJsonValidator) validator).getValidatorType().getCost();
+        }
+        return ValidatorTypeCode.CUSTOM_KEYWORD_COST;
+    }
+
+    /**
+     * Split the validators by the JSON type they apply to, so that a node only goes through the
+     * keywords that can reject it and its type is determined once per schema.
+     */
+    private void bucketValidators() {
+        JsonType[] types = JsonType.values();
+        validatorsByType = new JsonValidator[types.length][];
+        for (JsonType type : types) {
+            List<JsonValidator> bucket = new ArrayList<JsonValidator>();
+            for (JsonValidator v : validators.values()) {
+                if (appliesTo(v, type)) {
+                    bucket.add(v);
+                }
+            }
+            validatorsByType[type.ordinal()] = bucket.toArray(new JsonValidator[bucket.size()]);
+        }
+    }
+
+    /**
+     * @param nodeType the type of the validated node
+     * @return the validators to run on a node of this type, cheapest first
+     */
+    JsonValidator[] getValidators(JsonType nodeType) {
+        return validatorsByType[nodeType.ordinal()];
+    }
+
+    private static boolean appliesTo(JsonValidator validator, JsonType nodeType) {
+        if (validator instanceof BaseJsonValidator && ((BaseJsonValidator) validator).getValidatorType() != null) {
+            return ((BaseJsonValidator) validator).getValidatorType().appliesTo(nodeType);
+        }
+        return true;
+    }
+
+    @Override
+    public Set<ValidationMessage> validate(JsonElement rootNode) {
+        CombinatorMemo memo = CombinatorMemo.begin(getConfig());
+        try {
+            return super.validate(rootNode);
+        } finally {
+            CombinatorMemo.end(memo);
+        }
+    }
+
+    @Override
+    public boolean isValid(JsonElement rootNode) {
+        CombinatorMemo memo = CombinatorMemo.begin(getConfig());
+        try {
+            return isValid(rootNode, rootNode);
+        } finally {
+            CombinatorMemo.end(memo);
+        }
+    }
+
     public Set<ValidationMessage> validate(JsonElement JsonElement,
-                                           JsonElement rootNode, String at) {
+                                           JsonElement rootNode, DataPath at) {
         Set<ValidationMessage> errors = new HashSet<ValidationMessage>();
-        for (JsonValidator v : validators.values()) {
-            errors.addAll(v.validate(JsonElement, rootNode, at));
+        for (JsonValidator v : getValidators(TypeFactory.getValueNodeType(JsonElement))) {
+            if (collectErrors(errors, v.validate(JsonElement, rootNode, at))) {
+                break;
+            }
         }
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (JsonValidator v : getValidators(TypeFactory.getValueNodeType(node))) {
+            if (!v.isValid(node, rootNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validate every node on the common ForkJoinPool.
+     *
+     * @param nodes List
+     * @return the validation messages of each node, at the same index
+     * @see #validateAll(List, Executor)
+     */
+    public List<Set<ValidationMessage>> validateAll(List<? extends JsonElement> nodes) {
+        return validateAll(nodes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Validate every node in parallel. The nodes are split into a few chunks per processor, each
+     * chunk is validated by one task, so the task overhead does not grow with the number of
+     * nodes. Small batches are validated on the calling thread. A RuntimeException thrown while
+     * validating is rethrown here.
+     *
+     * @param nodes    List
+     * @param executor runs the chunks
+     * @return the validation messages of each node, at the same index
+     */
+    public List<Set<ValidationMessage>> validateAll(final List<? extends JsonElement> nodes, Executor executor) {
+        final int size = nodes.size();
+        // each task sets its own indexes, the list is not resized
+        final List<Set<ValidationMessage>> results = new ArrayList<Set<ValidationMessage>>(
+            Collections.<Set<ValidationMessage>>nCopies(size, null));
+        int chunks = Math.min(Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR,
+            size / MIN_CHUNK_SIZE);
+        if (chunks <= 1) {
+            for (int i = 0; i < size; i++) {
+                results.set(i, validate(nodes.get(i)));
+            }
+            return results;
+        }
+
+        final int chunkSize = (size + chunks - 1) / chunks;
+        List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+        for (int start = 0; start < size; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(size, start + chunkSize);
+            futures.add(CompletableFuture.runAsync(new Runnable() {
+                public void run() {
+                    for (int i = from; i < to; i++) {
+                        results.set(i, validate(nodes.get(i)));
+                    }
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return results;
+    }
+
     @Override
     public String toString() {
         return "\"" + getSchemaPath() + "\" : " + getSchemaNode().toString();
@@ -16,12 +16,23 @@
 
 package com.networknt.schema;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
@@ -36,13 +47,89 @@ public class JsonSchemaFactory {
     private static final Logger logger = LoggerFactory
         .getLogger(JsonSchemaFactory.class);
 
+    private static final String CONTENT_KEY_PREFIX = "sha-256:";
+
+    private final SchemaValidatorsConfig config;
+    private final URIFetcher uriFetcher;
+    private final SchemaCache schemaCache;
+    private final SubschemaPool subschemaPool = new SubschemaPool();
+    private final ConcurrentMap<String, JsonElement> documents = new ConcurrentHashMap<String, JsonElement>();
+    private final ConcurrentMap<String, JsonSchema> loadingSchemas = new ConcurrentHashMap<String, JsonSchema>();
+    /**
+     * The documents each document loaded by URI refers to, as found by RefValidator.
+     */
+    private final ConcurrentMap<String, Set<String>> dependencies = new ConcurrentHashMap<String, Set<String>>();
+
     public JsonSchemaFactory() {
+        this(new SchemaValidatorsConfig());
+    }
+
+    public JsonSchemaFactory(SchemaValidatorsConfig config) {
+        this(config, new URLFetcher());
+    }
+
+    /**
+     * @param config     SchemaValidatorsConfig
+     * @param uriFetcher opens the documents loaded by URI, including remote $ref targets
+     */
+    public JsonSchemaFactory(SchemaValidatorsConfig config, URIFetcher uriFetcher) {
+        this.config = config;
+        this.uriFetcher = uriFetcher;
+        this.schemaCache = new SchemaCache(config.getSchemaCacheSize());
+    }
+
+    public SchemaValidatorsConfig getConfig() {
+        return config;
+    }
+
+    public URIFetcher getUriFetcher() {
+        return uriFetcher;
+    }
+
+    /**
+     * @return the compiled schemas of this factory, with hit, miss and eviction counters
+     */
+    public SchemaCache getSchemaCache() {
+        return schemaCache;
+    }
+
+    /**
+     * @return the subschemas shared between the schemas of this factory, with counters of what
+     * sharing saved; empty unless {@link SchemaValidatorsConfig#isShareSubschemas()} is set
+     */
+    public SubschemaPool getSubschemaPool() {
+        return subschemaPool;
+    }
+
+    /**
+     * Compile a subschema, or reuse the compiled one with the same content when subschemas are
+     * shared and this one can be.
+     */
+    JsonSchema getSubschema(String schemaPath, JsonElement schemaNode, JsonSchema parent) {
+        if (config.isShareSubschemas() && schemaNode.isJsonObject()) {
+            Map<JsonElement, String> fingerprints = parent.findAncestor().getFingerprints(schemaNode);
+            String key = fingerprints.get(schemaNode);
+            if (key != null) {
+                return subschemaPool.get(this, key, schemaNode, fingerprints);
+            }
+        }
+        return new JsonSchema(schemaPath, schemaNode, parent);
     }
 
     public JsonSchema getSchema(String schema) {
+        String key = null;
+        if (config.isCacheByContent()) {
+            key = contentKey(schema.getBytes(StandardCharsets.UTF_8));
+            JsonSchema cached = schemaCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
             JsonElement schemaNode = new JsonParser().parse(schema);
-            return new JsonSchema(schemaNode);
+            JsonSchema jsonSchema = new JsonSchema(this, schemaNode);
+            jsonSchema.resolveRefs();
+            return key == null ? jsonSchema : schemaCache.put(key, jsonSchema);
         } catch (Exception ex) {
             logger.error("Failed to load json schema!", ex);
             throw new JsonSchemaException(ex);
@@ -50,10 +137,22 @@ public class JsonSchemaFactory {
     }
 
     public JsonSchema getSchema(InputStream schemaStream) {
+        if (config.isCacheByContent()) {
+            byte[] content;
+            try {
+                content = readFully(schemaStream);
+            } catch (Exception ex) {
+                logger.error("Failed to load json schema!", ex);
+                throw new JsonSchemaException(ex);
+            }
+            return getSchema(new String(content, StandardCharsets.UTF_8));
+        }
         try {
             JsonElement schemaNode = new JsonParser().parse(
                 new InputStreamReader(schemaStream, StandardCharsets.UTF_8));
-            return new JsonSchema(schemaNode);
+            JsonSchema schema = new JsonSchema(this, schemaNode);
+            schema.resolveRefs();
+            return schema;
         } catch (Exception ex) {
             logger.error("Failed to load json schema!", ex);
             throw new JsonSchemaException(ex);
@@ -62,27 +161,212 @@ public class JsonSchemaFactory {
 
     public JsonSchema getSchema(URL schemaURL) {
         try {
+            return getSchema(schemaURL.toURI());
+        } catch (URISyntaxException e) {
+            logger.error("Failed to load json schema!", e);
+            throw new JsonSchemaException(e);
+        }
+    }
 
-            Reader reader = new InputStreamReader(schemaURL.openStream(), StandardCharsets.UTF_8);
-            JsonElement schemaNode = new JsonParser().parse(reader);
+    /**
+     * Load and compile the schema at the given URI, or return the schema compiled for the same
+     * normalized URI before. Remote $ref targets are loaded through this method too, so a
+     * schema referenced from many places is fetched and compiled once.
+     *
+     * @param schemaURI an absolute URI, opened with the URIFetcher of this factory
+     * @return JsonSchema
+     */
+    public JsonSchema getSchema(URI schemaURI) {
+        String key = schemaURI.normalize().toString();
+        JsonSchema cached = schemaCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // documents that reference each other find the one being loaded here
+        JsonSchema loading = loadingSchemas.get(key);
+        if (loading != null) {
+            return loading;
+        }
 
-            if (this.idMatchesSourceUrl(schemaNode, schemaURL)) {
-                return new JsonSchema(schemaNode, null);
+        JsonElement schemaNode = getDocument(key, schemaURI);
+        JsonSchema schema;
+        if (this.idMatchesSourceUrl(schemaNode, schemaURI)) {
+            schema = new JsonSchema(this, schemaNode, (JsonSchema) null);
+        } else {
+            schema = new JsonSchema(this, schemaNode);
+        }
+        schema.setDocumentKey(key);
+        loadingSchemas.put(key, schema);
+        try {
+            schema.resolveRefs();
+        } finally {
+            loadingSchemas.remove(key, schema);
+        }
+        return schemaCache.put(key, schema);
+    }
+
+    /**
+     * Fetched documents are kept, so a schema evicted from the cache is compiled again without
+     * another round trip to its source.
+     */
+    private JsonElement getDocument(String key, URI schemaURI) {
+        JsonElement document = documents.get(key);
+        if (document != null) {
+            return document;
+        }
+        try (Reader reader = new InputStreamReader(uriFetcher.fetch(schemaURI), StandardCharsets.UTF_8)) {
+            document = new JsonParser().parse(reader);
+        } catch (IOException ioe) {
+            logger.error("Failed to load json schema!", ioe);
+            throw new JsonSchemaException(ioe);
+        }
+        JsonElement existing = documents.putIfAbsent(key, document);
+        return existing != null ? existing : document;
+    }
+
+    /**
+     * Serve a document read elsewhere, e.g. by {@link SchemaBundleLoader}, as if it had been
+     * fetched. A document fetched before is kept.
+     *
+     * @param key      the normalized URI of the document
+     * @param document JsonElement
+     */
+    void addDocument(String key, JsonElement document) {
+        documents.putIfAbsent(key, document);
+    }
+
+    /**
+     * Forget a document and the schema compiled from it, so the next getSchema for its URI reads
+     * and compiles it again. Schemas that refer to it keep the schema compiled before. Its
+     * dependencies are kept, a $ref the new version no longer has only costs a recompile.
+     *
+     * @param key the normalized URI of the document
+     * @return the document forgotten, or null
+     */
+    JsonElement invalidate(String key) {
+        schemaCache.invalidate(key);
+        return documents.remove(key);
+    }
+
+    /**
+     * Record that a schema refers to another document, see {@link #getDependencies(String)}.
+     *
+     * @param from the root schema containing the $ref
+     * @param to   the root schema of the document the $ref points to
+     */
+    void addDependency(JsonSchema from, JsonSchema to) {
+        String fromKey = from.getDocumentKey();
+        String toKey = to.getDocumentKey();
+        if (fromKey == null || toKey == null || fromKey.equals(toKey)) {
+            return;
+        }
+        Set<String> keys = dependencies.get(fromKey);
+        if (keys == null) {
+            Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            keys = dependencies.putIfAbsent(fromKey, created);
+            if (keys == null) {
+                keys = created;
             }
+        }
+        keys.add(toKey);
+    }
 
-            return new JsonSchema(schemaNode);
+    /**
+     * @param key the normalized URI of a document
+     * @return the documents its $ref point to, as far as they were resolved; with
+     * {@link SchemaValidatorsConfig#isLazyRefs()} that is only the ones used so far
+     */
+    Set<String> getDependencies(String key) {
+        Set<String> keys = dependencies.get(key);
+        return keys == null ? Collections.<String>emptySet() : keys;
+    }
 
+    /**
+     * Write the documents this factory loaded by URI, remote $ref targets included, to a binary
+     * snapshot that {@link #loadSnapshot(InputStream, String)} reads back without fetching or
+     * parsing them.
+     *
+     * @param out         OutputStream, flushed but not closed
+     * @param fingerprint identifies the version of the sources, e.g. a release number or a hash
+     *                    of the schema files; a snapshot only loads for the same fingerprint
+     */
+    public void writeSnapshot(OutputStream out, String fingerprint) {
+        if (fingerprint == null) {
+            throw new IllegalArgumentException("fingerprint must not be null");
+        }
+        try {
+            SchemaSnapshot.write(documents, fingerprint, out);
         } catch (IOException ioe) {
-            logger.error("Failed to load json schema!", ioe);
+            logger.error("Failed to write schema snapshot!", ioe);
             throw new JsonSchemaException(ioe);
         }
     }
 
+    /**
+     * Load the documents of a snapshot written by {@link #writeSnapshot(OutputStream, String)}.
+     * They are compiled when first asked for, like fetched documents, so a snapshot may hold
+     * more documents than the schema cache; the cache should still hold the schemas in use, see
+     * {@link SchemaValidatorsConfig#setSchemaCacheSize(int)}, or evicted ones are compiled again.
+     * If the snapshot was written for another fingerprint or by another version of the library,
+     * or cannot be read, nothing is loaded and schemas are fetched and compiled from their
+     * sources as usual.
+     *
+     * @param in          InputStream, not closed
+     * @param fingerprint the fingerprint the sources have now
+     * @return true if the snapshot was loaded
+     */
+    public boolean loadSnapshot(InputStream in, String fingerprint) {
+        if (fingerprint == null) {
+            throw new IllegalArgumentException("fingerprint must not be null");
+        }
+        Map<String, JsonElement> snapshot;
+        try {
+            snapshot = SchemaSnapshot.read(fingerprint, in);
+        } catch (IOException ioe) {
+            logger.warn("Ignoring schema snapshot that cannot be read: " + ioe);
+            return false;
+        }
+        if (snapshot == null) {
+            logger.info("Ignoring schema snapshot of other sources or another version");
+            return false;
+        }
+        for (Map.Entry<String, JsonElement> entry : snapshot.entrySet()) {
+            addDocument(entry.getKey(), entry.getValue());
+        }
+        return true;
+    }
+
     public JsonSchema getSchema(JsonElement jsonNode) {
-        return new JsonSchema(jsonNode);
+        JsonSchema schema = new JsonSchema(this, jsonNode);
+        schema.resolveRefs();
+        return schema;
+    }
+
+    private static String contentKey(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder key = new StringBuilder(CONTENT_KEY_PREFIX);
+            for (byte b : digest.digest(content)) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
     }
 
-    private boolean idMatchesSourceUrl(JsonElement schema, URL schemaUrl) {
+    private boolean idMatchesSourceUrl(JsonElement schema, URI schemaUrl) {
 
         JsonElement idNode = schema.getAsJsonObject().get(DRAFT_4_ID);
 
@@ -47,4 +47,45 @@ public interface JsonValidator {
      */
     Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at);
 
+    /**
+     * Validate the given JsonElement at the given data path. The built-in validators implement
+     * this method and only render the path when they report an error; the default renders it
+     * and calls {@link #validate(JsonElement, JsonElement, String)}, so custom validators only
+     * need to implement that one. {@link BaseJsonValidator} turns it around: its subclasses
+     * implement this method.
+     *
+     * @param node     JsonElement
+     * @param rootNode JsonElement
+     * @param at       DataPath
+     * @return A list of ValidationMessage if there is any validation error, or an empty
+     * list if there is no error.
+     */
+    default Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
+        return validate(node, rootNode, at.toString());
+    }
+
+    /**
+     * Check the given root JsonElement without building any ValidationMessage. It stops at
+     * the first failing keyword, so it is cheaper than validate when only a yes/no answer is
+     * needed.
+     *
+     * @param rootNode JsonElement
+     * @return true if the node is valid
+     */
+    default boolean isValid(JsonElement rootNode) {
+        return isValid(rootNode, rootNode);
+    }
+
+    /**
+     * Check the given JsonElement, the child node of the root node, without building any
+     * ValidationMessage. Validators that can answer without collecting errors override it.
+     *
+     * @param node     JsonElement
+     * @param rootNode JsonElement
+     * @return true if the node is valid
+     */
+    default boolean isValid(JsonElement node, JsonElement rootNode) {
+        return validate(node, rootNode, AT_ROOT).isEmpty();
+    }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Equality of JSON values as the specification defines it: numbers are equal if their
+ * mathematical values are, objects are equal regardless of the order of their members.
+ * JsonElement.equals differs on both, and its hashCode is not consistent for numbers held by
+ * different Number subclasses, so it cannot be used to look values up in a hash set.
+ */
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    /**
+     * A key for the value in hash based collections: the String, Boolean or
+     * {@link TypeFactory#numberKey(Number)} of a primitive, JsonNull for null and a {@link Key}
+     * for objects and arrays. Keys of different kinds of values are never equal.
+     */
+    static Object key(JsonElement node) {
+        if (node.isJsonPrimitive()) {
+            JsonPrimitive primitive = node.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return TypeFactory.numberKey(primitive.getAsNumber());
+            }
+            if (primitive.isBoolean()) {
+                return primitive.getAsBoolean();
+            }
+            return primitive.getAsString();
+        }
+        if (node.isJsonNull()) {
+            return JsonNull.INSTANCE;
+        }
+        return new Key(node);
+    }
+
+    static int hash(JsonElement node) {
+        if (node.isJsonObject()) {
+            int hash = 0;
+            for (Map.Entry<String, JsonElement> entry : node.getAsJsonObject().entrySet()) {
+                // a sum, so that the order of the members does not matter
+                hash += entry.getKey().hashCode() ^ hash(entry.getValue());
+            }
+            return hash;
+        }
+        if (node.isJsonArray()) {
+            int hash = 1;
+            for (JsonElement item : node.getAsJsonArray()) {
+                hash = 31 * hash + hash(item);
+            }
+            return hash;
+        }
+        if (node.isJsonPrimitive()) {
+            JsonPrimitive primitive = node.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return TypeFactory.numberKey(primitive.getAsNumber()).hashCode();
+            }
+            if (primitive.isBoolean()) {
+                return Boolean.hashCode(primitive.getAsBoolean());
+            }
+            return primitive.getAsString().hashCode();
+        }
+        return 0;
+    }
+
+    static boolean equal(JsonElement a, JsonElement b) {
+        if (a == b) {
+            return true;
+        }
+        if (a.isJsonObject()) {
+            if (!b.isJsonObject()) {
+                return false;
+            }
+            JsonObject o1 = a.getAsJsonObject();
+            JsonObject o2 = b.getAsJsonObject();
+            if (o1.entrySet().size() != o2.entrySet().size()) {
+                return false;
+            }
+            for (Map.Entry<String, JsonElement> entry : o1.entrySet()) {
+                JsonElement other = o2.get(entry.getKey());
+                if (other == null || !equal(entry.getValue(), other)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a.isJsonArray()) {
+            if (!b.isJsonArray()) {
+                return false;
+            }
+            JsonArray a1 = a.getAsJsonArray();
+            JsonArray a2 = b.getAsJsonArray();
+            if (a1.size() != a2.size()) {
+                return false;
+            }
+            Iterator<JsonElement> i2 = a2.iterator();
+            for (JsonElement item : a1) {
+                if (!equal(item, i2.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a.isJsonPrimitive()) {
+            if (!b.isJsonPrimitive()) {
+                return false;
+            }
+            JsonPrimitive p1 = a.getAsJsonPrimitive();
+            JsonPrimitive p2 = b.getAsJsonPrimitive();
+            if (p1.isNumber() || p2.isNumber()) {
+                return p1.isNumber() && p2.isNumber()
+                    && TypeFactory.numberKey(p1.getAsNumber()).equals(TypeFactory.numberKey(p2.getAsNumber()));
+            }
+            return p1.equals(p2);
+        }
+        return b.isJsonNull();
+    }
+
+    /**
+     * Wraps a JsonElement to use it in hash based collections with the equality above. The hash
+     * is computed once, when the key is created.
+     */
+    static final class Key {
+        private final JsonElement node;
+        private final int hash;
+
+        Key(JsonElement node) {
+            this.node = node;
+            this.hash = JsonValues.hash(node);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && JsonValues.equal(node, other.node);
+        }
+    }
+
+}
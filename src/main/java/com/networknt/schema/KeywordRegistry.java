@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps schema keywords to the factory of their validator. It is filled from ValidatorTypeCode
+ * and custom keywords can be added with {@link #register(String, KeywordValidatorFactory)}.
+ * Keywords that are not registered (title, description, definitions, ...) are ignored when a
+ * schema is read.
+ */
+public final class KeywordRegistry {
+    private static final Map<String, KeywordValidatorFactory> factories =
+        new ConcurrentHashMap<String, KeywordValidatorFactory>();
+    private static final Map<String, KeywordValidatorFactory> builtIns =
+        new ConcurrentHashMap<String, KeywordValidatorFactory>();
+
+    static {
+        for (ValidatorTypeCode code : ValidatorTypeCode.values()) {
+            if (code.getValidatorFactory() != null) {
+                builtIns.put(code.getKeyword(), code.getValidatorFactory());
+            }
+        }
+        factories.putAll(builtIns);
+    }
+
+    private KeywordRegistry() {
+    }
+
+    /**
+     * Register the validator factory of a custom keyword. Registering a built-in keyword again
+     * replaces its validator for all schemas read afterwards.
+     *
+     * @param keyword String
+     * @param factory KeywordValidatorFactory
+     */
+    public static void register(String keyword, KeywordValidatorFactory factory) {
+        if (keyword == null || factory == null) {
+            throw new IllegalArgumentException("keyword and factory must not be null");
+        }
+        factories.put(keyword, factory);
+    }
+
+    /**
+     * @param keyword String
+     * @return the factory for the keyword, or null if the keyword is not supported
+     */
+    public static KeywordValidatorFactory get(String keyword) {
+        return factories.get(keyword);
+    }
+
+    /**
+     * @param keyword String
+     * @return true if the keyword was registered with a factory other than the built-in one
+     */
+    static boolean isCustom(String keyword) {
+        KeywordValidatorFactory factory = factories.get(keyword);
+        return factory != null && factory != builtIns.get(keyword);
+    }
+
+}
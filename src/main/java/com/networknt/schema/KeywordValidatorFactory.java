@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Creates the validator for one keyword of a schema. The built-in validators are registered
+ * with their constructor, e.g. {@code TypeValidator::new}.
+ */
+public interface KeywordValidatorFactory {
+
+    /**
+     * @param schemaPath   the path of the keyword in the schema, e.g. "#/properties/name/type"
+     * @param schemaNode   the value of the keyword
+     * @param parentSchema the schema the keyword belongs to
+     * @return JsonValidator
+     */
+    JsonValidator newValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema);
+
+}
@@ -0,0 +1,855 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * An expression compiled by {@link LinearRegexEngine}. The expression is parsed into a tree,
+ * the tree is compiled into the instructions of an NFA and matching runs every thread of the
+ * NFA in lock step over the input, one character at a time. Each instruction is visited at
+ * most once per position, so matching takes O(length of input * size of program) time.
+ */
+final class LinearRegex implements Regex, RegexSet {
+    /**
+     * The largest program an expression may compile to. Counted repetition copies its operand,
+     * so a{1000}{1000} would otherwise take a lot of memory.
+     */
+    static final int MAX_PROGRAM_SIZE = 100000;
+
+    // instructions
+    private static final int CHAR = 0;
+    private static final int SET = 1;
+    private static final int ANY = 2;
+    private static final int SPLIT = 3;
+    private static final int JUMP = 4;
+    private static final int ASSERT = 5;
+    private static final int MATCH = 6;
+
+    // assertions
+    private static final int BEGIN = 0;
+    private static final int END = 1;
+    private static final int WORD_BOUNDARY = 2;
+    private static final int NOT_WORD_BOUNDARY = 3;
+
+    private static final char[] DIGIT = {'0', '9'};
+    private static final char[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final char[] SPACE = {'\t', '\r', ' ', ' ', '\u00a0', '\u00a0', '\u1680', '\u1680',
+        '\u2000', '\u200a', '\u2028', '\u2029', '\u202f', '\u202f', '\u205f', '\u205f', '\u3000', '\u3000',
+        '\ufeff', '\ufeff'};
+
+    private final String pattern;
+    private final int[] ops;
+    // CHAR: the char, SET: the index of the set, SPLIT and JUMP: the target, ASSERT: the assertion
+    private final int[] arg1;
+    // SPLIT: the second target
+    private final int[] arg2;
+    private final CharSet[] sets;
+    // true if every expression starts with ^
+    private final boolean anchored;
+    // the number of expressions, each ends with a MATCH of its index
+    private final int size;
+
+    private LinearRegex(String pattern, Program program, boolean anchored, int size) {
+        this.pattern = pattern;
+        this.ops = Arrays.copyOf(program.ops, program.size);
+        this.arg1 = Arrays.copyOf(program.arg1, program.size);
+        this.arg2 = Arrays.copyOf(program.arg2, program.size);
+        this.sets = program.sets.toArray(new CharSet[program.sets.size()]);
+        this.anchored = anchored;
+        this.size = size;
+    }
+
+    static LinearRegex compile(String pattern) {
+        return compileSet(Collections.singletonList(pattern));
+    }
+
+    /**
+     * Compile the expressions into one program, an alternation whose branches end with the
+     * MATCH of their index, so that {@link #findAll(String)} tests all of them in one pass.
+     */
+    static LinearRegex compileSet(List<String> patterns) {
+        StringBuilder source = new StringBuilder();
+        Program program = new Program(String.valueOf(patterns));
+        boolean anchored = !patterns.isEmpty();
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            Node tree = new Parser(pattern).parse();
+            int split = i < patterns.size() - 1 ? program.emit(SPLIT, program.size + 1, 0) : -1;
+            int start = program.size;
+            tree.emit(program);
+            program.emit(MATCH, i, 0);
+            anchored &= program.ops[start] == ASSERT && program.arg1[start] == BEGIN;
+            if (split >= 0) {
+                program.arg2[split] = program.size;
+            }
+            source.append(i == 0 ? "" : "|").append(pattern);
+        }
+        if (program.size == 0) {
+            // no expression, nothing matches
+            program.emit(SET, 0, 0);
+            program.sets.add(new CharSet(new char[0]));
+        }
+        return new LinearRegex(source.toString(), program, anchored, patterns.size());
+    }
+
+    @Override
+    public boolean find(String input) {
+        return run(input, false, null);
+    }
+
+    @Override
+    public boolean matches(String input) {
+        return run(input, true, null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int[] findAll(String input) {
+        Matches matches = new Matches(size);
+        run(input, false, matches);
+        int[] indices = new int[size - matches.remaining];
+        for (int i = 0, j = 0; i < size; i++) {
+            if (matches.found[i]) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public String pattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * @param matches null to stop at the first match of any expression, otherwise where the
+     *                indices of the expressions found are recorded
+     */
+    private boolean run(String input, boolean whole, Matches matches) {
+        int length = input.length();
+        Threads current = new Threads(ops.length);
+        Threads next = new Threads(ops.length);
+        for (int pos = 0; ; pos++) {
+            // find tries a match starting at every position, unless the expression starts with ^
+            if ((pos == 0 || !(whole || anchored)) && add(current, 0, input, pos, whole, matches)) {
+                return true;
+            }
+            if (pos == length || (current.size == 0 && (whole || anchored))) {
+                return false;
+            }
+            char c = input.charAt(pos);
+            next.clear();
+            for (int i = 0; i < current.size; i++) {
+                int pc = current.dense[i];
+                if (accepts(pc, c) && add(next, pc + 1, input, pos + 1, whole, matches)) {
+                    return true;
+                }
+            }
+            Threads swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    private boolean accepts(int pc, char c) {
+        switch (ops[pc]) {
+            case CHAR:
+                return arg1[pc] == c;
+            case SET:
+                return sets[arg1[pc]].contains(c);
+            case ANY:
+                return c != '\n' && c != '\r' && c != '\u2028' && c != '\u2029';
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Add the thread at pc and every thread reachable from it without consuming a character.
+     *
+     * @return true if a match is reached, or all expressions of the set have been found
+     */
+    private boolean add(Threads threads, int pc, String input, int pos, boolean whole, Matches matches) {
+        int[] stack = threads.stack;
+        int top = 0;
+        stack[top++] = pc;
+        while (top > 0) {
+            pc = stack[--top];
+            if (!threads.add(pc)) {
+                continue;
+            }
+            switch (ops[pc]) {
+                case JUMP:
+                    stack[top++] = arg1[pc];
+                    break;
+                case SPLIT:
+                    stack[top++] = arg2[pc];
+                    stack[top++] = arg1[pc];
+                    break;
+                case ASSERT:
+                    if (holds(arg1[pc], input, pos)) {
+                        stack[top++] = pc + 1;
+                    }
+                    break;
+                case MATCH:
+                    if (whole && pos != input.length()) {
+                        break;
+                    }
+                    if (matches == null) {
+                        return true;
+                    }
+                    if (!matches.found[arg1[pc]]) {
+                        matches.found[arg1[pc]] = true;
+                        if (--matches.remaining == 0) {
+                            return true;
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean holds(int assertion, String input, int pos) {
+        switch (assertion) {
+            case BEGIN:
+                return pos == 0;
+            case END:
+                return pos == input.length();
+            case WORD_BOUNDARY:
+                return isWordChar(input, pos - 1) != isWordChar(input, pos);
+            default:
+                return isWordChar(input, pos - 1) == isWordChar(input, pos);
+        }
+    }
+
+    private static boolean isWordChar(String input, int pos) {
+        if (pos < 0 || pos >= input.length()) {
+            return false;
+        }
+        char c = input.charAt(pos);
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';
+    }
+
+    private static final class Matches {
+        final boolean[] found;
+        int remaining;
+
+        Matches(int size) {
+            found = new boolean[size];
+            remaining = size;
+        }
+    }
+
+    /**
+     * The threads at one position, as a sparse set of instructions so that adding and clearing
+     * do not depend on the size of the program.
+     */
+    private static final class Threads {
+        final int[] dense;
+        final int[] sparse;
+        // every SPLIT pushes two instructions, each instruction is added once
+        final int[] stack;
+        int size;
+
+        Threads(int capacity) {
+            dense = new int[capacity];
+            sparse = new int[capacity];
+            stack = new int[2 * capacity + 1];
+        }
+
+        boolean add(int pc) {
+            int i = sparse[pc];
+            if (i < size && dense[i] == pc) {
+                return false;
+            }
+            sparse[pc] = size;
+            dense[size++] = pc;
+            return true;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    private static final class Program {
+        final String pattern;
+        int[] ops = new int[16];
+        int[] arg1 = new int[16];
+        int[] arg2 = new int[16];
+        final List<CharSet> sets = new ArrayList<CharSet>();
+        int size;
+
+        Program(String pattern) {
+            this.pattern = pattern;
+        }
+
+        int emit(int op, int a1, int a2) {
+            if (size == MAX_PROGRAM_SIZE) {
+                throw new PatternSyntaxException("Expression is too large", pattern, -1);
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                arg1 = Arrays.copyOf(arg1, size * 2);
+                arg2 = Arrays.copyOf(arg2, size * 2);
+            }
+            ops[size] = op;
+            arg1[size] = a1;
+            arg2[size] = a2;
+            return size++;
+        }
+    }
+
+    private abstract static class Node {
+        abstract void emit(Program program);
+    }
+
+    private static final class CharNode extends Node {
+        final char c;
+
+        CharNode(char c) {
+            this.c = c;
+        }
+
+        void emit(Program program) {
+            program.emit(CHAR, c, 0);
+        }
+    }
+
+    private static final class SetNode extends Node {
+        final CharSet set;
+
+        SetNode(CharSet set) {
+            this.set = set;
+        }
+
+        void emit(Program program) {
+            int index = program.sets.indexOf(set);
+            if (index < 0) {
+                index = program.sets.size();
+                program.sets.add(set);
+            }
+            program.emit(SET, index, 0);
+        }
+    }
+
+    private static final class AnyNode extends Node {
+        void emit(Program program) {
+            program.emit(ANY, 0, 0);
+        }
+    }
+
+    private static final class AssertNode extends Node {
+        final int assertion;
+
+        AssertNode(int assertion) {
+            this.assertion = assertion;
+        }
+
+        void emit(Program program) {
+            program.emit(ASSERT, assertion, 0);
+        }
+    }
+
+    private static final class ConcatNode extends Node {
+        final List<Node> items;
+
+        ConcatNode(List<Node> items) {
+            this.items = items;
+        }
+
+        void emit(Program program) {
+            for (Node item : items) {
+                item.emit(program);
+            }
+        }
+    }
+
+    private static final class AlternationNode extends Node {
+        final List<Node> alternatives;
+
+        AlternationNode(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        void emit(Program program) {
+            List<Integer> jumps = new ArrayList<Integer>();
+            for (int i = 0; i < alternatives.size() - 1; i++) {
+                int split = program.emit(SPLIT, program.size + 1, 0);
+                alternatives.get(i).emit(program);
+                jumps.add(program.emit(JUMP, 0, 0));
+                program.arg2[split] = program.size;
+            }
+            alternatives.get(alternatives.size() - 1).emit(program);
+            for (int jump : jumps) {
+                program.arg1[jump] = program.size;
+            }
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+        final Node item;
+        final int min;
+        // -1 for no upper bound
+        final int max;
+
+        RepeatNode(Node item, int min, int max) {
+            this.item = item;
+            this.min = min;
+            this.max = max;
+        }
+
+        void emit(Program program) {
+            for (int i = 0; i < min; i++) {
+                item.emit(program);
+            }
+            if (max < 0) {
+                int split = program.emit(SPLIT, program.size + 1, 0);
+                item.emit(program);
+                program.emit(JUMP, split, 0);
+                program.arg2[split] = program.size;
+            } else {
+                for (int i = min; i < max; i++) {
+                    int split = program.emit(SPLIT, program.size + 1, 0);
+                    item.emit(program);
+                    program.arg2[split] = program.size;
+                }
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String pattern;
+        private int pos;
+
+        Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (pos < pattern.length()) {
+                throw error("Unmatched closing ')'");
+            }
+            return node;
+        }
+
+        private PatternSyntaxException error(String description) {
+            return new PatternSyntaxException(description, pattern, pos - 1);
+        }
+
+        private Node alternation() {
+            List<Node> alternatives = new ArrayList<Node>();
+            alternatives.add(concatenation());
+            while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(concatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+        }
+
+        private Node concatenation() {
+            List<Node> items = new ArrayList<Node>();
+            while (pos < pattern.length() && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+                items.add(repetition());
+            }
+            return items.size() == 1 ? items.get(0) : new ConcatNode(items);
+        }
+
+        private Node repetition() {
+            Node atom = atom();
+            int[] bounds = quantifier();
+            if (bounds == null) {
+                return atom;
+            }
+            if (atom instanceof AssertNode) {
+                throw error("Nothing to repeat");
+            }
+            if (pos < pattern.length() && pattern.charAt(pos) == '?') {
+                // lazy and greedy quantifiers match the same strings
+                pos++;
+            }
+            if (quantifier() != null) {
+                throw error("Nothing to repeat");
+            }
+            return new RepeatNode(atom, bounds[0], bounds[1]);
+        }
+
+        /**
+         * @return min and max of the quantifier at the current position or null if there is none
+         */
+        private int[] quantifier() {
+            if (pos == pattern.length()) {
+                return null;
+            }
+            switch (pattern.charAt(pos)) {
+                case '*':
+                    pos++;
+                    return new int[]{0, -1};
+                case '+':
+                    pos++;
+                    return new int[]{1, -1};
+                case '?':
+                    pos++;
+                    return new int[]{0, 1};
+                case '{':
+                    return bounds();
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * {n}, {n,} or {n,m}; anything else is a literal '{' as in Annex B of ECMA 262.
+         */
+        private int[] bounds() {
+            int i = pos + 1;
+            int start = i;
+            while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                i++;
+            }
+            if (i == start || i == pattern.length()) {
+                return null;
+            }
+            int min = number(start, i);
+            int max = min;
+            if (pattern.charAt(i) == ',') {
+                start = ++i;
+                while (i < pattern.length() && Character.isDigit(pattern.charAt(i))) {
+                    i++;
+                }
+                max = i == start ? -1 : number(start, i);
+            }
+            if (i == pattern.length() || pattern.charAt(i) != '}') {
+                return null;
+            }
+            pos = i + 1;
+            if (max >= 0 && max < min) {
+                throw error("Numbers out of order in {} quantifier");
+            }
+            return new int[]{min, max};
+        }
+
+        private int number(int start, int end) {
+            if (end - start > 6) {
+                throw error("Quantifier is too large");
+            }
+            return Integer.parseInt(pattern.substring(start, end));
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (pattern.startsWith("?:", pos)) {
+                        pos += 2;
+                    } else if (pattern.startsWith("?", pos)) {
+                        throw error("Lookaround and named groups are not supported");
+                    }
+                    Node group = alternation();
+                    if (pos == pattern.length()) {
+                        throw error("Unclosed group");
+                    }
+                    pos++;
+                    return group;
+                case '[':
+                    return new SetNode(characterClass());
+                case '.':
+                    return new AnyNode();
+                case '^':
+                    return new AssertNode(BEGIN);
+                case '$':
+                    return new AssertNode(END);
+                case '\\':
+                    return escape();
+                case '*':
+                case '+':
+                case '?':
+                    throw error("Nothing to repeat");
+                case '{':
+                    pos--;
+                    if (bounds() != null) {
+                        throw error("Nothing to repeat");
+                    }
+                    pos++;
+                    return new CharNode(c);
+                default:
+                    return new CharNode(c);
+            }
+        }
+
+        private Node escape() {
+            if (pos == pattern.length()) {
+                throw error("Trailing backslash");
+            }
+            char c = pattern.charAt(pos++);
+            switch (c) {
+                case 'd':
+                case 'D':
+                case 'w':
+                case 'W':
+                case 's':
+                case 'S':
+                    return new SetNode(new CharSet(classEscape(c)));
+                case 'b':
+                    return new AssertNode(WORD_BOUNDARY);
+                case 'B':
+                    return new AssertNode(NOT_WORD_BOUNDARY);
+                default:
+                    return new CharNode(characterEscape(c));
+            }
+        }
+
+        private static char[] classEscape(char c) {
+            switch (c) {
+                case 'd':
+                    return DIGIT;
+                case 'D':
+                    return CharSet.complement(DIGIT);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return CharSet.complement(WORD);
+                case 's':
+                    return SPACE;
+                default:
+                    return CharSet.complement(SPACE);
+            }
+        }
+
+        private char characterEscape(char c) {
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'v':
+                    return '\u000b';
+                case '0':
+                    if (pos < pattern.length() && Character.isDigit(pattern.charAt(pos))) {
+                        throw error("Octal escapes are not supported");
+                    }
+                    return '\0';
+                case 'c':
+                    if (pos < pattern.length() && isAsciiLetter(pattern.charAt(pos))) {
+                        return (char) (pattern.charAt(pos++) % 32);
+                    }
+                    throw error("Illegal control escape");
+                case 'x':
+                    return (char) hex(2);
+                case 'u':
+                    return (char) hex(4);
+                default:
+                    if (c >= '1' && c <= '9' || c == 'k') {
+                        throw error("Backreferences are not supported");
+                    }
+                    if (isAsciiLetter(c)) {
+                        throw error("Unsupported escape sequence");
+                    }
+                    return c;
+            }
+        }
+
+        private int hex(int digits) {
+            if (pos + digits > pattern.length()) {
+                throw error("Illegal hexadecimal escape sequence");
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(pattern.charAt(pos++), 16);
+                if (digit < 0) {
+                    throw error("Illegal hexadecimal escape sequence");
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        private static boolean isAsciiLetter(char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+        }
+
+        private CharSet characterClass() {
+            boolean negated = pos < pattern.length() && pattern.charAt(pos) == '^';
+            if (negated) {
+                pos++;
+            }
+            CharSet.Builder builder = new CharSet.Builder();
+            while (true) {
+                if (pos == pattern.length()) {
+                    throw error("Unclosed character class");
+                }
+                if (pattern.charAt(pos) == ']') {
+                    pos++;
+                    break;
+                }
+                int low = classAtom(builder);
+                if (low >= 0 && pos + 1 < pattern.length() && pattern.charAt(pos) == '-'
+                    && pattern.charAt(pos + 1) != ']') {
+                    pos++;
+                    int high = classAtom(builder);
+                    if (high < 0 || high < low) {
+                        throw error("Illegal character range");
+                    }
+                    builder.add(low, high);
+                } else if (low >= 0) {
+                    builder.add(low, low);
+                }
+            }
+            return builder.build(negated);
+        }
+
+        /**
+         * @return the character at the current position, or -1 for \d, \w, \s and their
+         * negations, which are added to the builder
+         */
+        private int classAtom(CharSet.Builder builder) {
+            char c = pattern.charAt(pos++);
+            if (c != '\\') {
+                return c;
+            }
+            if (pos == pattern.length()) {
+                throw error("Trailing backslash");
+            }
+            char e = pattern.charAt(pos++);
+            switch (e) {
+                case 'd':
+                case 'D':
+                case 'w':
+                case 'W':
+                case 's':
+                case 'S':
+                    builder.addAll(classEscape(e));
+                    return -1;
+                case 'b':
+                    return '\b';
+                case '-':
+                    return '-';
+                default:
+                    return characterEscape(e);
+            }
+        }
+    }
+
+    /**
+     * A set of characters as sorted, disjoint, inclusive ranges.
+     */
+    static final class CharSet {
+        private final char[] ranges;
+
+        CharSet(char[] ranges) {
+            this.ranges = ranges;
+        }
+
+        boolean contains(char c) {
+            int low = 0;
+            int high = ranges.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (c < ranges[2 * mid]) {
+                    high = mid - 1;
+                } else if (c > ranges[2 * mid + 1]) {
+                    low = mid + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CharSet && Arrays.equals(ranges, ((CharSet) obj).ranges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ranges);
+        }
+
+        static char[] complement(char[] ranges) {
+            char[] result = new char[ranges.length + 2];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    result[size++] = (char) next;
+                    result[size++] = (char) (ranges[i] - 1);
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE) {
+                result[size++] = (char) next;
+                result[size++] = Character.MAX_VALUE;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        static final class Builder {
+            private final List<int[]> ranges = new ArrayList<int[]>();
+
+            void add(int low, int high) {
+                ranges.add(new int[]{low, high});
+            }
+
+            void addAll(char[] set) {
+                for (int i = 0; i < set.length; i += 2) {
+                    add(set[i], set[i + 1]);
+                }
+            }
+
+            CharSet build(boolean negated) {
+                int[][] sorted = ranges.toArray(new int[ranges.size()][]);
+                Arrays.sort(sorted, (r1, r2) -> Integer.compare(r1[0], r2[0]));
+                char[] merged = new char[2 * sorted.length];
+                int size = 0;
+                for (int[] range : sorted) {
+                    if (size > 0 && range[0] <= merged[size - 1] + 1) {
+                        merged[size - 1] = (char) Math.max(merged[size - 1], range[1]);
+                    } else {
+                        merged[size++] = (char) range[0];
+                        merged[size++] = (char) range[1];
+                    }
+                }
+                merged = Arrays.copyOf(merged, size);
+                return new CharSet(negated ? complement(merged) : merged);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A {@link RegexEngine} whose matching time is linear in the length of the string, whatever the
+ * expression, so untrusted input cannot make validation hang on a pathological pattern. It
+ * simulates the NFA of the expression over all positions at once (a Pike VM without captures)
+ * instead of backtracking.
+ * <p>
+ * The syntax is the ECMA 262 one that JSON Schema refers to: literals and escapes, ".",
+ * character classes, \d \w \s and their negations, ^ $ \b \B, groups, alternation and the
+ * greedy and lazy quantifiers. Backreferences, lookahead and lookbehind cannot be matched in
+ * linear time and are rejected, as are Java only constructs such as \p{..} or possessive
+ * quantifiers: the schema then fails to compile with a JsonSchemaException, rather than losing
+ * the keyword and accepting everything. ^ and $ only match at the start and the end of the string.
+ */
+public class LinearRegexEngine implements RegexEngine {
+
+    @Override
+    public Regex compile(String pattern) {
+        try {
+            return LinearRegex.compile(pattern);
+        } catch (PatternSyntaxException e) {
+            throw new JsonSchemaException(e);
+        }
+    }
+
+    /**
+     * The expressions are compiled into one automaton, so a string is read once whatever the
+     * number of expressions.
+     */
+    @Override
+    public RegexSet compileSet(List<String> patterns) {
+        try {
+            return LinearRegex.compileSet(patterns);
+        } catch (PatternSyntaxException e) {
+            throw new JsonSchemaException(e);
+        }
+    }
+
+}
@@ -38,14 +38,23 @@ public class MaxItemsValidator extends BaseJsonValidator implements JsonValidato
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    int getMax() {
+        return max;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
-        if (node.isJsonArray() && node.getAsJsonArray().size() > max) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + max));
         }
 
         return Collections.emptySet();
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        return !(node.isJsonArray() && node.getAsJsonArray().size() > max);
+    }
+
 }
@@ -38,21 +38,29 @@ public class MaxLengthValidator extends BaseJsonValidator implements JsonValidat
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
-        debug(logger, node, rootNode, at);
+    int getMaxLength() {
+        return maxLength;
+    }
 
-        JsonType nodeType = TypeFactory.getValueNodeType(node);
-        if (nodeType != JsonType.STRING) {
-            // ignore no-string typs
-            return Collections.emptySet();
-        }
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
+        debug(logger, node, rootNode, at);
 
-        String textValue = asText(node);
-        if (textValue.codePointCount(0, textValue.length()) > maxLength) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + maxLength));
         } else {
             return Collections.emptySet();
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!isString(node)) {
+            // ignore no-string typs
+            return true;
+        }
+
+        String textValue = asText(node);
+        return textValue.codePointCount(0, textValue.length()) <= maxLength;
+    }
+
 }
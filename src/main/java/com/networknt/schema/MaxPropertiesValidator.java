@@ -37,14 +37,23 @@ public class MaxPropertiesValidator extends BaseJsonValidator implements JsonVal
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    int getMax() {
+        return max;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
-        if (node.isJsonObject() && node.getAsJsonObject().size() > max) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + max));
         } else {
             return Collections.emptySet();
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        return !(node.isJsonObject() && node.getAsJsonObject().size() > max);
+    }
+
 }
@@ -49,20 +49,33 @@ public class MaximumValidator extends BaseJsonValidator implements JsonValidator
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    double getMaximum() {
+        return maximum;
+    }
+
+    boolean isExclusive() {
+        return excludeEqual;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
+        if (!isValid(node, rootNode)) {
+            return Collections.singleton(buildValidationMessage(at, "" + maximum));
+        } else {
+            return Collections.emptySet();
+        }
+    }
+
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
         if (!isNumber(node)) {
             // maximum only applies to numbers
-            return Collections.emptySet();
+            return true;
         }
 
         double value = doubleValue(node);
-        if (greaterThan(value, maximum) || (excludeEqual && equals(value, maximum))) {
-            return Collections.singleton(buildValidationMessage(at, "" + maximum));
-        } else {
-            return Collections.emptySet();
-        }
+        return !(greaterThan(value, maximum) || (excludeEqual && equals(value, maximum)));
     }
 
 }
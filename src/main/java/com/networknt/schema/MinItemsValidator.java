@@ -37,14 +37,23 @@ public class MinItemsValidator extends BaseJsonValidator implements JsonValidato
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    int getMin() {
+        return min;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
-        if (node.isJsonArray() && node.getAsJsonArray().size() < min) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + min));
         }
 
         return Collections.emptySet();
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        return !(node.isJsonArray() && node.getAsJsonArray().size() < min);
+    }
+
 }
@@ -38,22 +38,29 @@ public class MinLengthValidator extends BaseJsonValidator implements JsonValidat
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
-        debug(logger, node, rootNode, at);
-
-        JsonType nodeType = TypeFactory.getValueNodeType(node);
-        if (nodeType != JsonType.STRING) {
-            // ignore non-string types
-            return Collections.emptySet();
-        }
+    int getMinLength() {
+        return minLength;
+    }
 
-        String textValue = asText(node);
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
+        debug(logger, node, rootNode, at);
 
-        if (textValue.codePointCount(0, textValue.length()) < minLength) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + minLength));
         } else {
             return Collections.emptySet();
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!isString(node)) {
+            // ignore non-string types
+            return true;
+        }
+
+        String textValue = asText(node);
+        return textValue.codePointCount(0, textValue.length()) >= minLength;
+    }
+
 }
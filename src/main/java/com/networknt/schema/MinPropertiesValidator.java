@@ -37,14 +37,23 @@ public class MinPropertiesValidator extends BaseJsonValidator implements JsonVal
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    int getMin() {
+        return min;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
-        if (node.isJsonObject() && node.getAsJsonObject().size() < min) {
+        if (!isValid(node, rootNode)) {
             return Collections.singleton(buildValidationMessage(at, "" + min));
         }
 
         return Collections.emptySet();
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        return !(node.isJsonObject() && node.getAsJsonObject().size() < min);
+    }
+
 }
@@ -47,20 +47,33 @@ public class MinimumValidator extends BaseJsonValidator implements JsonValidator
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    double getMinimum() {
+        return minimum;
+    }
+
+    boolean isExclusive() {
+        return excluded;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
+        if (!isValid(node, rootNode)) {
+            return Collections.singleton(buildValidationMessage(at, "" + minimum));
+        } else {
+            return Collections.emptySet();
+        }
+    }
+
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
         if (!(node.isJsonPrimitive() && node.getAsJsonPrimitive().isNumber())) {
             // minimum only applies to numbers
-            return Collections.emptySet();
+            return true;
         }
 
         double value = node.getAsJsonPrimitive().getAsNumber().doubleValue();
-        if (lessThan(value, minimum) || (excluded && equals(value, minimum))) {
-            return Collections.singleton(buildValidationMessage(at, "" + minimum));
-        } else {
-            return Collections.emptySet();
-        }
+        return !(lessThan(value, minimum) || (excluded && equals(value, minimum)));
     }
 
 }
@@ -38,20 +38,27 @@ public class MultipleOfValidator extends BaseJsonValidator implements JsonValida
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
+        if (!isValid(node, rootNode)) {
+            return Collections.singleton(buildValidationMessage(at, "" + divisor));
+        }
+
+        return Collections.emptySet();
+    }
+
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
         if (isNumber(node)) {
             double nodeValue = node.getAsJsonPrimitive().getAsNumber().doubleValue();
             if (divisor != 0) {
                 long multiples = Math.round(nodeValue / divisor);
-                if (Math.abs(multiples * divisor - nodeValue) > 1e-12) {
-                    return Collections.singleton(buildValidationMessage(at, "" + divisor));
-                }
+                return Math.abs(multiples * divisor - nodeValue) <= 1e-12;
             }
         }
 
-        return Collections.emptySet();
+        return true;
     }
 
 }
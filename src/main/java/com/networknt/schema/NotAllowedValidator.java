@@ -42,18 +42,30 @@ public class NotAllowedValidator extends BaseJsonValidator implements JsonValida
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
 
         for (String fieldName : fieldNames) {
             if (node.getAsJsonObject().has(fieldName)) {
-                errors.add(buildValidationMessage(at, fieldName));
+                if (collectError(errors, buildValidationMessage(at, fieldName))) {
+                    break;
+                }
             }
         }
 
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (String fieldName : fieldNames) {
+            if (node.getAsJsonObject().has(fieldName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -27,23 +27,37 @@ public class NotValidator extends BaseJsonValidator implements JsonValidator {
     private static final Logger logger = LoggerFactory.getLogger(RequiredValidator.class);
 
     private JsonSchema schema;
+    /**
+     * How the message shows the subschema; not taken from the subschema, which may be shared.
+     */
+    private final String schemaDescription;
 
     public NotValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.NOT);
-        schema = new JsonSchema(getValidatorType().getValue(), schemaNode, parentSchema);
+        schema = parentSchema.compileSubschema(getValidatorType().getValue(), schemaNode);
+        schemaDescription = "\"" + getValidatorType().getValue() + "\" : " + schemaNode;
 
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    JsonSchema getSchema() {
+        return schema;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> notValidationError = new HashSet<>();
         Set<ValidationMessage> errors = schema.validate(node, rootNode, at);
         if (errors.isEmpty()) {
-            notValidationError.add(buildValidationMessage(at, schema.toString()));
+            notValidationError.add(buildValidationMessage(at, schemaDescription));
         }
         return notValidationError;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        return !schema.isValid(node, rootNode);
+    }
+
 }
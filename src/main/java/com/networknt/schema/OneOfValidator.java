@@ -33,26 +33,37 @@ public class OneOfValidator extends BaseJsonValidator implements JsonValidator {
     public OneOfValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.ONE_OF);
         for (JsonElement sub : schemaNode.getAsJsonArray()) {
-            schemas.add(new JsonSchema(getValidatorType().getValue(), sub, parentSchema));
+            schemas.add(parentSchema.compileSubschema(getValidatorType().getValue(), sub));
         }
 
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    List<JsonSchema> getSchemas() {
+        return schemas;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         int numberOfValidSchema = 0;
         Set<ValidationMessage> errors = new HashSet<>();
 
         for (JsonSchema schema : schemas) {
-            Set<ValidationMessage> schemaErrors = schema.validate(node, rootNode, at);
-            if (schemaErrors.isEmpty()) {
-                numberOfValidSchema++;
-                errors = new HashSet<>();
-            }
-            if (numberOfValidSchema == 0) {
-                errors.addAll(schemaErrors);
+            if (numberOfValidSchema > 0 || isErrorLimitReached(errors)) {
+                // the messages of this schema would not be reported, only count it if it is valid
+                if (CombinatorMemo.isValid(schema, node, rootNode)) {
+                    numberOfValidSchema++;
+                    errors = new HashSet<>();
+                }
+            } else {
+                Set<ValidationMessage> schemaErrors = CombinatorMemo.validate(schema, node, rootNode, at);
+                if (schemaErrors.isEmpty()) {
+                    numberOfValidSchema++;
+                    errors = new HashSet<>();
+                } else {
+                    collectErrors(errors, schemaErrors);
+                }
             }
             if (numberOfValidSchema > 1) {
                 break;
@@ -60,8 +71,7 @@ public class OneOfValidator extends BaseJsonValidator implements JsonValidator {
         }
 
         if (numberOfValidSchema == 0) {
-            errors.removeIf(msg -> ValidatorTypeCode.ADDITIONAL_PROPERTIES.equals(
-                ValidatorTypeCode.fromValue(msg.getType())));
+            errors.removeIf(msg -> ValidatorTypeCode.ADDITIONAL_PROPERTIES.getValue().equals(msg.getType()));
         }
         if (numberOfValidSchema > 1) {
             errors = new HashSet<>();
@@ -71,4 +81,18 @@ public class OneOfValidator extends BaseJsonValidator implements JsonValidator {
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        int numberOfValidSchema = 0;
+        for (JsonSchema schema : schemas) {
+            if (CombinatorMemo.isValid(schema, node, rootNode)) {
+                numberOfValidSchema++;
+                if (numberOfValidSchema > 1) {
+                    return false;
+                }
+            }
+        }
+        return numberOfValidSchema == 1;
+    }
+
 }
@@ -16,12 +16,11 @@
 
 package com.networknt.schema;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.gson.JsonElement;
 import org.slf4j.Logger;
@@ -30,7 +29,9 @@ import org.slf4j.LoggerFactory;
 public class PatternPropertiesValidator extends BaseJsonValidator implements JsonValidator {
     public static final String PROPERTY = "patternProperties";
     private static final Logger logger = LoggerFactory.getLogger(PatternPropertiesValidator.class);
-    private Map<Pattern, JsonSchema> schemas = new HashMap<Pattern, JsonSchema>();
+    // by the index of the pattern in the classifier
+    private final List<JsonSchema> schemas = new ArrayList<JsonSchema>();
+    private final PropertyClassifier classifier;
 
     public PatternPropertiesValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.PATTERN_PROPERTIES);
@@ -38,12 +39,18 @@ public class PatternPropertiesValidator extends BaseJsonValidator implements Jso
             throw new JsonSchemaException("patternProperties must be an object node");
         }
         for (String name : schemaNode.getAsJsonObject().keySet()) {
-            schemas.put(Pattern.compile(name),
-                new JsonSchema(name, schemaNode.getAsJsonObject().get(name), parentSchema));
+            schemas.add(parentSchema.compileSubschema(name, schemaNode.getAsJsonObject().get(name)));
         }
+        classifier = parentSchema.getPropertyClassifier();
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    void addMatchingSchemas(String name, List<JsonSchema> matches) {
+        for (int i : classifier.getMatchingPatterns(name)) {
+            matches.add(schemas.get(i));
+        }
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
@@ -54,14 +61,29 @@ public class PatternPropertiesValidator extends BaseJsonValidator implements Jso
 
         for (String name : node.getAsJsonObject().keySet()) {
             JsonElement n = node.getAsJsonObject().get(name);
-            for (Pattern pattern : schemas.keySet()) {
-                Matcher m = pattern.matcher(name);
-                if (m.find()) {
-                    errors.addAll(schemas.get(pattern).validate(n, rootNode, at + "." + name));
+            for (int i : classifier.getMatchingPatterns(name)) {
+                if (collectErrors(errors, schemas.get(i).validate(n, rootNode, at.property(name)))) {
+                    return errors;
                 }
             }
         }
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!node.isJsonObject()) {
+            return true;
+        }
+
+        for (Map.Entry<String, JsonElement> entry : node.getAsJsonObject().entrySet()) {
+            for (int i : classifier.getMatchingPatterns(entry.getKey())) {
+                if (!schemas.get(i).isValid(entry.getValue(), rootNode)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
 }
@@ -18,9 +18,6 @@ package com.networknt.schema;
 
 import java.util.Collections;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 import com.google.gson.JsonElement;
 import org.slf4j.Logger;
@@ -30,7 +27,7 @@ public class PatternValidator extends BaseJsonValidator implements JsonValidator
     private static final Logger logger = LoggerFactory.getLogger(PatternValidator.class);
 
     private String pattern;
-    private Pattern p;
+    private Regex p;
 
     public PatternValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
 
@@ -38,13 +35,13 @@ public class PatternValidator extends BaseJsonValidator implements JsonValidator
         pattern = "";
         if (schemaNode != null && isString(schemaNode)) {
             pattern = asText(schemaNode);
-            p = Pattern.compile(pattern);
+            p = getConfig().getRegexEngine().compile(pattern);
         }
 
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         JsonType nodeType = TypeFactory.getValueNodeType(node);
@@ -53,17 +50,20 @@ public class PatternValidator extends BaseJsonValidator implements JsonValidator
         }
 
         if (p != null) {
-            try {
-                Matcher m = p.matcher(asText(node));
-                if (!m.find()) {
-                    return Collections.singleton(buildValidationMessage(at, pattern));
-                }
-            } catch (PatternSyntaxException pse) {
-                logger.error("Failed to apply pattern on " + at + ": Invalid syntax [" + pattern + "]", pse);
+            if (!p.find(asText(node))) {
+                return Collections.singleton(buildValidationMessage(at, pattern));
             }
         }
 
         return Collections.emptySet();
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (p == null || !(isString(node) || isNumber(node))) {
+            return true;
+        }
+        return p.find(asText(node));
+    }
+
 }
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,14 +35,18 @@ public class PropertiesValidator extends BaseJsonValidator implements JsonValida
     public PropertiesValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.PROPERTIES);
         schemas = new HashMap<>();
-        for (Map.Entry<String, JsonElement> entry : schemaNode.getAsJsonObject().entrySet()) {
-            String name = entry.getKey();
-            JsonElement val = entry.getValue();
-            schemas.put(name, new JsonSchema(schemaPath + "/" + name, val, parentSchema));
+        JsonSchema[] compiled = parentSchema.compileSubschemas(schemaPath, schemaNode.getAsJsonObject());
+        int i = 0;
+        for (String name : schemaNode.getAsJsonObject().keySet()) {
+            schemas.put(name, compiled[i++]);
         }
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    JsonSchema getPropertySchema(String name) {
+        return schemas.get(name);
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = null;
@@ -52,10 +57,12 @@ public class PropertiesValidator extends BaseJsonValidator implements JsonValida
                 JsonElement propertyNode = node.getAsJsonObject().get(key);
 
                 if (propertyNode != null) {
-                    Set<ValidationMessage> subErrors = propertySchema.validate(propertyNode, rootNode, at + "." + key);
+                    Set<ValidationMessage> subErrors = propertySchema.validate(propertyNode, rootNode, at.property(key));
                     if (!subErrors.isEmpty()) {
                         if (errors == null) errors = new HashSet<>();
-                        errors.addAll(subErrors);
+                        if (collectErrors(errors, subErrors)) {
+                            break;
+                        }
                     }
                 }
             }
@@ -64,4 +71,20 @@ public class PropertiesValidator extends BaseJsonValidator implements JsonValida
         return errors == null ? Collections.emptySet() : errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!node.isJsonObject()) {
+            return true;
+        }
+
+        JsonObject object = node.getAsJsonObject();
+        for (Map.Entry<String, JsonSchema> entry : schemas.entrySet()) {
+            JsonElement propertyNode = object.get(entry.getKey());
+            if (propertyNode != null && !entry.getValue().isValid(propertyNode, rootNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
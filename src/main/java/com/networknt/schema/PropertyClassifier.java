@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Classifies the property names of the objects validated by one schema, for its properties,
+ * patternProperties and additionalProperties keywords, so that each name is matched once
+ * against the patterns rather than once per keyword:
+ * <ul>
+ * <li>declared names are looked up in a hash set</li>
+ * <li>patterns made of literal characters, optionally anchored like ^x- or ^id$, are checked
+ * with startsWith, endsWith, equals or contains</li>
+ * <li>the other patterns are compiled together with {@link RegexEngine#compileSet(List)}</li>
+ * </ul>
+ * The patterns matching a name are cached, up to {@link #MAX_CACHED_NAMES} names per schema.
+ */
+final class PropertyClassifier {
+    static final int MAX_CACHED_NAMES = 1024;
+
+    private static final int[] NONE = new int[0];
+
+    private final Set<String> declared;
+    private final int patternCount;
+    private final List<LiteralPattern> literals = new ArrayList<LiteralPattern>();
+    private final RegexSet regexes;
+    // the index in patternProperties of each expression of regexes
+    private final int[] regexIndices;
+    private final ConcurrentMap<String, int[]> cache = new ConcurrentHashMap<String, int[]>();
+
+    PropertyClassifier(JsonElement schemaNode, RegexEngine engine) {
+        JsonObject schemaObject = schemaNode.isJsonObject() ? schemaNode.getAsJsonObject() : new JsonObject();
+        JsonElement properties = schemaObject.get(PropertiesValidator.PROPERTY);
+        declared = properties != null && properties.isJsonObject()
+            ? new HashSet<String>(properties.getAsJsonObject().keySet()) : Collections.<String>emptySet();
+
+        JsonElement patternProperties = schemaObject.get(PatternPropertiesValidator.PROPERTY);
+        List<String> patterns = patternProperties != null && patternProperties.isJsonObject()
+            ? new ArrayList<String>(patternProperties.getAsJsonObject().keySet()) : Collections.<String>emptyList();
+        patternCount = patterns.size();
+        List<String> others = new ArrayList<String>();
+        int[] otherIndices = new int[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            LiteralPattern literal = LiteralPattern.parse(i, patterns.get(i));
+            if (literal != null) {
+                literals.add(literal);
+            } else {
+                otherIndices[others.size()] = i;
+                others.add(patterns.get(i));
+            }
+        }
+        regexes = others.isEmpty() ? null : engine.compileSet(others);
+        regexIndices = Arrays.copyOf(otherIndices, others.size());
+    }
+
+    /**
+     * @param name String
+     * @return true if the name is one of the properties
+     */
+    boolean isDeclared(String name) {
+        return declared.contains(name);
+    }
+
+    /**
+     * @param name String
+     * @return the indices of the patternProperties found in the name, in ascending order
+     */
+    int[] getMatchingPatterns(String name) {
+        if (patternCount == 0) {
+            return NONE;
+        }
+        int[] matching = cache.get(name);
+        if (matching == null) {
+            matching = classify(name);
+            if (cache.size() < MAX_CACHED_NAMES) {
+                cache.putIfAbsent(name, matching);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * @param name String
+     * @return true if neither properties nor patternProperties apply to the name
+     */
+    boolean isAdditional(String name) {
+        return !declared.contains(name) && getMatchingPatterns(name).length == 0;
+    }
+
+    private int[] classify(String name) {
+        int[] found = regexes != null ? regexes.findAll(name) : NONE;
+        int[] matching = new int[literals.size() + found.length];
+        int count = 0;
+        for (LiteralPattern literal : literals) {
+            if (literal.matches(name)) {
+                matching[count++] = literal.index;
+            }
+        }
+        for (int i : found) {
+            matching[count++] = regexIndices[i];
+        }
+        if (count == 0) {
+            return NONE;
+        }
+        matching = Arrays.copyOf(matching, count);
+        Arrays.sort(matching);
+        return matching;
+    }
+
+    /**
+     * A pattern without any special character but an optional ^ at the start and $ at the end.
+     */
+    private static final class LiteralPattern {
+        final int index;
+        final String text;
+        final boolean start;
+        final boolean end;
+
+        private LiteralPattern(int index, String text, boolean start, boolean end) {
+            this.index = index;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @return the literal pattern, or null if the pattern needs a regular expression engine
+         */
+        static LiteralPattern parse(int index, String pattern) {
+            boolean start = pattern.startsWith("^");
+            boolean end = pattern.endsWith("$") && !pattern.endsWith("\\$");
+            int from = start ? 1 : 0;
+            int to = end ? pattern.length() - 1 : pattern.length();
+            StringBuilder text = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                char c = pattern.charAt(i);
+                if (c == '\\' && i + 1 < to && !Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    // an escaped punctuation character like \. stands for itself
+                    c = pattern.charAt(++i);
+                } else if (!isLiteral(c)) {
+                    return null;
+                }
+                text.append(c);
+            }
+            return new LiteralPattern(index, text.toString(), start, end);
+        }
+
+        private static boolean isLiteral(char c) {
+            return Character.isLetterOrDigit(c) || "_-/:@#~%&=,;'\"<> !".indexOf(c) >= 0;
+        }
+
+        boolean matches(String name) {
+            if (start && end) {
+                return name.equals(text);
+            }
+            if (start) {
+                return name.startsWith(text);
+            }
+            if (end) {
+                return name.endsWith(text);
+            }
+            return name.contains(text);
+        }
+    }
+
+}
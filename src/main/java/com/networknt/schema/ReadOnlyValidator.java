@@ -46,7 +46,7 @@ public class ReadOnlyValidator extends BaseJsonValidator implements JsonValidato
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
@@ -54,16 +54,18 @@ public class ReadOnlyValidator extends BaseJsonValidator implements JsonValidato
         for (String fieldName : fieldNames) {
             JsonElement propertyNode = node.getAsJsonObject().get(fieldName);
             String datapath = "";
-            if (at.equals("$")) {
+            if (at == DataPath.ROOT) {
                 datapath = datapath + "#original." + fieldName;
             } else {
-                datapath = datapath + "#original." + at.substring(2) + "." + fieldName;
+                datapath = datapath + "#original." + at.toString().substring(2) + "." + fieldName;
             }
             JsonElement originalNode = getNode(datapath, rootNode.getAsJsonObject());
 
             boolean theSame = propertyNode != null && originalNode != null && propertyNode.equals(originalNode);
             if (!theSame) {
-                errors.add(buildValidationMessage(at));
+                if (collectError(errors, buildValidationMessage(at))) {
+                    break;
+                }
             }
         }
 
@@ -16,8 +16,9 @@
 
 package com.networknt.schema;
 
-import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Collections;
 import java.util.HashSet;
@@ -30,16 +31,45 @@ import org.slf4j.LoggerFactory;
 public class RefValidator extends BaseJsonValidator implements JsonValidator {
     private static final Logger logger = LoggerFactory.getLogger(RefValidator.class);
 
-    protected JsonSchema schema;
+    protected volatile JsonSchema schema;
+    private volatile boolean resolved;
     
     private final String REF_DOMAIN = "/";
     private final String REF_CURRENT = "#";
     private final String REF_RELATIVE = "../";
 
+    /**
+     * The referenced schema is compiled later, by {@link JsonSchema#resolveRefs()} once the
+     * schema document has been read, or on first use when
+     * {@link SchemaValidatorsConfig#isLazyRefs()} is set. That way recursive definitions and
+     * documents that reference each other do not compile forever.
+     */
     public RefValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
-
         super(schemaPath, schemaNode, parentSchema, ValidatorTypeCode.REF);
-        String refValue = asText(schemaNode);
+        if (!getConfig().isLazyRefs()) {
+            parentSchema.findAncestor().addUnresolvedRef(this);
+        }
+    }
+
+    /**
+     * @return the referenced schema, compiled on the first call, or null if the reference does
+     * not resolve
+     */
+    JsonSchema getSchema() {
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    schema = resolve();
+                    resolved = true;
+                }
+            }
+        }
+        return schema;
+    }
+
+    private JsonSchema resolve() {
+        JsonSchema parentSchema = getParentSchema();
+        String refValue = asText(getSchemaNode());
         if (!refValue.startsWith(REF_CURRENT)) {
             // handle remote ref
         	String schemaUrl = refValue;
@@ -51,30 +81,35 @@ public class RefValidator extends BaseJsonValidator implements JsonValidator {
         		schemaUrl = obtainAbsolutePath(parentSchema, schemaUrl);
         	}
             
-            JsonSchemaFactory factory = new JsonSchemaFactory();
-            try {
-                URL url = new URL(schemaUrl);
-                parentSchema = factory.getSchema(url);
-            } catch (MalformedURLException e) {
-                InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(schemaUrl);
-                parentSchema = factory.getSchema(is);
-            }
+            parentSchema = loadRemoteSchema(parentSchema.getFactory(), schemaUrl);
+            parentSchema.getFactory().addDependency(getParentSchema().findAncestor(), parentSchema.findAncestor());
             if (index < 0) {
-                schema = parentSchema.findAncestor();
-            } else {
-                refValue = refValue.substring(index);
+                return parentSchema.findAncestor();
             }
+            refValue = refValue.substring(index);
         }
         if (refValue.equals(REF_CURRENT)) {
-            schema = parentSchema.findAncestor();
-        } else {
-            JsonElement node = parentSchema.getRefSchemaNode(refValue);
-            if (node != null) {
-                schema = new JsonSchema(refValue, node, parentSchema);
-            }
+            return parentSchema.findAncestor();
         }
+        return parentSchema.getRefSchema(refValue);
     }
     
+    private JsonSchema loadRemoteSchema(JsonSchemaFactory factory, String schemaUrl) {
+        try {
+            URI uri = new URI(schemaUrl);
+            if (uri.isAbsolute()) {
+                return factory.getSchema(uri);
+            }
+        } catch (URISyntaxException e) {
+            // not a URI, try the classpath
+        }
+        URL url = Thread.currentThread().getContextClassLoader().getResource(schemaUrl);
+        if (url == null) {
+            throw new JsonSchemaException("Could not find schema " + schemaUrl + " on the classpath");
+        }
+        return factory.getSchema(url);
+    }
+
     private boolean isRelativePath(String schemaUrl) {
     	return !schemaUrl.startsWith("http");
     }
@@ -106,9 +141,10 @@ public class RefValidator extends BaseJsonValidator implements JsonValidator {
 		return schemaRef;
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
+        JsonSchema schema = getSchema();
         if (schema != null) {
             return schema.validate(node, rootNode, at);
         } else {
@@ -116,4 +152,10 @@ public class RefValidator extends BaseJsonValidator implements JsonValidator {
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        JsonSchema schema = getSchema();
+        return schema == null || schema.isValid(node, rootNode);
+    }
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+/**
+ * A regular expression compiled by a {@link RegexEngine}.
+ */
+public interface Regex {
+
+    /**
+     * @param input String
+     * @return true if the expression matches somewhere in the input, as pattern does
+     */
+    boolean find(String input);
+
+    /**
+     * @param input String
+     * @return true if the expression matches the whole input
+     */
+    boolean matches(String input);
+
+    /**
+     * @return the source of the expression
+     */
+    String pattern();
+
+}
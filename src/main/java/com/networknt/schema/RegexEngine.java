@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles the regular expressions of a schema: pattern and patternProperties. Formats are
+ * checked by {@link Format} instead. Set one with {@link SchemaValidatorsConfig#setRegexEngine(RegexEngine)}.
+ * <ul>
+ * <li>{@link JdkRegexEngine} - java.util.regex, the default. It supports every Java construct
+ * but backtracks, so a crafted string can take exponential time on some patterns.</li>
+ * <li>{@link LinearRegexEngine} - matches in time linear in the length of the string, for the
+ * ECMA 262 subset without backreferences and lookaround.</li>
+ * </ul>
+ */
+public interface RegexEngine {
+
+    /**
+     * @param pattern the regular expression
+     * @return the compiled expression, safe to use from several threads
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid; the keyword
+     *                                                is then ignored, as before engines existed
+     * @throws JsonSchemaException                     if the engine does not support a construct
+     *                                                of the expression, which fails the schema
+     */
+    Regex compile(String pattern);
+
+    /**
+     * Compile expressions that are tested against the same strings, such as the patterns of a
+     * patternProperties. The default tries them one after the other; an engine may combine them
+     * into a single automaton instead.
+     *
+     * @param patterns the regular expressions
+     * @return the compiled expressions, safe to use from several threads
+     * @throws java.util.regex.PatternSyntaxException if one of the expressions is invalid
+     * @throws JsonSchemaException                     if the engine does not support one of them
+     */
+    default RegexSet compileSet(List<String> patterns) {
+        final Regex[] regexes = new Regex[patterns.size()];
+        for (int i = 0; i < regexes.length; i++) {
+            regexes[i] = compile(patterns.get(i));
+        }
+        return new RegexSet() {
+            @Override
+            public int size() {
+                return regexes.length;
+            }
+
+            @Override
+            public int[] findAll(String input) {
+                int[] indices = new int[regexes.length];
+                int count = 0;
+                for (int i = 0; i < regexes.length; i++) {
+                    if (regexes[i].find(input)) {
+                        indices[count++] = i;
+                    }
+                }
+                return Arrays.copyOf(indices, count);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+/**
+ * Several regular expressions compiled together by {@link RegexEngine#compileSet(java.util.List)},
+ * to find out which of them are found in a string.
+ */
+public interface RegexSet {
+
+    /**
+     * @return the number of expressions
+     */
+    int size();
+
+    /**
+     * @param input String
+     * @return the indices of the expressions found in the input, in ascending order
+     */
+    int[] findAll(String input);
+
+}
@@ -43,7 +43,11 @@ public class RequiredValidator extends BaseJsonValidator implements JsonValidato
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = null;
@@ -51,11 +55,23 @@ public class RequiredValidator extends BaseJsonValidator implements JsonValidato
         for (String fieldName : fieldNames) {
             if (!node.getAsJsonObject().has(fieldName)) {
                 if (errors == null) errors = new HashSet<>();
-                errors.add(buildValidationMessage(at, fieldName));
+                if (collectError(errors, buildValidationMessage(at, fieldName))) {
+                    break;
+                }
             }
         }
 
         return errors == null ? Collections.emptySet() : errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (String fieldName : fieldNames) {
+            if (!node.getAsJsonObject().has(fieldName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The schemas compiled by a {@link SchemaBundleLoader}, keyed by their URI in the order of the
+ * URIs, with the $ref dependencies between them and the time each took to compile.
+ */
+public class SchemaBundle {
+    private final Map<URI, JsonSchema> schemas;
+    private final Map<URI, Set<URI>> dependencies;
+    private final Map<URI, Long> compileNanos;
+    private final long elapsedNanos;
+
+    SchemaBundle(Map<URI, JsonSchema> schemas, Map<URI, Set<URI>> dependencies, Map<URI, Long> compileNanos,
+                 long elapsedNanos) {
+        this.schemas = Collections.unmodifiableMap(schemas);
+        this.dependencies = dependencies;
+        this.compileNanos = compileNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @param uri URI
+     * @return the schema or null if it is not in the bundle
+     */
+    public JsonSchema getSchema(URI uri) {
+        return schemas.get(uri.normalize());
+    }
+
+    public Map<URI, JsonSchema> getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * @param uri URI
+     * @return the schemas of the bundle the schema refers to with $ref
+     */
+    public Set<URI> getDependencies(URI uri) {
+        Set<URI> uris = dependencies.get(uri.normalize());
+        return uris == null ? Collections.<URI>emptySet() : uris;
+    }
+
+    /**
+     * The time getSchema took for the schema. Schemas that refer to each other are compiled
+     * together, the first of them takes the time for all.
+     *
+     * @param uri URI
+     * @return nanoseconds, or -1 if the schema is not in the bundle
+     */
+    public long getCompileNanos(URI uri) {
+        Long nanos = compileNanos.get(uri.normalize());
+        return nanos == null ? -1 : nanos;
+    }
+
+    /**
+     * @return the wall clock time of loading the bundle, reading the documents included
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return a line per schema with its compile time and number of dependencies, slowest first
+     */
+    public String getReport() {
+        List<URI> uris = new ArrayList<URI>(schemas.keySet());
+        Collections.sort(uris, new Comparator<URI>() {
+            public int compare(URI u1, URI u2) {
+                return Long.compare(getCompileNanos(u2), getCompileNanos(u1));
+            }
+        });
+        StringBuilder report = new StringBuilder();
+        report.append("Compiled ").append(schemas.size()).append(" schemas in ").append(millis(elapsedNanos))
+            .append(" ms\n");
+        for (URI uri : uris) {
+            report.append(String.format(Locale.ROOT, "%10s ms  %s  (%d dependencies)%n",
+                millis(getCompileNanos(uri)), uri, getDependencies(uri).size()));
+        }
+        return report.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaBundle{schemas=" + schemas.size() + ", elapsed=" + millis(elapsedNanos) + " ms}";
+    }
+
+}
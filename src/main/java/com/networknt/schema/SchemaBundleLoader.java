@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles a set of schema documents in parallel, e.g. all schemas of a directory:
+ * <pre>
+ * SchemaBundle bundle = new SchemaBundleLoader(factory)
+ *     .addDirectory("http://example.com/schemas/", new File("/opt/schemas"))
+ *     .load();
+ * JsonSchema order = bundle.getSchema(URI.create("http://example.com/schemas/order.json"));
+ * </pre>
+ * The documents are read in parallel and given to the factory, so a $ref to one of them is not
+ * fetched. The $ref between them form a dependency graph; a schema is compiled once the schemas
+ * it refers to are, and schemas that refer to each other are compiled together. Each schema is
+ * therefore compiled once, by one task, and the schemas are the same as with getSchema one by
+ * one. Large properties objects are compiled in parallel as well.
+ * <p>
+ * The factory caches the compiled schemas, its cache should hold the whole bundle, see
+ * {@link SchemaValidatorsConfig#setSchemaCacheSize(int)}.
+ */
+public class SchemaBundleLoader {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaBundleLoader.class);
+    private static final String REF = "$ref";
+    private static final String ID = "id";
+
+    private final JsonSchemaFactory factory;
+    private final Map<String, Source> sources = new TreeMap<String, Source>();
+
+    public SchemaBundleLoader(JsonSchemaFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Add every .json file under a directory, its subdirectories included.
+     *
+     * @param prefix    URI prefix, e.g. "http://example.com/schemas/"
+     * @param directory the files are published under the prefix by their path in the directory
+     * @return this
+     */
+    public SchemaBundleLoader addDirectory(String prefix, File directory) {
+        final Path root = directory.toPath();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (final Path path : schemaFiles(paths)) {
+                add(prefix + encodePath(relativePath(root, path)), new Source() {
+                    public Reader open() throws IOException {
+                        return reader(Files.newInputStream(path));
+                    }
+                });
+            }
+        } catch (IOException ioe) {
+            logger.error("Failed to list schemas!", ioe);
+            throw new JsonSchemaException(ioe);
+        }
+        return this;
+    }
+
+    /**
+     * Add every .json resource under a classpath root, in directories and in jars.
+     *
+     * @param prefix URI prefix, e.g. "http://example.com/schemas/"
+     * @param root   classpath root, e.g. "schemas/"
+     * @return this
+     */
+    public SchemaBundleLoader addClasspath(String prefix, String root) {
+        final String directory = root.endsWith("/") ? root : root + "/";
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Set<String> names = new TreeSet<String>();
+            Enumeration<URL> urls = classLoader.getResources(directory);
+            while (urls.hasMoreElements()) {
+                names.addAll(resourceNames(urls.nextElement()));
+            }
+            for (final String name : names) {
+                add(prefix + encodePath(name), new Source() {
+                    public Reader open() throws IOException {
+                        InputStream in = classLoader.getResourceAsStream(directory + name);
+                        if (in == null) {
+                            throw new FileNotFoundException("Could not find " + directory + name + " on the classpath");
+                        }
+                        return reader(in);
+                    }
+                });
+            }
+        } catch (IOException | URISyntaxException e) {
+            logger.error("Failed to list schemas!", e);
+            throw new JsonSchemaException(e);
+        }
+        return this;
+    }
+
+    /**
+     * @param uri      the URI the schema is published under
+     * @param document the schema
+     * @return this
+     */
+    public SchemaBundleLoader add(URI uri, final String document) {
+        return add(uri.toString(), new Source() {
+            public Reader open() {
+                return new StringReader(document);
+            }
+        });
+    }
+
+    /**
+     * @param uri a schema opened with the URIFetcher of the factory
+     * @return this
+     */
+    public SchemaBundleLoader add(final URI uri) {
+        return add(uri.toString(), new Source() {
+            public Reader open() throws IOException {
+                return reader(factory.getUriFetcher().fetch(uri));
+            }
+        });
+    }
+
+    private SchemaBundleLoader add(String uri, Source source) {
+        String key = URI.create(uri).normalize().toString();
+        if (sources.put(key, source) != null) {
+            throw new IllegalArgumentException("Schema added twice: " + key);
+        }
+        return this;
+    }
+
+    /**
+     * Load the bundle on the common ForkJoinPool.
+     *
+     * @return SchemaBundle
+     * @see #load(ForkJoinPool)
+     */
+    public SchemaBundle load() {
+        return load(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Read and compile all schemas. If any fails, the exception of the first in the order of
+     * the URIs is thrown once all others are done.
+     *
+     * @param pool runs the tasks
+     * @return SchemaBundle
+     */
+    public SchemaBundle load(final ForkJoinPool pool) {
+        long start = System.nanoTime();
+        // CompletableFuture would start a thread per task rather than use a common pool of one thread
+        Executor executor = new Executor() {
+            public void execute(Runnable task) {
+                pool.execute(task);
+            }
+        };
+        if (sources.size() > factory.getSchemaCache().getMaximumSize()) {
+            logger.warn("The schema cache holds " + factory.getSchemaCache().getMaximumSize() + " of the "
+                + sources.size() + " schemas of the bundle, schemas referred to from others may be compiled again");
+        }
+        final List<String> keys = new ArrayList<String>(sources.keySet());
+        final ConcurrentMap<String, RuntimeException> failures = new ConcurrentHashMap<String, RuntimeException>();
+
+        final JsonElement[] documents = new JsonElement[keys.size()];
+        List<CompletableFuture<Void>> reads = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < keys.size(); i++) {
+            final int index = i;
+            reads.add(CompletableFuture.runAsync(new Runnable() {
+                public void run() {
+                    String key = keys.get(index);
+                    try (Reader reader = sources.get(key).open()) {
+                        documents[index] = new JsonParser().parse(reader);
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("Failed to load json schema " + key + "!", e);
+                        failures.put(key, e instanceof JsonSchemaException ? (JsonSchemaException) e
+                            : new JsonSchemaException(e));
+                    }
+                }
+            }, executor));
+        }
+        await(reads);
+        throwFirst(keys, failures);
+
+        // documents with an id are also found by it
+        Map<String, String> keysById = new HashMap<String, String>();
+        for (int i = 0; i < keys.size(); i++) {
+            factory.addDocument(keys.get(i), documents[i]);
+            String id = getId(documents[i]);
+            if (id != null && !id.equals(keys.get(i))) {
+                factory.addDocument(id, documents[i]);
+                keysById.put(id, keys.get(i));
+            }
+        }
+        final Map<String, Set<String>> dependencies = new LinkedHashMap<String, Set<String>>();
+        for (int i = 0; i < keys.size(); i++) {
+            Set<String> targets = new TreeSet<String>();
+            for (String ref : findRefs(documents[i], baseUri(keys.get(i), documents[i]))) {
+                String target = keysById.containsKey(ref) ? keysById.get(ref) : ref;
+                if (sources.containsKey(target) && !target.equals(keys.get(i))) {
+                    targets.add(target);
+                }
+            }
+            dependencies.put(keys.get(i), targets);
+        }
+
+        final ConcurrentMap<String, JsonSchema> schemas = new ConcurrentHashMap<String, JsonSchema>();
+        final ConcurrentMap<String, Long> compileNanos = new ConcurrentHashMap<String, Long>();
+        Map<String, CompletableFuture<Void>> compiled = new HashMap<String, CompletableFuture<Void>>();
+        List<CompletableFuture<Void>> compiles = new ArrayList<CompletableFuture<Void>>();
+        // dependencies come first, so their futures exist when a dependent is scheduled
+        for (final List<String> component : new DependencyGraph(dependencies).components()) {
+            Set<CompletableFuture<Void>> before = new LinkedHashSet<CompletableFuture<Void>>();
+            for (String key : component) {
+                for (String dependency : dependencies.get(key)) {
+                    if (compiled.containsKey(dependency)) {
+                        before.add(compiled.get(dependency));
+                    }
+                }
+            }
+            CompletableFuture<Void> future = CompletableFuture
+                .allOf(before.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(new Runnable() {
+                    public void run() {
+                        for (String key : component) {
+                            long compileStart = System.nanoTime();
+                            try {
+                                schemas.put(key, factory.getSchema(URI.create(key)));
+                            } catch (RuntimeException e) {
+                                failures.put(key, e);
+                                throw e;
+                            } finally {
+                                compileNanos.put(key, System.nanoTime() - compileStart);
+                            }
+                        }
+                    }
+                }, executor);
+            for (String key : component) {
+                compiled.put(key, future);
+            }
+            compiles.add(future);
+        }
+        await(compiles);
+        throwFirst(keys, failures);
+
+        Map<URI, JsonSchema> bundleSchemas = new LinkedHashMap<URI, JsonSchema>();
+        Map<URI, Set<URI>> bundleDependencies = new HashMap<URI, Set<URI>>();
+        Map<URI, Long> bundleCompileNanos = new HashMap<URI, Long>();
+        for (String key : keys) {
+            URI uri = URI.create(key);
+            bundleSchemas.put(uri, schemas.get(key));
+            Set<URI> uris = new LinkedHashSet<URI>();
+            for (String dependency : dependencies.get(key)) {
+                uris.add(URI.create(dependency));
+            }
+            bundleDependencies.put(uri, Collections.unmodifiableSet(uris));
+            bundleCompileNanos.put(uri, compileNanos.get(key));
+        }
+        SchemaBundle bundle = new SchemaBundle(bundleSchemas, bundleDependencies, bundleCompileNanos,
+            System.nanoTime() - start);
+        logger.info("Loaded " + bundle);
+        return bundle;
+    }
+
+    /**
+     * Wait for all tasks; their failures are collected by the tasks themselves.
+     */
+    private static void await(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // reported by throwFirst
+        }
+    }
+
+    private static void throwFirst(List<String> keys, Map<String, RuntimeException> failures) {
+        for (String key : keys) {
+            if (failures.containsKey(key)) {
+                throw failures.get(key);
+            }
+        }
+    }
+
+    /**
+     * @return the absolute id of the document, or null
+     */
+    static String getId(JsonElement document) {
+        if (!document.isJsonObject()) {
+            return null;
+        }
+        JsonElement id = document.getAsJsonObject().get(ID);
+        if (id == null || !id.isJsonPrimitive() || !id.getAsJsonPrimitive().isString()) {
+            return null;
+        }
+        try {
+            URI uri = new URI(id.getAsString());
+            return uri.isAbsolute() ? uri.normalize().toString() : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the URI relative $ref of the document are resolved against: its id like
+     * RefValidator does, or where it was loaded from when it has none
+     */
+    static URI baseUri(String key, JsonElement document) {
+        String id = getId(document);
+        return URI.create(id != null ? id : key);
+    }
+
+    /**
+     * Find the documents a schema document refers to.
+     *
+     * @param document the schema document
+     * @param base     the URI relative references are resolved against
+     * @return the normalized URIs of the documents, without fragment, in document order
+     */
+    static Set<String> findRefs(JsonElement document, URI base) {
+        Set<String> refs = new LinkedHashSet<String>();
+        findRefs(document, base, refs);
+        return refs;
+    }
+
+    private static void findRefs(JsonElement node, URI base, Set<String> refs) {
+        if (node.isJsonObject()) {
+            JsonObject object = node.getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                JsonElement value = entry.getValue();
+                if (REF.equals(entry.getKey()) && value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                    String ref = value.getAsString();
+                    int fragment = ref.indexOf('#');
+                    String document = fragment < 0 ? ref : ref.substring(0, fragment);
+                    if (!document.isEmpty()) {
+                        try {
+                            refs.add(base.resolve(new URI(document)).normalize().toString());
+                        } catch (URISyntaxException | IllegalArgumentException e) {
+                            // reported by RefValidator when the schema is compiled
+                        }
+                    }
+                } else {
+                    findRefs(value, base, refs);
+                }
+            }
+        } else if (node.isJsonArray()) {
+            for (JsonElement element : node.getAsJsonArray()) {
+                findRefs(element, base, refs);
+            }
+        }
+    }
+
+    static List<Path> schemaFiles(Stream<Path> paths) {
+        List<Path> files = new ArrayList<Path>();
+        Iterator<Path> iterator = paths.iterator();
+        while (iterator.hasNext()) {
+            Path path = iterator.next();
+            if (path.getFileName().toString().endsWith(".json") && Files.isRegularFile(path)) {
+                files.add(path);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    static String relativePath(Path root, Path path) {
+        StringBuilder relative = new StringBuilder();
+        for (Path name : root.relativize(path)) {
+            if (relative.length() > 0) {
+                relative.append('/');
+            }
+            relative.append(name.toString());
+        }
+        return relative.toString();
+    }
+
+    /**
+     * Percent-encode a relative path for use in a URI, e.g. "my schemas/b c.json" becomes
+     * "my%20schemas/b%20c.json". The slashes separating the names are kept.
+     *
+     * @param path names separated by '/'
+     * @return the path as it appears in a URI
+     */
+    static String encodePath(String path) {
+        StringBuilder encoded = new StringBuilder(path.length());
+        for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || "/-._~!$&'()*+,;=@".indexOf(c) >= 0) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                    .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * @return the paths of the .json resources under a classpath directory, relative to it
+     */
+    private static List<String> resourceNames(URL url) throws IOException, URISyntaxException {
+        List<String> names = new ArrayList<String>();
+        if ("file".equals(url.getProtocol())) {
+            Path root = Paths.get(url.toURI());
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : schemaFiles(paths)) {
+                    names.add(relativePath(root, path));
+                }
+            }
+        } else if ("jar".equals(url.getProtocol())) {
+            JarURLConnection connection = (JarURLConnection) url.openConnection();
+            connection.setUseCaches(false);
+            String directory = connection.getEntryName();
+            try (JarFile jar = connection.getJarFile()) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (!entry.isDirectory() && name.startsWith(directory) && name.endsWith(".json")) {
+                        names.add(name.substring(directory.length()));
+                    }
+                }
+            }
+        } else {
+            logger.warn("Cannot list schemas in " + url);
+        }
+        return names;
+    }
+
+    private static Reader reader(InputStream in) {
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    private interface Source {
+        Reader open() throws IOException;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiled schemas of a JsonSchemaFactory, keyed by canonical URL or by content hash. Lookups
+ * do not lock. When the cache is full the oldest entry is evicted.
+ */
+public class SchemaCache {
+    private final int maximumSize;
+    private final ConcurrentMap<String, JsonSchema> schemas = new ConcurrentHashMap<String, JsonSchema>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<String>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param maximumSize the number of schemas kept, 0 disables the cache
+     */
+    public SchemaCache(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param key String
+     * @return the cached schema or null
+     */
+    public JsonSchema get(String key) {
+        JsonSchema schema = schemas.get(key);
+        if (schema != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return schema;
+    }
+
+    /**
+     * Cache a compiled schema. If another thread cached a schema for the same key in the meantime
+     * that one is kept, so all callers end up sharing one instance.
+     *
+     * @param key    String
+     * @param schema JsonSchema
+     * @return the schema now cached for the key
+     */
+    public JsonSchema put(String key, JsonSchema schema) {
+        if (maximumSize == 0) {
+            return schema;
+        }
+        JsonSchema existing = schemas.putIfAbsent(key, schema);
+        if (existing != null) {
+            return existing;
+        }
+        insertionOrder.add(key);
+        while (schemas.size() > maximumSize) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (schemas.remove(eldest) != null) {
+                evictionCount.incrementAndGet();
+            }
+        }
+        return schema;
+    }
+
+    public void invalidate(String key) {
+        schemas.remove(key);
+        insertionOrder.remove(key);
+    }
+
+    public void clear() {
+        schemas.clear();
+        insertionOrder.clear();
+    }
+
+    public int size() {
+        return schemas.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", evictions=" + getEvictionCount() + "}";
+    }
+
+}
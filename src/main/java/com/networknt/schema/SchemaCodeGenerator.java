@@ -0,0 +1,622 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Compiles a JsonSchema to a Java class whose isValid checks a node without going through the
+ * validator objects. Each subschema becomes a method that switches on the type of the node and
+ * then runs the keywords of that type in the same order as {@link JsonSchema#isValid(JsonElement,
+ * JsonElement)}: type is folded away, limits are constants, properties are looked up by name and
+ * subschemas of properties, items, allOf, anyOf, oneOf, not and $ref are method calls. Other
+ * keywords, custom ones included, call the isValid of their validator.
+ * <p>
+ * The source is compiled in memory with the javax.tools compiler, so this needs a JDK, and
+ * loaded by a class loader of its own that is collected with the {@link CompiledSchema}.
+ */
+public final class SchemaCodeGenerator {
+    static final String PACKAGE = "com.networknt.schema.generated";
+    /**
+     * Keeps generated methods well below the 64k bytecode limit for schemas with thousands of
+     * properties.
+     */
+    private static final int CHECKS_PER_METHOD = 64;
+    private static final JsonType[] NODE_TYPES = {JsonType.OBJECT, JsonType.ARRAY, JsonType.STRING,
+        JsonType.NUMBER, JsonType.INTEGER, JsonType.BOOLEAN, JsonType.NULL};
+    private static final AtomicLong classCount = new AtomicLong();
+    /**
+     * Marks the number of a schema method in a call. It cannot occur in the generated code
+     * otherwise, string literals escape it.
+     */
+    private static final char CALL = '\0';
+
+    private SchemaCodeGenerator() {
+    }
+
+    /**
+     * @param schema JsonSchema
+     * @return the compiled schema
+     * @throws JsonSchemaException if no Java compiler is available
+     */
+    public static CompiledSchema generate(JsonSchema schema) {
+        return generate(Collections.singletonList(schema)).get(0);
+    }
+
+    /**
+     * Generate a class for each schema. They are compiled together by one run of the compiler,
+     * which is much faster than one run per schema.
+     *
+     * @param schemas List
+     * @return the compiled schemas, in the same order
+     * @throws JsonSchemaException if no Java compiler is available
+     */
+    public static List<CompiledSchema> generate(List<JsonSchema> schemas) {
+        if (schemas.isEmpty()) {
+            return new ArrayList<CompiledSchema>();
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new JsonSchemaException("No Java compiler available, code generation needs a JDK");
+        }
+        List<ClassSource> sources = new ArrayList<ClassSource>();
+        for (JsonSchema schema : schemas) {
+            sources.add(new ClassSource("Schema" + classCount.incrementAndGet(), schema));
+        }
+        ClassLoader loader = new GeneratedClassLoader(compile(compiler, sources));
+        List<CompiledSchema> compiled = new ArrayList<CompiledSchema>();
+        for (ClassSource source : sources) {
+            try {
+                Class<?> type = loader.loadClass(PACKAGE + "." + source.name);
+                compiled.add((CompiledSchema) type.getConstructor(JsonSchema.class, Object[].class)
+                    .newInstance(source.schema, source.constants.toArray()));
+            } catch (ReflectiveOperationException e) {
+                throw new JsonSchemaException(e);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * @param schema JsonSchema
+     * @return the Java source generated for the schema
+     */
+    static String generateSource(JsonSchema schema) {
+        return new ClassSource("Schema" + classCount.incrementAndGet(), schema).code;
+    }
+
+    private static Map<String, byte[]> compile(JavaCompiler compiler, List<ClassSource> sources) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager standardFileManager =
+            compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        final Map<String, ByteArrayOutputStream> outputs = new HashMap<String, ByteArrayOutputStream>();
+        JavaFileManager fileManager = new ForwardingJavaFileManager<StandardJavaFileManager>(standardFileManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, final String className,
+                                                       JavaFileObject.Kind kind, FileObject sibling) {
+                URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+                return new SimpleJavaFileObject(uri, kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        outputs.put(className, out);
+                        return out;
+                    }
+                };
+            }
+        };
+        List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+        for (final ClassSource source : sources) {
+            URI uri = URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + source.name + ".java");
+            units.add(new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source.code;
+                }
+            });
+        }
+        List<String> options = Arrays.asList("-classpath", classPath(), "-g:none", "-proc:none", "-nowarn");
+        if (!compiler.getTask(null, fileManager, diagnostics, options, null, units).call()) {
+            throw new JsonSchemaException("Could not compile the generated code: " + diagnostics.getDiagnostics());
+        }
+        Map<String, byte[]> classes = new HashMap<String, byte[]>();
+        for (Map.Entry<String, ByteArrayOutputStream> entry : outputs.entrySet()) {
+            classes.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+        return classes;
+    }
+
+    /**
+     * The generated code needs this library and Gson, which are not on the class path of the
+     * application when it runs in a container.
+     */
+    private static String classPath() {
+        Set<String> entries = new LinkedHashSet<String>();
+        for (Class<?> type : new Class<?>[] {CompiledSchema.class, JsonElement.class}) {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            URL location = codeSource == null ? null : codeSource.getLocation();
+            if (location != null) {
+                try {
+                    entries.add(Paths.get(location.toURI()).toString());
+                } catch (URISyntaxException | RuntimeException e) {
+                    // not a file, rely on the class path below
+                }
+            }
+        }
+        entries.add(System.getProperty("java.class.path"));
+        StringBuilder classPath = new StringBuilder();
+        for (String entry : entries) {
+            if (classPath.length() > 0) {
+                classPath.append(File.pathSeparator);
+            }
+            classPath.append(entry);
+        }
+        return classPath.toString();
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        GeneratedClassLoader(Map<String, byte[]> classes) {
+            super(CompiledSchema.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * The source of the class generated for one schema. Method s&lt;n&gt; checks the n-th
+     * subschema found, the validators that are not inlined are kept in fields v&lt;n&gt;.
+     */
+    private static final class ClassSource {
+        final String name;
+        final JsonSchema schema;
+        final List<Object> constants = new ArrayList<Object>();
+        final String code;
+        private final Map<JsonSchema, Integer> methods = new IdentityHashMap<JsonSchema, Integer>();
+        private final Map<String, Integer> methodsByCode = new HashMap<String, Integer>();
+        private final Map<Integer, Integer> sameMethods = new HashMap<Integer, Integer>();
+        private final Map<JsonValidator, Integer> fields = new IdentityHashMap<JsonValidator, Integer>();
+        private final Deque<JsonSchema> pending = new ArrayDeque<JsonSchema>();
+        private final StringBuilder body = new StringBuilder();
+        private final Map<String, String> helpers = new HashMap<String, String>();
+
+        ClassSource(String name, JsonSchema schema) {
+            this.name = name;
+            this.schema = schema;
+            int root = method(schema);
+            JsonSchema next;
+            while ((next = pending.poll()) != null) {
+                writeSchemaMethod(methods.get(next), next);
+            }
+
+            StringBuilder out = new StringBuilder();
+            out.append("package ").append(PACKAGE).append(";\n\n");
+            out.append("import com.google.gson.JsonArray;\n");
+            out.append("import com.google.gson.JsonElement;\n");
+            out.append("import com.google.gson.JsonObject;\n");
+            out.append("import com.networknt.schema.CompiledSchema;\n");
+            out.append("import com.networknt.schema.JsonSchema;\n");
+            out.append("import com.networknt.schema.JsonValidator;\n\n");
+            out.append("public final class ").append(name).append(" extends CompiledSchema {\n");
+            for (int i = 0; i < constants.size(); i++) {
+                out.append("    private final JsonValidator v").append(i).append(";\n");
+            }
+            out.append("\n    public ").append(name).append("(JsonSchema schema, Object[] constants) {\n");
+            out.append("        super(schema);\n");
+            for (int i = 0; i < constants.size(); i++) {
+                out.append("        v").append(i).append(" = (JsonValidator) constants[").append(i).append("];\n");
+            }
+            out.append("    }\n\n");
+            out.append("    @Override\n");
+            out.append("    public boolean isValid(JsonElement node, JsonElement root) {\n");
+            out.append("        return ").append(methodName(root)).append("(node, root);\n");
+            out.append("    }\n");
+            out.append(resolveCalls(body));
+            out.append("}\n");
+            code = out.toString();
+        }
+
+        /**
+         * @return the number of the method checking the schema, written later if it is new
+         */
+        private int method(JsonSchema schema) {
+            Integer number = methods.get(schema);
+            if (number == null) {
+                number = methods.size();
+                methods.put(schema, number);
+                pending.add(schema);
+            }
+            return number;
+        }
+
+        /**
+         * The method of a schema may turn out to be the same as one already written, so the name
+         * is left as a placeholder until all methods are written.
+         */
+        private String call(JsonSchema schema, String node) {
+            return "" + CALL + method(schema) + CALL + "(" + node + ", root)";
+        }
+
+        private String methodName(int number) {
+            Integer same = sameMethods.get(number);
+            return "s" + (same == null ? number : same);
+        }
+
+        private String resolveCalls(CharSequence code) {
+            StringBuilder resolved = new StringBuilder(code.length());
+            int from = 0;
+            for (int start; (start = indexOf(code, CALL, from)) >= 0; ) {
+                int end = indexOf(code, CALL, start + 1);
+                resolved.append(code, from, start);
+                resolved.append(methodName(Integer.parseInt(code.subSequence(start + 1, end).toString())));
+                from = end + 1;
+            }
+            return resolved.append(code, from, code.length()).toString();
+        }
+
+        private static int indexOf(CharSequence code, char c, int from) {
+            for (int i = from; i < code.length(); i++) {
+                if (code.charAt(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void writeSchemaMethod(int number, JsonSchema schema) {
+            // the checks may write helper methods to body first
+            StringBuilder method = new StringBuilder();
+            method.append("        switch (type(node)) {\n");
+            // types with the same checks share a case
+            Map<String, List<JsonType>> cases = new LinkedHashMap<String, List<JsonType>>();
+            for (JsonType type : NODE_TYPES) {
+                String checks = checks(schema, type);
+                if (!cases.containsKey(checks)) {
+                    cases.put(checks, new ArrayList<JsonType>());
+                }
+                cases.get(checks).add(type);
+            }
+            for (Map.Entry<String, List<JsonType>> entry : cases.entrySet()) {
+                for (JsonType type : entry.getValue()) {
+                    method.append("            case ").append(type.ordinal()).append(": // ").append(type).append('\n');
+                }
+                method.append(entry.getKey());
+            }
+            method.append("            default:\n");
+            method.append("                throw unknownType(node);\n");
+            method.append("        }\n");
+            // schemas with the same content, e.g. the schemas of many properties, share a method
+            Integer same = methodsByCode.get(method.toString());
+            if (same != null) {
+                sameMethods.put(number, same);
+                return;
+            }
+            methodsByCode.put(method.toString(), number);
+            body.append("\n    private boolean s").append(number).append("(JsonElement node, JsonElement root) {\n");
+            body.append(method);
+            body.append("    }\n");
+        }
+
+        private String checks(JsonSchema schema, JsonType type) {
+            StringBuilder method = new StringBuilder();
+            for (JsonValidator validator : schema.getValidators(type)) {
+                String condition = condition(validator, type);
+                if (condition == null) {
+                    continue;
+                }
+                if (condition.equals("false")) {
+                    return method.append("                return false;\n").toString();
+                }
+                method.append("                if (!(").append(condition).append(")) {\n");
+                method.append("                    return false;\n");
+                method.append("                }\n");
+            }
+            return method.append("                return true;\n").toString();
+        }
+
+        /**
+         * @return a Java expression that is true if the node is valid, or null if it always is
+         */
+        private String condition(JsonValidator validator, JsonType type) {
+            Class<?> kind = validator.getClass();
+            // exact classes only, a subclass may check something else
+            if (kind == TypeValidator.class && !((TypeValidator) validator).isUnion()) {
+                return ((TypeValidator) validator).matches(type) ? null : "false";
+            }
+            if (kind == MinLengthValidator.class && type == JsonType.STRING) {
+                return "length(node) >= " + ((MinLengthValidator) validator).getMinLength();
+            }
+            if (kind == MaxLengthValidator.class && type == JsonType.STRING) {
+                return "length(node) <= " + ((MaxLengthValidator) validator).getMaxLength();
+            }
+            boolean number = type == JsonType.NUMBER || type == JsonType.INTEGER;
+            if (kind == MinimumValidator.class && number
+                && !Double.isInfinite(((MinimumValidator) validator).getMinimum())) {
+                MinimumValidator minimum = (MinimumValidator) validator;
+                return limit("number(node) - " + literal(minimum.getMinimum()) + " < -1e-12",
+                    minimum.getMinimum(), minimum.isExclusive());
+            }
+            if (kind == MaximumValidator.class && number
+                && !Double.isInfinite(((MaximumValidator) validator).getMaximum())) {
+                MaximumValidator maximum = (MaximumValidator) validator;
+                return limit("number(node) - " + literal(maximum.getMaximum()) + " > 1e-12",
+                    maximum.getMaximum(), maximum.isExclusive());
+            }
+            if (kind == MinItemsValidator.class && type == JsonType.ARRAY) {
+                return "node.getAsJsonArray().size() >= " + ((MinItemsValidator) validator).getMin();
+            }
+            if (kind == MaxItemsValidator.class && type == JsonType.ARRAY) {
+                return "node.getAsJsonArray().size() <= " + ((MaxItemsValidator) validator).getMax();
+            }
+            if (kind == MinPropertiesValidator.class && type == JsonType.OBJECT) {
+                return "node.getAsJsonObject().size() >= " + ((MinPropertiesValidator) validator).getMin();
+            }
+            if (kind == MaxPropertiesValidator.class && type == JsonType.OBJECT) {
+                return "node.getAsJsonObject().size() <= " + ((MaxPropertiesValidator) validator).getMax();
+            }
+            if (kind == RequiredValidator.class && type == JsonType.OBJECT) {
+                return required(((RequiredValidator) validator).getFieldNames());
+            }
+            if (kind == PropertiesValidator.class && type == JsonType.OBJECT) {
+                return properties((PropertiesValidator) validator);
+            }
+            if (kind == ItemsValidator.class && type == JsonType.ARRAY && !((ItemsValidator) validator).isTuple()
+                && ((ItemsValidator) validator).getItemSchema(0) != null) {
+                return items(((ItemsValidator) validator).getItemSchema(0));
+            }
+            if (kind == AllOfValidator.class) {
+                return allOf(((AllOfValidator) validator).getSchemas());
+            }
+            if (kind == AnyOfValidator.class) {
+                return anyOf(((AnyOfValidator) validator).getSchemas());
+            }
+            if (kind == OneOfValidator.class) {
+                return oneOf(((OneOfValidator) validator).getSchemas());
+            }
+            if (kind == NotValidator.class) {
+                return "!" + call(((NotValidator) validator).getSchema(), "node");
+            }
+            if (kind == RefValidator.class) {
+                String ref = ref((RefValidator) validator);
+                if (ref != null) {
+                    return ref.isEmpty() ? null : ref;
+                }
+            }
+            return constant(validator) + ".isValid(node, root)";
+        }
+
+        /**
+         * @return the name of the field holding the validator
+         */
+        private String constant(JsonValidator validator) {
+            Integer number = fields.get(validator);
+            if (number == null) {
+                number = constants.size();
+                constants.add(validator);
+                fields.put(validator, number);
+            }
+            return "v" + number;
+        }
+
+        /**
+         * @param outOfRange the test that the value is beyond the limit
+         */
+        private String limit(String outOfRange, double limit, boolean exclusive) {
+            String condition = "!(" + outOfRange + ")";
+            if (exclusive) {
+                condition += " && !(Math.abs(number(node) - " + literal(limit) + ") < 1e-12)";
+            }
+            return condition;
+        }
+
+        private String required(List<String> names) {
+            if (names.isEmpty()) {
+                return null;
+            }
+            List<String> checks = new ArrayList<String>();
+            for (String name : names) {
+                checks.add("object.has(" + literal(name) + ")");
+            }
+            return helper("JsonObject object", "node.getAsJsonObject()", checks, "");
+        }
+
+        private String properties(PropertiesValidator validator) {
+            List<String> checks = new ArrayList<String>();
+            for (String name : validator.getSchemaNode().getAsJsonObject().keySet()) {
+                JsonSchema propertySchema = validator.getPropertySchema(name);
+                checks.add("(value = object.get(" + literal(name) + ")) == null || " + call(propertySchema, "value"));
+            }
+            return checks.isEmpty() ? null : helper("JsonObject object", "node.getAsJsonObject()", checks,
+                "        JsonElement value;\n");
+        }
+
+        private String items(JsonSchema itemSchema) {
+            String statements = "        for (JsonElement item : array) {\n"
+                + "            if (!" + call(itemSchema, "item") + ") {\n"
+                + "                return false;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return true;\n";
+            return define("JsonArray array", statements) + "(node.getAsJsonArray(), root)";
+        }
+
+        private String allOf(List<JsonSchema> schemas) {
+            if (schemas.isEmpty()) {
+                return null;
+            }
+            List<String> checks = new ArrayList<String>();
+            for (JsonSchema schema : schemas) {
+                checks.add(call(schema, "node"));
+            }
+            return helper("JsonElement node", "node", checks, "");
+        }
+
+        private String anyOf(List<JsonSchema> schemas) {
+            if (schemas.isEmpty()) {
+                return "false";
+            }
+            StringBuilder statements = new StringBuilder();
+            for (JsonSchema schema : schemas) {
+                statements.append("        if (").append(call(schema, "node")).append(") {\n");
+                statements.append("            return true;\n");
+                statements.append("        }\n");
+            }
+            statements.append("        return false;\n");
+            return define("JsonElement node", statements.toString()) + "(node, root)";
+        }
+
+        private String oneOf(List<JsonSchema> schemas) {
+            StringBuilder statements = new StringBuilder("        int valid = 0;\n");
+            for (JsonSchema schema : schemas) {
+                statements.append("        if (").append(call(schema, "node")).append(" && ++valid > 1) {\n");
+                statements.append("            return false;\n");
+                statements.append("        }\n");
+            }
+            statements.append("        return valid == 1;\n");
+            return define("JsonElement node", statements.toString()) + "(node, root)";
+        }
+
+        /**
+         * @return a call of the method checking the target, "" if the reference does not resolve,
+         * which the interpreter accepts, or null to call the validator
+         */
+        private String ref(RefValidator validator) {
+            JsonSchema target;
+            try {
+                target = validator.getSchema();
+            } catch (RuntimeException e) {
+                // reported when the validator is used, as without code generation
+                return null;
+            }
+            return target == null ? "" : call(target, "node");
+        }
+
+        /**
+         * Write methods that are true if all checks are, at most {@link #CHECKS_PER_METHOD} checks
+         * per method.
+         *
+         * @param parameter the declaration of the first parameter of the methods
+         * @param argument  the expression passed for it
+         * @param locals    the declarations of the local variables of the checks
+         * @return the condition calling the methods
+         */
+        private String helper(String parameter, String argument, List<String> checks, String locals) {
+            StringBuilder condition = new StringBuilder();
+            for (int from = 0; from < checks.size(); from += CHECKS_PER_METHOD) {
+                StringBuilder statements = new StringBuilder(locals);
+                for (String check : checks.subList(from, Math.min(checks.size(), from + CHECKS_PER_METHOD))) {
+                    statements.append("        if (!(").append(check).append(")) {\n");
+                    statements.append("            return false;\n");
+                    statements.append("        }\n");
+                }
+                statements.append("        return true;\n");
+                if (condition.length() > 0) {
+                    condition.append(" && ");
+                }
+                condition.append(define(parameter, statements.toString())).append('(').append(argument).append(", root)");
+            }
+            return condition.toString();
+        }
+
+        /**
+         * Write a helper method, unless one with the same code exists already: the checks of a
+         * keyword that applies to all types are generated once per type.
+         *
+         * @param parameter  the declaration of the first parameter of the method
+         * @param statements the body of the method
+         * @return the name of the method
+         */
+        private String define(String parameter, String statements) {
+            String key = parameter + "\n" + statements;
+            String name = helpers.get(key);
+            if (name == null) {
+                name = "h" + helpers.size();
+                helpers.put(key, name);
+                body.append("\n    private boolean ").append(name).append("(").append(parameter)
+                    .append(", JsonElement root) {\n");
+                body.append(statements);
+                body.append("    }\n");
+            }
+            return name;
+        }
+
+        private static String literal(double value) {
+            return "(" + Double.toString(value) + ")";
+        }
+
+        private static String literal(String value) {
+            StringBuilder literal = new StringBuilder("\"");
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\').append(c);
+                } else if (c < 0x20) {
+                    // not as unicode escapes, the compiler would turn those into line breaks first
+                    literal.append(String.format("\\%03o", (int) c));
+                } else if (c < 0x7f) {
+                    literal.append(c);
+                } else {
+                    literal.append(String.format("\\u%04x", (int) c));
+                }
+            }
+            return literal.append('"').toString();
+        }
+    }
+
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The schemas of a directory, compiled with {@link SchemaBundleLoader} and recompiled when
+ * their files change:
+ * <pre>
+ * SchemaRegistry registry = new SchemaRegistry(factory, "http://example.com/schemas/", new File("/opt/schemas"));
+ * registry.start();
+ * JsonSchema order = registry.getSchema(URI.create("http://example.com/schemas/order.json"));
+ * </pre>
+ * A reload recompiles the changed documents and the documents that refer to them with $ref,
+ * directly or not, as recorded by the factory when RefValidator resolved them. The other
+ * schemas are kept. The new schemas replace the old ones all at once: getSchema reads a
+ * volatile map without locking, and validations already running keep the schemas they
+ * started with. If a changed document does not parse or compile, nothing is replaced.
+ * <p>
+ * The factory should only be used through the registry, its cache must hold all schemas of
+ * the directory, see {@link SchemaValidatorsConfig#setSchemaCacheSize(int)}.
+ */
+public class SchemaRegistry implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+    /**
+     * Editors write a file in several steps, a reload waits until no event came for this long.
+     */
+    private static final long QUIET_MILLIS = 100;
+
+    private final JsonSchemaFactory factory;
+    private final String prefix;
+    private final Path directory;
+    private volatile Map<URI, JsonSchema> schemas;
+    /**
+     * The id of the documents whose id is not their URI; they are also loaded under their id.
+     */
+    private final Map<String, String> ids = new HashMap<String, String>();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * Compile all .json files of the directory, see {@link SchemaBundleLoader#addDirectory(String, File)}.
+     *
+     * @param factory   JsonSchemaFactory
+     * @param prefix    URI prefix, e.g. "http://example.com/schemas/"
+     * @param directory the files are published under the prefix by their path in the directory
+     */
+    public SchemaRegistry(JsonSchemaFactory factory, String prefix, File directory) {
+        this.factory = factory;
+        this.prefix = prefix;
+        this.directory = directory.toPath();
+        SchemaBundle bundle = new SchemaBundleLoader(factory).addDirectory(prefix, directory).load();
+        for (Map.Entry<URI, JsonSchema> entry : bundle.getSchemas().entrySet()) {
+            updateId(entry.getKey().toString(), entry.getValue().getSchemaNode());
+        }
+        this.schemas = Collections.unmodifiableMap(new TreeMap<URI, JsonSchema>(bundle.getSchemas()));
+    }
+
+    /**
+     * @param uri URI
+     * @return the current version of the schema, or null if there is no such file
+     */
+    public JsonSchema getSchema(URI uri) {
+        return schemas.get(uri.normalize());
+    }
+
+    /**
+     * @return the current version of all schemas, ordered by URI; the map does not change
+     */
+    public Map<URI, JsonSchema> getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * @return the number of reloads that replaced schemas
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * Watch the directory, its subdirectories included, and reload the files that change on a
+     * daemon thread. Failed reloads are logged.
+     */
+    public synchronized void start() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            register(directory, new HashSet<Path>());
+        } catch (IOException ioe) {
+            logger.error("Failed to watch " + directory + "!", ioe);
+            throw new JsonSchemaException(ioe);
+        }
+        watcher = new Thread(new Runnable() {
+            public void run() {
+                watch();
+            }
+        }, "schema-registry-" + directory.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stop watching the directory. The schemas stay usable.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    /**
+     * Reload changed, added or deleted files and recompile the schemas that depend on them.
+     * The watcher calls this, it can also be called directly, e.g. after a deployment.
+     *
+     * @param uris the URIs of the files, other URIs are ignored
+     * @return the URIs of the schemas that were recompiled or removed
+     * @throws JsonSchemaException if a file cannot be read or a schema does not compile, in
+     *                             which case the registry keeps the schemas it had
+     */
+    public synchronized Set<URI> reload(Collection<URI> uris) {
+        Map<URI, JsonSchema> current = schemas;
+        // the documents to reload, null for deleted ones
+        Map<String, JsonElement> documents = new TreeMap<String, JsonElement>();
+        for (URI uri : uris) {
+            String key = uri.normalize().toString();
+            if (key.startsWith(prefix)) {
+                documents.put(key, read(key));
+            }
+        }
+        if (documents.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> affected = dependents(documents.keySet());
+        Map<String, JsonSchema> oldSchemas = new HashMap<String, JsonSchema>();
+        Map<String, String> oldIds = new HashMap<String, String>(ids);
+        for (String key : affected) {
+            JsonSchema old = factory.getSchemaCache().get(key);
+            if (old != null) {
+                oldSchemas.put(key, old);
+            }
+            // the documents that did not change are compiled again from the one already loaded
+            factory.getSchemaCache().invalidate(key);
+        }
+        Map<String, JsonElement> oldDocuments = new HashMap<String, JsonElement>();
+        for (String key : documents.keySet()) {
+            oldDocuments.put(key, factory.invalidate(key));
+            if (ids.containsKey(key)) {
+                oldDocuments.put(ids.get(key), factory.invalidate(ids.get(key)));
+            }
+        }
+        Map<URI, JsonSchema> reloaded = new LinkedHashMap<URI, JsonSchema>();
+        try {
+            for (Map.Entry<String, JsonElement> entry : documents.entrySet()) {
+                if (entry.getValue() == null) {
+                    ids.remove(entry.getKey());
+                    continue;
+                }
+                factory.addDocument(entry.getKey(), entry.getValue());
+                String id = updateId(entry.getKey(), entry.getValue());
+                if (id != null) {
+                    factory.invalidate(id);
+                    factory.addDocument(id, entry.getValue());
+                }
+            }
+            for (String key : affected) {
+                URI uri = URI.create(key);
+                if (documents.containsKey(key) && documents.get(key) == null) {
+                    reloaded.put(uri, null);
+                } else if (current.containsKey(uri) || documents.containsKey(key)) {
+                    reloaded.put(uri, factory.getSchema(uri));
+                }
+            }
+        } catch (RuntimeException e) {
+            // put the factory back as it was, the schemas compiled so far are dropped
+            for (String key : documents.keySet()) {
+                factory.invalidate(key);
+                if (ids.containsKey(key)) {
+                    factory.invalidate(ids.get(key));
+                }
+            }
+            ids.clear();
+            ids.putAll(oldIds);
+            for (Map.Entry<String, JsonElement> entry : oldDocuments.entrySet()) {
+                if (entry.getValue() != null) {
+                    factory.addDocument(entry.getKey(), entry.getValue());
+                }
+            }
+            for (String key : affected) {
+                factory.getSchemaCache().invalidate(key);
+                JsonSchema old = oldSchemas.get(key);
+                if (old != null) {
+                    factory.getSchemaCache().put(key, old);
+                }
+            }
+            throw e;
+        }
+
+        Map<URI, JsonSchema> next = new TreeMap<URI, JsonSchema>(current);
+        for (Map.Entry<URI, JsonSchema> entry : reloaded.entrySet()) {
+            if (entry.getValue() != null) {
+                next.put(entry.getKey(), entry.getValue());
+            } else {
+                next.remove(entry.getKey());
+            }
+        }
+        schemas = Collections.unmodifiableMap(next);
+        reloadCount.incrementAndGet();
+        logger.info("Reloaded " + reloaded.keySet());
+        return reloaded.keySet();
+    }
+
+    /**
+     * @return the file behind a schema URI, its path is percent-decoded
+     */
+    private Path file(String key) {
+        return directory.resolve(URI.create(key.substring(prefix.length())).getPath());
+    }
+
+    /**
+     * @return the document of the file, or null if it was deleted
+     */
+    private JsonElement read(String key) {
+        Path file = file(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return new JsonParser().parse(reader);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to load json schema " + file + "!", e);
+            throw e instanceof JsonSchemaException ? (JsonSchemaException) e : new JsonSchemaException(e);
+        }
+    }
+
+    /**
+     * @return the new id of the document, if it is not its URI
+     */
+    private String updateId(String key, JsonElement document) {
+        String id = SchemaBundleLoader.getId(document);
+        if (id == null || id.equals(key)) {
+            ids.remove(key);
+            return null;
+        }
+        ids.put(key, id);
+        return id;
+    }
+
+    /**
+     * @return the documents and their ids, and everything that refers to them, in the order
+     * they can be compiled in
+     */
+    private Set<String> dependents(Set<String> keys) {
+        Map<String, Set<String>> referrers = new HashMap<String, Set<String>>();
+        Set<String> known = new TreeSet<String>();
+        for (URI uri : schemas.keySet()) {
+            known.add(uri.toString());
+        }
+        known.addAll(ids.values());
+        for (String key : known) {
+            for (String target : factory.getDependencies(key)) {
+                if (!referrers.containsKey(target)) {
+                    referrers.put(target, new TreeSet<String>());
+                }
+                referrers.get(target).add(key);
+            }
+        }
+
+        Set<String> affected = new TreeSet<String>();
+        Deque<String> pending = new ArrayDeque<String>();
+        for (String key : keys) {
+            pending.add(key);
+            if (ids.containsKey(key)) {
+                pending.add(ids.get(key));
+            }
+        }
+        while (!pending.isEmpty()) {
+            String key = pending.poll();
+            if (affected.add(key) && referrers.containsKey(key)) {
+                pending.addAll(referrers.get(key));
+            }
+        }
+
+        Map<String, Set<String>> graph = new TreeMap<String, Set<String>>();
+        for (String key : affected) {
+            graph.put(key, factory.getDependencies(key));
+        }
+        Set<String> ordered = new LinkedHashSet<String>();
+        for (List<String> component : new DependencyGraph(graph).components()) {
+            ordered.addAll(component);
+        }
+        return ordered;
+    }
+
+    private void register(Path root, Set<Path> changed) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                if (Files.isDirectory(path)) {
+                    path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                } else if (!path.equals(root)) {
+                    changed.add(path);
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<Path> changed = new TreeSet<Path>();
+                collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                List<URI> uris = new ArrayList<URI>();
+                for (Path path : changed) {
+                    if (path.getFileName().toString().endsWith(".json")) {
+                        try {
+                            uris.add(URI.create(prefix
+                                + SchemaBundleLoader.encodePath(SchemaBundleLoader.relativePath(directory, path))));
+                        } catch (RuntimeException e) {
+                            logger.error("Failed to reload " + path + "!", e);
+                        }
+                    }
+                }
+                try {
+                    reload(uris);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to reload " + uris + ", keeping the schemas loaded before", e);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            logger.debug("Stopped watching " + directory);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path parent = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events were lost, look at every file
+                addAll(directory, changed);
+                continue;
+            }
+            Path path = parent.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path, changed);
+                } catch (IOException ioe) {
+                    logger.error("Failed to watch " + path + "!", ioe);
+                }
+            } else {
+                changed.add(path);
+            }
+        }
+        key.reset();
+    }
+
+    private void addAll(Path root, Set<Path> changed) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            changed.addAll(SchemaBundleLoader.schemaFiles(paths));
+        } catch (IOException ioe) {
+            logger.error("Failed to list " + root + "!", ioe);
+        }
+        for (URI uri : schemas.keySet()) {
+            // deleted files
+            changed.add(file(uri.toString()));
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+
+/**
+ * The binary form of the schema documents of a JsonSchemaFactory, read back without a JSON
+ * parser. The file starts with a magic number, the format version and the fingerprint the
+ * caller gave, followed by the documents as tagged trees and a CRC32 of everything before it.
+ * Strings are written once and then referred to by index, so the keywords and property names
+ * repeated across a catalogue of schemas take a byte or two each.
+ * <p>
+ * Only the documents are stored, not the compiled validators: those hold regular expressions,
+ * formats and custom keywords that belong to the running JVM, and compiling a parsed document
+ * is cheap next to fetching and parsing it.
+ */
+final class SchemaSnapshot {
+    static final int MAGIC = 0x4A53534E;
+    static final int VERSION = 1;
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int STRING = 3;
+    private static final int NUMBER = 4;
+    private static final int ARRAY = 5;
+    private static final int OBJECT = 6;
+    /**
+     * Strings are read this many bytes at a time, so a damaged length fails at the end of the
+     * stream instead of allocating up to 2 GB before the checksum is checked.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    private SchemaSnapshot() {
+    }
+
+    /**
+     * @param documents   the documents by normalized URI
+     * @param fingerprint identifies the sources the documents were read from
+     * @param out         OutputStream, not closed
+     * @throws IOException if the stream cannot be written
+     */
+    static void write(Map<String, JsonElement> documents, String fingerprint, OutputStream out) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(out), new CRC32());
+        DataOutputStream data = new DataOutputStream(checked);
+        Writer writer = new Writer(data);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        writer.writeString(fingerprint);
+        writer.writeVarint(documents.size());
+        for (Map.Entry<String, JsonElement> entry : documents.entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeTree(entry.getValue());
+        }
+        data.flush();
+        data.writeInt((int) checked.getChecksum().getValue());
+        data.flush();
+    }
+
+    /**
+     * @param fingerprint the fingerprint the snapshot must have been written with
+     * @param in          InputStream, not closed
+     * @return the documents by normalized URI, or null if the snapshot was written by another
+     * version of this format or for another fingerprint
+     * @throws IOException if the stream cannot be read or the snapshot is damaged
+     */
+    static Map<String, JsonElement> read(String fingerprint, InputStream in) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(in), new CRC32());
+        DataInputStream data = new DataInputStream(checked);
+        Reader reader = new Reader(data);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a schema snapshot");
+        }
+        if (data.readInt() != VERSION || !fingerprint.equals(reader.readString())) {
+            return null;
+        }
+        int count = reader.readVarint();
+        Map<String, JsonElement> documents = new LinkedHashMap<String, JsonElement>();
+        for (int i = 0; i < count; i++) {
+            String key = reader.readString();
+            documents.put(key, reader.readTree());
+        }
+        int checksum = (int) checked.getChecksum().getValue();
+        if (data.readInt() != checksum) {
+            throw new IOException("Schema snapshot checksum mismatch");
+        }
+        return documents;
+    }
+
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeTree(JsonElement node) throws IOException {
+            if (node == null || node.isJsonNull()) {
+                out.writeByte(NULL);
+            } else if (node.isJsonObject()) {
+                JsonObject object = node.getAsJsonObject();
+                out.writeByte(OBJECT);
+                writeVarint(object.size());
+                for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                    writeString(entry.getKey());
+                    writeTree(entry.getValue());
+                }
+            } else if (node.isJsonArray()) {
+                JsonArray array = node.getAsJsonArray();
+                out.writeByte(ARRAY);
+                writeVarint(array.size());
+                for (JsonElement element : array) {
+                    writeTree(element);
+                }
+            } else {
+                JsonPrimitive primitive = node.getAsJsonPrimitive();
+                if (primitive.isBoolean()) {
+                    out.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+                } else if (primitive.isNumber()) {
+                    out.writeByte(NUMBER);
+                    writeString(primitive.getAsNumber().toString());
+                } else {
+                    out.writeByte(STRING);
+                    writeString(primitive.getAsString());
+                }
+            }
+        }
+
+        /**
+         * 0 and the UTF-8 bytes for a string seen for the first time, otherwise its index + 1.
+         */
+        void writeString(String s) throws IOException {
+            Integer index = strings.get(s);
+            if (index != null) {
+                writeVarint(index + 1);
+                return;
+            }
+            strings.put(s, strings.size());
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(0);
+            writeVarint(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<String>();
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        JsonElement readTree() throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case NULL:
+                    return JsonNull.INSTANCE;
+                case TRUE:
+                    return new JsonPrimitive(Boolean.TRUE);
+                case FALSE:
+                    return new JsonPrimitive(Boolean.FALSE);
+                case STRING:
+                    return new JsonPrimitive(readString());
+                case NUMBER:
+                    // JsonParser keeps numbers as written, the validators rely on that
+                    return new JsonPrimitive(new LazilyParsedNumber(readString()));
+                case ARRAY: {
+                    int size = readVarint();
+                    JsonArray array = new JsonArray();
+                    for (int i = 0; i < size; i++) {
+                        array.add(readTree());
+                    }
+                    return array;
+                }
+                case OBJECT: {
+                    int size = readVarint();
+                    JsonObject object = new JsonObject();
+                    for (int i = 0; i < size; i++) {
+                        String name = readString();
+                        object.add(name, readTree());
+                    }
+                    return object;
+                }
+                default:
+                    throw new IOException("Unknown tag " + tag + " in schema snapshot");
+            }
+        }
+
+        String readString() throws IOException {
+            int index = readVarint();
+            if (index > 0) {
+                if (index > strings.size()) {
+                    throw new IOException("Unknown string " + index + " in schema snapshot");
+                }
+                return strings.get(index - 1);
+            }
+            int length = readVarint();
+            byte[] bytes = new byte[Math.min(length, CHUNK_SIZE)];
+            int read = 0;
+            while (read < length) {
+                if (read == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new EOFException("Schema snapshot ends within a string");
+                }
+                read += n;
+            }
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(s);
+            return s;
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Malformed length in schema snapshot");
+        }
+    }
+
+}
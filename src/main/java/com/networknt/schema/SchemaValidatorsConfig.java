@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+/**
+ * Options for a JsonSchemaFactory and the validators of the schemas it creates. Change them
+ * before the factory compiles any schema; the compiled schemas read them while validating.
+ */
+public class SchemaValidatorsConfig {
+    public static final int UNLIMITED_ERRORS = Integer.MAX_VALUE;
+    public static final int DEFAULT_SCHEMA_CACHE_SIZE = 1000;
+
+    private int maxErrors = UNLIMITED_ERRORS;
+    private int schemaCacheSize = DEFAULT_SCHEMA_CACHE_SIZE;
+    private boolean cacheByContent = false;
+    private boolean lazyRefs = false;
+    private boolean memoizeCombinators = false;
+    private boolean shareSubschemas = false;
+    private RegexEngine regexEngine = new JdkRegexEngine();
+
+    /**
+     * @return the number of validation messages after which validation stops
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * Stop walking the document once this many validation messages have been collected. Nested
+     * validators stop as well, so the cost of validating a malformed document is bounded by the
+     * limit rather than by the size of the document.
+     *
+     * @param maxErrors a positive number, or {@link #UNLIMITED_ERRORS}
+     */
+    public void setMaxErrors(int maxErrors) {
+        if (maxErrors < 1) {
+            throw new IllegalArgumentException("maxErrors must be positive: " + maxErrors);
+        }
+        this.maxErrors = maxErrors;
+    }
+
+    public boolean isFailFast() {
+        return maxErrors == 1;
+    }
+
+    /**
+     * Stop at the first validation message; same as setMaxErrors(1).
+     *
+     * @param failFast boolean
+     */
+    public void setFailFast(boolean failFast) {
+        this.maxErrors = failFast ? 1 : UNLIMITED_ERRORS;
+    }
+
+    public int getSchemaCacheSize() {
+        return schemaCacheSize;
+    }
+
+    /**
+     * The number of compiled schemas the factory keeps, 0 disables the cache. Schemas loaded from
+     * a URL, including remote $ref targets, are cached by their canonical URL.
+     *
+     * @param schemaCacheSize int
+     */
+    public void setSchemaCacheSize(int schemaCacheSize) {
+        if (schemaCacheSize < 0) {
+            throw new IllegalArgumentException("schemaCacheSize must not be negative: " + schemaCacheSize);
+        }
+        this.schemaCacheSize = schemaCacheSize;
+    }
+
+    public boolean isCacheByContent() {
+        return cacheByContent;
+    }
+
+    /**
+     * Also cache schemas given as a String or an InputStream, keyed by the SHA-256 hash of their
+     * content. Streams are then read fully before they are parsed.
+     *
+     * @param cacheByContent boolean
+     */
+    public void setCacheByContent(boolean cacheByContent) {
+        this.cacheByContent = cacheByContent;
+    }
+
+    public boolean isLazyRefs() {
+        return lazyRefs;
+    }
+
+    /**
+     * Compile the target of a $ref when it is first used in validation, instead of when the
+     * schema is loaded. Large schema sets then only pay for the definitions actually used; a
+     * $ref that does not resolve is only reported when it is used.
+     *
+     * @param lazyRefs boolean
+     */
+    public void setLazyRefs(boolean lazyRefs) {
+        this.lazyRefs = lazyRefs;
+    }
+
+    public boolean isMemoizeCombinators() {
+        return memoizeCombinators;
+    }
+
+    /**
+     * Remember during each validate or isValid call whether a subschema of oneOf or anyOf
+     * accepted a node, so deep trees of nested combinators evaluate each pair once. It costs a
+     * map lookup per alternative, so it only pays off when combinators share subschemas, e.g.
+     * through $ref.
+     *
+     * @param memoizeCombinators boolean
+     */
+    public void setMemoizeCombinators(boolean memoizeCombinators) {
+        this.memoizeCombinators = memoizeCombinators;
+    }
+
+    public boolean isShareSubschemas() {
+        return shareSubschemas;
+    }
+
+    /**
+     * Compile subschemas with the same content once per factory and share them between all its
+     * schemas, see {@link SubschemaPool}. Worth it for generated schemas that repeat the same
+     * fragments many times. A format or keyword registered later does not apply to subschemas
+     * already in the pool.
+     *
+     * @param shareSubschemas boolean
+     */
+    public void setShareSubschemas(boolean shareSubschemas) {
+        this.shareSubschemas = shareSubschemas;
+    }
+
+    public RegexEngine getRegexEngine() {
+        return regexEngine;
+    }
+
+    /**
+     * The engine compiling pattern and patternProperties. Use {@link LinearRegexEngine} when schemas or documents are untrusted: the JDK
+     * engine backtracks, and a pattern like ^(a+)+$ takes exponential time on some strings.
+     *
+     * @param regexEngine RegexEngine
+     */
+    public void setRegexEngine(RegexEngine regexEngine) {
+        if (regexEngine == null) {
+            throw new IllegalArgumentException("regexEngine must not be null");
+        }
+        this.regexEngine = regexEngine;
+    }
+
+}
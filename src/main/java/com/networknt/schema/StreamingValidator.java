@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.networknt.schema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Validates JSON read from a {@link JsonReader} against a compiled schema without building the
+ * whole document tree first. Objects and arrays whose keywords can be checked one member at a
+ * time (type, properties, patternProperties, additionalProperties, required, min/maxProperties,
+ * items, additionalItems, min/maxItems, uniqueItems) are streamed; only the members they
+ * validate are read, and memory grows with the nesting depth rather than the document size.
+ * A container whose schema uses any other keyword, e.g. allOf or enum, is read into a
+ * JsonElement and validated as usual, so the result is the same as
+ * {@link JsonSchema#validate(JsonElement)}. uniqueItems keeps a SHA-256 digest of every item.
+ * <p>
+ * The rootNode passed to the validators is the value being validated, not the document root.
+ * Instances are thread safe; a reader must only be used by one thread.
+ */
+public class StreamingValidator {
+    private static final JsonParser PARSER = new JsonParser();
+    private static final JsonObject EMPTY_OBJECT = new JsonObject();
+    private static final JsonArray EMPTY_ARRAY = new JsonArray();
+
+    /**
+     * Receives the result of every value of a stream.
+     */
+    public interface Listener {
+        void onResult(long index, Set<ValidationMessage> errors);
+    }
+
+    private final JsonSchema schema;
+    private final int maxErrors;
+
+    public StreamingValidator(JsonSchema schema) {
+        this.schema = schema;
+        this.maxErrors = schema.getConfig().getMaxErrors();
+    }
+
+    /**
+     * Read and validate the next value of the reader.
+     *
+     * @param reader JsonReader
+     * @return the validation messages
+     * @throws IOException if the reader fails or the JSON is malformed
+     */
+    public Set<ValidationMessage> validate(JsonReader reader) throws IOException {
+        Set<ValidationMessage> errors = new HashSet<ValidationMessage>();
+        validate(Collections.singletonList(schema), reader, DataPath.ROOT, errors);
+        return errors;
+    }
+
+    /**
+     * Validate every top-level value of the reader, e.g. newline delimited JSON.
+     *
+     * @param reader   JsonReader, switched to lenient mode while reading
+     * @param listener gets the result of each value
+     * @return the number of values
+     * @throws IOException if the reader fails or the JSON is malformed
+     */
+    public long validateEach(JsonReader reader, Listener listener) throws IOException {
+        boolean lenient = reader.isLenient();
+        reader.setLenient(true);
+        try {
+            long index = 0;
+            while (reader.peek() != JsonToken.END_DOCUMENT) {
+                listener.onResult(index, validate(reader));
+                index++;
+            }
+            return index;
+        } finally {
+            reader.setLenient(lenient);
+        }
+    }
+
+    /**
+     * Validate every element of the array the reader is positioned at.
+     *
+     * @param reader   JsonReader
+     * @param listener gets the result of each element
+     * @return the number of elements
+     * @throws IOException if the reader fails or the JSON is malformed
+     */
+    public long validateElements(JsonReader reader, Listener listener) throws IOException {
+        reader.beginArray();
+        long index = 0;
+        while (reader.hasNext()) {
+            listener.onResult(index, validate(reader));
+            index++;
+        }
+        reader.endArray();
+        return index;
+    }
+
+    private void validate(List<JsonSchema> schemas, JsonReader reader, DataPath at,
+                          Set<ValidationMessage> errors) throws IOException {
+        if (schemas.isEmpty() || errors.size() >= maxErrors) {
+            reader.skipValue();
+            return;
+        }
+
+        JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT || token == JsonToken.BEGIN_ARRAY) {
+            boolean object = token == JsonToken.BEGIN_OBJECT;
+            List<JsonValidator> validators = new ArrayList<JsonValidator>();
+            Set<JsonSchema> seen = Collections.newSetFromMap(new IdentityHashMap<JsonSchema, Boolean>());
+            boolean streamable = true;
+            for (JsonSchema s : schemas) {
+                if (!collectValidators(s, object, validators, seen)) {
+                    streamable = false;
+                    break;
+                }
+            }
+            if (streamable) {
+                if (object) {
+                    validateObject(validators, reader, at, errors);
+                } else {
+                    validateArray(validators, reader, at, errors);
+                }
+                return;
+            }
+        }
+
+        JsonElement node = PARSER.parse(reader);
+        for (JsonSchema s : schemas) {
+            if (addErrors(errors, s.validate(node, node, at))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if one of the validators needs the whole container
+     */
+    private static boolean collectValidators(JsonSchema schema, boolean object, List<JsonValidator> validators,
+                                             Set<JsonSchema> seen) {
+        if (!seen.add(schema)) {
+            return true;
+        }
+        for (JsonValidator validator : schema.getValidators(object ? JsonType.OBJECT : JsonType.ARRAY)) {
+            if (validator instanceof RefValidator) {
+                JsonSchema target = ((RefValidator) validator).getSchema();
+                if (target != null && !collectValidators(target, object, validators, seen)) {
+                    return false;
+                }
+            } else if (isStreamable(validator, object)) {
+                validators.add(validator);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStreamable(JsonValidator validator, boolean object) {
+        if (validator instanceof TypeValidator) {
+            return ((TypeValidator) validator).isTypeOnly();
+        }
+        if (validator instanceof RequiredValidator) {
+            return object;
+        }
+        if (validator instanceof DependenciesValidator) {
+            return !object;
+        }
+        return isContainerValidator(validator) || isScalarValidator(validator);
+    }
+
+    private static boolean isContainerValidator(JsonValidator validator) {
+        return validator instanceof PropertiesValidator
+            || validator instanceof PatternPropertiesValidator
+            || validator instanceof AdditionalPropertiesValidator
+            || validator instanceof MinPropertiesValidator
+            || validator instanceof MaxPropertiesValidator
+            || validator instanceof ItemsValidator
+            || validator instanceof MinItemsValidator
+            || validator instanceof MaxItemsValidator
+            || validator instanceof UniqueItemsValidator;
+    }
+
+    /**
+     * Keywords that ignore objects and arrays.
+     */
+    private static boolean isScalarValidator(JsonValidator validator) {
+        return validator instanceof MaxLengthValidator
+            || validator instanceof MinLengthValidator
+            || validator instanceof PatternValidator
+            || validator instanceof FormatValidator
+            || validator instanceof MaximumValidator
+            || validator instanceof MinimumValidator
+            || validator instanceof MultipleOfValidator;
+    }
+
+    private void validateObject(List<JsonValidator> validators, JsonReader reader, DataPath at,
+                                Set<ValidationMessage> errors) throws IOException {
+        Set<String> requiredNames = new HashSet<String>();
+        for (JsonValidator validator : validators) {
+            if (validator instanceof RequiredValidator) {
+                requiredNames.addAll(((RequiredValidator) validator).getFieldNames());
+            } else if (!isObjectValidator(validator)) {
+                // the result only depends on the node being an object
+                addErrors(errors, validator.validate(EMPTY_OBJECT, EMPTY_OBJECT, at));
+            }
+        }
+
+        Set<String> presentNames = new HashSet<String>();
+        List<JsonSchema> schemas = new ArrayList<JsonSchema>();
+        int size = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            size++;
+            if (requiredNames.contains(name)) {
+                presentNames.add(name);
+            }
+            schemas.clear();
+            for (JsonValidator validator : validators) {
+                if (validator instanceof PropertiesValidator) {
+                    JsonSchema propertySchema = ((PropertiesValidator) validator).getPropertySchema(name);
+                    if (propertySchema != null) {
+                        schemas.add(propertySchema);
+                    }
+                } else if (validator instanceof PatternPropertiesValidator) {
+                    ((PatternPropertiesValidator) validator).addMatchingSchemas(name, schemas);
+                } else if (validator instanceof AdditionalPropertiesValidator) {
+                    AdditionalPropertiesValidator additional = (AdditionalPropertiesValidator) validator;
+                    if (!additional.isAdditionalProperty(name)) {
+                        continue;
+                    }
+                    if (!additional.isAllowAdditionalProperties()) {
+                        addError(errors, additional.buildValidationMessage(at, name));
+                    } else if (additional.getAdditionalPropertiesSchema() != null) {
+                        schemas.add(additional.getAdditionalPropertiesSchema());
+                    }
+                }
+            }
+            validate(schemas, reader, at.property(name), errors);
+        }
+        reader.endObject();
+
+        for (JsonValidator validator : validators) {
+            if (validator instanceof RequiredValidator) {
+                RequiredValidator required = (RequiredValidator) validator;
+                for (String fieldName : required.getFieldNames()) {
+                    if (!presentNames.contains(fieldName)) {
+                        addError(errors, required.buildValidationMessage(at, fieldName));
+                    }
+                }
+            } else if (validator instanceof MinPropertiesValidator) {
+                MinPropertiesValidator min = (MinPropertiesValidator) validator;
+                if (size < min.getMin()) {
+                    addError(errors, min.buildValidationMessage(at, "" + min.getMin()));
+                }
+            } else if (validator instanceof MaxPropertiesValidator) {
+                MaxPropertiesValidator max = (MaxPropertiesValidator) validator;
+                if (size > max.getMax()) {
+                    addError(errors, max.buildValidationMessage(at, "" + max.getMax()));
+                }
+            }
+        }
+    }
+
+    private static boolean isObjectValidator(JsonValidator validator) {
+        return validator instanceof PropertiesValidator
+            || validator instanceof PatternPropertiesValidator
+            || validator instanceof AdditionalPropertiesValidator
+            || validator instanceof MinPropertiesValidator
+            || validator instanceof MaxPropertiesValidator;
+    }
+
+    private void validateArray(List<JsonValidator> validators, JsonReader reader, DataPath at,
+                               Set<ValidationMessage> errors) throws IOException {
+        boolean unique = false;
+        for (JsonValidator validator : validators) {
+            if (validator instanceof UniqueItemsValidator) {
+                unique |= ((UniqueItemsValidator) validator).isUnique();
+            } else if (!isArrayValidator(validator)) {
+                // the result only depends on the node being an array
+                addErrors(errors, validator.validate(EMPTY_ARRAY, EMPTY_ARRAY, at));
+            }
+        }
+
+        Set<ByteBuffer> digests = unique ? new HashSet<ByteBuffer>() : null;
+        boolean duplicate = false;
+        List<JsonSchema> schemas = new ArrayList<JsonSchema>();
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int index = size++;
+            schemas.clear();
+            for (JsonValidator validator : validators) {
+                if (validator instanceof ItemsValidator) {
+                    ItemsValidator items = (ItemsValidator) validator;
+                    JsonSchema itemSchema = items.getItemSchema(index);
+                    if (itemSchema != null) {
+                        schemas.add(itemSchema);
+                    } else if (!items.isItemAllowed(index)) {
+                        addError(errors, items.buildValidationMessage(at, "" + index));
+                    }
+                }
+            }
+
+            DataPath itemAt = at.index(index);
+            if (digests == null || duplicate) {
+                validate(schemas, reader, itemAt, errors);
+            } else {
+                // uniqueItems needs to see the whole item
+                JsonElement item = PARSER.parse(reader);
+                for (JsonSchema itemSchema : schemas) {
+                    addErrors(errors, itemSchema.validate(item, item, itemAt));
+                }
+                duplicate = !digests.add(digest(item));
+            }
+        }
+        reader.endArray();
+
+        for (JsonValidator validator : validators) {
+            if (validator instanceof MinItemsValidator) {
+                MinItemsValidator min = (MinItemsValidator) validator;
+                if (size < min.getMin()) {
+                    addError(errors, min.buildValidationMessage(at, "" + min.getMin()));
+                }
+            } else if (validator instanceof MaxItemsValidator) {
+                MaxItemsValidator max = (MaxItemsValidator) validator;
+                if (size > max.getMax()) {
+                    addError(errors, max.buildValidationMessage(at, "" + max.getMax()));
+                }
+            } else if (validator instanceof UniqueItemsValidator) {
+                UniqueItemsValidator uniqueItems = (UniqueItemsValidator) validator;
+                if (duplicate && uniqueItems.isUnique()) {
+                    addError(errors, uniqueItems.buildValidationMessage(at));
+                }
+            }
+        }
+    }
+
+    private static boolean isArrayValidator(JsonValidator validator) {
+        return validator instanceof ItemsValidator
+            || validator instanceof MinItemsValidator
+            || validator instanceof MaxItemsValidator
+            || validator instanceof UniqueItemsValidator;
+    }
+
+    private boolean addErrors(Set<ValidationMessage> errors, Collection<ValidationMessage> newErrors) {
+        for (ValidationMessage error : newErrors) {
+            if (addError(errors, error)) {
+                return true;
+            }
+        }
+        return errors.size() >= maxErrors;
+    }
+
+    private boolean addError(Set<ValidationMessage> errors, ValidationMessage error) {
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        }
+        return errors.size() >= maxErrors;
+    }
+
+    /**
+     * A digest of the value that is equal for values that are equal as in {@link JsonValues},
+     * i.e. ignoring the order of object members and comparing numbers by value.
+     */
+    static ByteBuffer digest(JsonElement node) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, node);
+            return ByteBuffer.wrap(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, JsonElement node) {
+        if (node.isJsonObject()) {
+            Map<String, JsonElement> members = new TreeMap<String, JsonElement>();
+            for (Map.Entry<String, JsonElement> member : node.getAsJsonObject().entrySet()) {
+                members.put(member.getKey(), member.getValue());
+            }
+            digest.update((byte) '{');
+            for (Map.Entry<String, JsonElement> member : members.entrySet()) {
+                update(digest, "k", member.getKey());
+                update(digest, member.getValue());
+            }
+            digest.update((byte) '}');
+        } else if (node.isJsonArray()) {
+            digest.update((byte) '[');
+            for (JsonElement item : node.getAsJsonArray()) {
+                update(digest, item);
+            }
+            digest.update((byte) ']');
+        } else if (node.isJsonPrimitive()) {
+            JsonPrimitive primitive = node.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                update(digest, "d", TypeFactory.numberKey(primitive.getAsNumber()).toString());
+            } else if (primitive.isBoolean()) {
+                update(digest, "b", primitive.getAsString());
+            } else {
+                update(digest, "s", primitive.getAsString());
+            }
+        } else {
+            digest.update((byte) 'n');
+        }
+    }
+
+    private static void update(MessageDigest digest, String tag, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(tag.getBytes(StandardCharsets.UTF_8));
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+}
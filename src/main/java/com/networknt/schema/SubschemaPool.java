@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+
+/**
+ * Compiled subschemas shared by all schemas of a JsonSchemaFactory when
+ * {@link SchemaValidatorsConfig#isShareSubschemas()} is set. Subschemas with the same content
+ * (same keys in the same order and the same number literals, as both show in validation
+ * messages) are compiled once. A subschema is only shared if nothing in it depends on where it
+ * is: it must not use $ref, id or a custom keyword, at any level.
+ * <p>
+ * The counters tell how many subschemas were reused and how many JsonSchema and validator
+ * instances that saved.
+ */
+public class SubschemaPool {
+    private final ConcurrentMap<String, Entry> schemas = new ConcurrentHashMap<String, Entry>();
+    /**
+     * The schemas and validators compiled so far by the subschema being compiled on this thread.
+     */
+    private final ThreadLocal<int[]> compiling = new ThreadLocal<int[]>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong savedSchemaCount = new AtomicLong();
+    private final AtomicLong savedValidatorCount = new AtomicLong();
+
+    /**
+     * Keywords whose value is a schema, an array of schemas or an object of schemas.
+     */
+    private static final Set<String> SCHEMA_KEYWORDS = new HashSet<String>(Arrays.asList(
+        "additionalItems", "additionalProperties", "items", "not", "allOf", "anyOf", "oneOf", "type"));
+    private static final Set<String> SCHEMA_MAP_KEYWORDS = new HashSet<String>(Arrays.asList(
+        "properties", "patternProperties", "definitions", "dependencies"));
+
+    private static final class Entry {
+        final JsonSchema schema;
+        final int schemaCount;
+        final int validatorCount;
+
+        Entry(JsonSchema schema, int schemaCount, int validatorCount) {
+            this.schema = schema;
+            this.schemaCount = schemaCount;
+            this.validatorCount = validatorCount;
+        }
+    }
+
+    /**
+     * @param factory      compiles the subschema if it is not in the pool yet
+     * @param key          the fingerprint of the subschema
+     * @param schemaNode   JsonElement
+     * @param fingerprints the fingerprints of the document, see {@link #fingerprints(JsonElement)}
+     * @return the shared schema
+     */
+    JsonSchema get(JsonSchemaFactory factory, String key, JsonElement schemaNode, Map<JsonElement, String> fingerprints) {
+        Entry entry = schemas.get(key);
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            savedSchemaCount.addAndGet(entry.schemaCount);
+            savedValidatorCount.addAndGet(entry.validatorCount);
+            return entry.schema;
+        }
+        missCount.incrementAndGet();
+        int[] outer = compiling.get();
+        int[] counts = new int[2];
+        compiling.set(counts);
+        JsonSchema schema;
+        try {
+            // compiled as a root of its own, so it does not keep the schema it was found in
+            schema = new JsonSchema(factory, schemaNode, fingerprints);
+        } finally {
+            compiling.set(outer);
+        }
+        if (outer != null) {
+            outer[0] += counts[0];
+            outer[1] += counts[1];
+        }
+        Entry existing = schemas.putIfAbsent(key, new Entry(schema, counts[0], counts[1]));
+        return existing != null ? existing.schema : schema;
+    }
+
+    /**
+     * Count a schema compiled on this thread.
+     *
+     * @param validatorCount the number of validators of the schema
+     */
+    void compiled(int validatorCount) {
+        int[] counts = compiling.get();
+        if (counts != null) {
+            counts[0]++;
+            counts[1] += validatorCount;
+        }
+    }
+
+    /**
+     * Stop counting for the subschema being compiled on this thread, while the thread compiles
+     * something else. Subschemas compiled in parallel are therefore not counted as saved when
+     * the subschema containing them is reused.
+     *
+     * @return the counts to pass to {@link #resumeCount(int[])}
+     */
+    int[] suspendCount() {
+        int[] counts = compiling.get();
+        compiling.remove();
+        return counts;
+    }
+
+    void resumeCount(int[] counts) {
+        compiling.set(counts);
+    }
+
+    /**
+     * Fingerprint the subschemas of a schema document in one pass from the leaves up, so each
+     * node is hashed once however deep it is nested. Only the keys in keyword position are
+     * looked at: a property named "id" is not an id.
+     *
+     * @param schemaNode the document, or a subschema compiled on its own
+     * @return the fingerprint of each schema object by identity, null for those that depend on
+     * where they are
+     */
+    static Map<JsonElement, String> fingerprints(JsonElement schemaNode) {
+        Fingerprinter fingerprinter = new Fingerprinter();
+        fingerprinter.visitSchema(schemaNode);
+        return fingerprinter.fingerprints;
+    }
+
+    public int size() {
+        return schemas.size();
+    }
+
+    public void clear() {
+        schemas.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of JsonSchema instances that were not created because a compiled
+     * subschema was reused, nested subschemas included
+     */
+    public long getSavedSchemaCount() {
+        return savedSchemaCount.get();
+    }
+
+    /**
+     * @return the number of validator instances that were not created because a compiled
+     * subschema was reused
+     */
+    public long getSavedValidatorCount() {
+        return savedValidatorCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SubschemaPool{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+            + ", savedSchemas=" + getSavedSchemaCount() + ", savedValidators=" + getSavedValidatorCount() + "}";
+    }
+
+    private static final class Fingerprinter {
+        private static final byte OBJECT = 1;
+        private static final byte ARRAY = 2;
+        private static final byte PRIMITIVE = 3;
+
+        final Map<JsonElement, String> fingerprints = new IdentityHashMap<JsonElement, String>();
+        private final Map<JsonElement, byte[]> digests = new IdentityHashMap<JsonElement, byte[]>();
+        private final MessageDigest digest;
+
+        Fingerprinter() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // every Java platform is required to support SHA-256
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * @return true if the schema can be shared
+         */
+        boolean visitSchema(JsonElement node) {
+            if (!node.isJsonObject()) {
+                return true;
+            }
+            boolean shareable = true;
+            for (Map.Entry<String, JsonElement> entry : node.getAsJsonObject().entrySet()) {
+                String key = entry.getKey();
+                JsonElement value = entry.getValue();
+                if ("$ref".equals(key) || "id".equals(key) || KeywordRegistry.isCustom(key)) {
+                    shareable = false;
+                }
+                // every subschema is visited, unshareable ones included, so all get a fingerprint
+                if (SCHEMA_KEYWORDS.contains(key)) {
+                    if (value.isJsonArray()) {
+                        for (JsonElement element : value.getAsJsonArray()) {
+                            shareable &= visitSchema(element);
+                        }
+                    } else {
+                        shareable &= visitSchema(value);
+                    }
+                } else if (SCHEMA_MAP_KEYWORDS.contains(key) && value.isJsonObject()) {
+                    for (Map.Entry<String, JsonElement> member : value.getAsJsonObject().entrySet()) {
+                        shareable &= visitSchema(member.getValue());
+                    }
+                }
+            }
+            fingerprints.put(node, shareable ? hex(digest(node)) : null);
+            return shareable;
+        }
+
+        /**
+         * The SHA-256 of the node, with the digests of its containers in place of their content.
+         */
+        private byte[] digest(JsonElement node) {
+            byte[] result = digests.get(node);
+            if (result != null) {
+                return result;
+            }
+            if (node.isJsonObject()) {
+                Set<Map.Entry<String, JsonElement>> members = node.getAsJsonObject().entrySet();
+                byte[][] children = new byte[members.size()][];
+                int i = 0;
+                for (Map.Entry<String, JsonElement> member : members) {
+                    children[i++] = token(member.getValue());
+                }
+                digest.update(OBJECT);
+                i = 0;
+                for (Map.Entry<String, JsonElement> member : members) {
+                    update(member.getKey().getBytes(StandardCharsets.UTF_8));
+                    update(children[i++]);
+                }
+            } else {
+                JsonArray array = node.getAsJsonArray();
+                byte[][] children = new byte[array.size()][];
+                for (int i = 0; i < children.length; i++) {
+                    children[i] = token(array.get(i));
+                }
+                digest.update(ARRAY);
+                for (byte[] child : children) {
+                    update(child);
+                }
+            }
+            result = digest.digest();
+            digests.put(node, result);
+            return result;
+        }
+
+        private byte[] token(JsonElement node) {
+            if (node.isJsonObject() || node.isJsonArray()) {
+                return digest(node);
+            }
+            // the JSON text, number literals as written
+            byte[] text = node.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] token = new byte[text.length + 1];
+            token[0] = PRIMITIVE;
+            System.arraycopy(text, 0, token, 1, text.length);
+            return token;
+        }
+
+        private void update(byte[] bytes) {
+            int length = bytes.length;
+            digest.update((byte) (length >>> 24));
+            digest.update((byte) (length >>> 16));
+            digest.update((byte) (length >>> 8));
+            digest.update((byte) length);
+            digest.update(bytes);
+        }
+
+        private static String hex(byte[] bytes) {
+            StringBuilder hex = new StringBuilder(2 * bytes.length);
+            for (byte b : bytes) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        }
+    }
+
+}
@@ -16,12 +16,16 @@
 
 package com.networknt.schema;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
 
 public class TypeFactory {
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
     public static JsonType getSchemaNodeType(JsonElement node) {
         //Single Type Definition
         if (node.isJsonPrimitive()) {
@@ -68,22 +72,78 @@ public class TypeFactory {
             JsonPrimitive primitive = node.getAsJsonPrimitive();
             if (primitive.isString()) return JsonType.STRING;
             if (primitive.isNumber()) {
-                String numberAsString = primitive.getAsNumber().toString();
-                try {
-                    Long.parseLong(numberAsString);
-                    return JsonType.INTEGER;
-                } catch (NumberFormatException ignored) {
-                    try {
-                        new BigInteger(numberAsString);
-                        return JsonType.INTEGER;
-                    } catch (NumberFormatException moreIgnored) {
-                        return JsonType.NUMBER;
-                    }
-                }
+                return isInteger(primitive.getAsNumber()) ? JsonType.INTEGER : JsonType.NUMBER;
             }
             if (primitive.isBoolean()) return JsonType.BOOLEAN;
         }
         return JsonType.UNKNOWN;
     }
 
+    /**
+     * A number is an integer if it is written without fraction or exponent, so 1.0 is not one.
+     * Parsed documents hold LazilyParsedNumber, whose toString is the text of the document.
+     */
+    static boolean isInteger(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short
+            || number instanceof Byte || number instanceof BigInteger) {
+            return true;
+        }
+        if (number instanceof Double || number instanceof Float) {
+            // Double.toString always has a fraction or an exponent
+            return false;
+        }
+        return isIntegerLiteral(number.toString());
+    }
+
+    /**
+     * A key for the numeric value of a number, so that 1, 1.0 and 1e0 have equal keys whatever
+     * the Number subclass holding them. Integral values that fit a long are keyed by a Long,
+     * however they are stored, anything else by a BigDecimal without trailing zeros.
+     */
+    static Object numberKey(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short
+            || number instanceof Byte) {
+            return number.longValue();
+        }
+        String text = number.toString();
+        if (text.length() <= 18 && isIntegerLiteral(text)) {
+            return Long.parseLong(text);
+        }
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            // NaN and Infinity, only found in leniently parsed documents
+            return number.doubleValue();
+        }
+        if (decimal.signum() == 0) {
+            return 0L;
+        }
+        decimal = decimal.stripTrailingZeros();
+        // the magnitude is checked first, 1e10000000 must not be expanded into a BigInteger
+        if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() <= 19
+            && decimal.compareTo(LONG_MIN) >= 0 && decimal.compareTo(LONG_MAX) <= 0) {
+            return decimal.longValueExact();
+        }
+        return decimal;
+    }
+
+    private static boolean isIntegerLiteral(String text) {
+        int length = text.length();
+        int i = 0;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            i = 1;
+        }
+        if (i == length) {
+            return false;
+        }
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
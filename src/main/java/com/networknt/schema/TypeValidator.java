@@ -43,7 +43,7 @@ public class TypeValidator extends BaseJsonValidator implements JsonValidator {
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         if (schemaType == JsonType.UNION) {
@@ -51,19 +51,48 @@ public class TypeValidator extends BaseJsonValidator implements JsonValidator {
         }
 
         JsonType nodeType = TypeFactory.getValueNodeType(node);
-        if (nodeType != schemaType) {
-            if (schemaType == JsonType.ANY) {
-                return Collections.emptySet();
-            }
-
-            if (schemaType == JsonType.NUMBER && nodeType == JsonType.INTEGER) {
-                return Collections.emptySet();
-            }
-
+        if (!matches(nodeType)) {
             return Collections.singleton(buildValidationMessage(at, nodeType.toString(), schemaType.toString()));
         }
 
         return Collections.emptySet();
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (schemaType == JsonType.UNION) {
+            return unionTypeValidator.isValid(node, rootNode);
+        }
+
+        return matches(TypeFactory.getValueNodeType(node));
+    }
+
+    /**
+     * @return true if the result only depends on the type of the node, i.e. no union member is a schema
+     */
+    boolean isTypeOnly() {
+        if (schemaType != JsonType.UNION) {
+            return true;
+        }
+        for (JsonElement member : getSchemaNode().getAsJsonArray()) {
+            if (member.isJsonObject()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isUnion() {
+        return schemaType == JsonType.UNION;
+    }
+
+    /**
+     * @return true if a node of this type matches a single type
+     */
+    boolean matches(JsonType nodeType) {
+        return nodeType == schemaType
+            || schemaType == JsonType.ANY
+            || (schemaType == JsonType.NUMBER && nodeType == JsonType.INTEGER);
+    }
+
 }
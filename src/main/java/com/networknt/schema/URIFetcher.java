@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.networknt.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Opens the schema documents a JsonSchemaFactory loads by URI, including the targets of remote
+ * $ref. Set one on the factory to serve schemas from somewhere other than their URL, e.g. a
+ * local mirror with {@link URIMappingFetcher}.
+ */
+public interface URIFetcher {
+
+    /**
+     * @param uri an absolute URI
+     * @return the document, closed by the caller
+     * @throws IOException if the document cannot be read
+     */
+    InputStream fetch(URI uri) throws IOException;
+
+}
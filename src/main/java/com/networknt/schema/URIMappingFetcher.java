@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves schemas published under a URI prefix from a local directory or a classpath root, so
+ * compiling a schema with remote $ref does not go to the network:
+ * <pre>
+ * URIFetcher fetcher = new URIMappingFetcher()
+ *     .mapDirectory("http://example.com/schemas/", new File("/opt/schemas"))
+ *     .mapClasspath("http://json-schema.org/", "schemas/json-schema.org/");
+ * JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+ * </pre>
+ * The longest matching prefix wins. URIs are normalized and matched on their decoded path, so
+ * "my%20schema.json" is read from "my schema.json"; the query and fragment are ignored. A path
+ * leading out of the directory or classpath root, e.g. through "..", is rejected. URIs that match
+ * no prefix go to the fallback fetcher, or fail when there is none. Add the mappings before the
+ * fetcher is used.
+ */
+public class URIMappingFetcher implements URIFetcher {
+    private final List<Mapping> mappings = new ArrayList<Mapping>();
+    private final URIFetcher fallback;
+
+    /**
+     * Fail for URIs that are not mapped.
+     */
+    public URIMappingFetcher() {
+        this(null);
+    }
+
+    /**
+     * @param fallback fetches the URIs that are not mapped, e.g. a {@link URLFetcher}
+     */
+    public URIMappingFetcher(URIFetcher fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * @param prefix    URI prefix, e.g. "http://example.com/schemas/"
+     * @param directory directory the rest of the URI is resolved against
+     * @return this
+     */
+    public URIMappingFetcher mapDirectory(String prefix, final File directory) {
+        return add(prefix, new Target() {
+            public InputStream open(String path) throws IOException {
+                return new FileInputStream(new File(directory, path));
+            }
+        });
+    }
+
+    /**
+     * @param prefix URI prefix, e.g. "http://example.com/schemas/"
+     * @param root   classpath root the rest of the URI is appended to, e.g. "schemas/"
+     * @return this
+     */
+    public URIMappingFetcher mapClasspath(String prefix, final String root) {
+        return add(prefix, new Target() {
+            public InputStream open(String path) throws IOException {
+                String resource = root + path;
+                InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+                if (in == null) {
+                    throw new FileNotFoundException("Could not find " + resource + " on the classpath");
+                }
+                return in;
+            }
+        });
+    }
+
+    private URIMappingFetcher add(String prefix, Target target) {
+        int i = 0;
+        while (i < mappings.size() && mappings.get(i).prefix.length() >= prefix.length()) {
+            i++;
+        }
+        mappings.add(i, new Mapping(location(prefix), target));
+        return this;
+    }
+
+    @Override
+    public InputStream fetch(URI uri) throws IOException {
+        String location = location(uri.normalize());
+        for (Mapping mapping : mappings) {
+            if (location.startsWith(mapping.prefix)) {
+                String path = location.substring(mapping.prefix.length());
+                for (String segment : path.split("[/\\\\]")) {
+                    if (segment.equals("..")) {
+                        throw new FileNotFoundException(uri + " is outside of " + mapping.prefix);
+                    }
+                }
+                return mapping.target.open(path);
+            }
+        }
+        if (fallback == null) {
+            throw new FileNotFoundException("No mapping for " + uri);
+        }
+        return fallback.fetch(uri);
+    }
+
+    private static String location(String prefix) {
+        try {
+            return location(new URI(prefix).normalize());
+        } catch (URISyntaxException e) {
+            // matched as given
+            return prefix;
+        }
+    }
+
+    /**
+     * @return the URI without query and fragment, with its path decoded
+     */
+    private static String location(URI uri) {
+        if (uri.isOpaque() || uri.getPath() == null) {
+            return uri.getScheme() + ":" + uri.getSchemeSpecificPart();
+        }
+        StringBuilder location = new StringBuilder();
+        if (uri.getScheme() != null) {
+            location.append(uri.getScheme()).append(':');
+        }
+        if (uri.getAuthority() != null) {
+            location.append("//").append(uri.getAuthority());
+        }
+        return location.append(uri.getPath()).toString();
+    }
+
+    private interface Target {
+        InputStream open(String path) throws IOException;
+    }
+
+    private static class Mapping {
+        private final String prefix;
+        private final Target target;
+
+        Mapping(String prefix, Target target) {
+            this.prefix = prefix;
+            this.target = target;
+        }
+    }
+
+}
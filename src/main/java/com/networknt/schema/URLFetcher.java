@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.networknt.schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+
+/**
+ * The default URIFetcher, opens the URI as a java.net.URL.
+ */
+public class URLFetcher implements URIFetcher {
+
+    @Override
+    public InputStream fetch(URI uri) throws IOException {
+        if (!uri.isAbsolute()) {
+            throw new MalformedURLException("Not an absolute URI: " + uri);
+        }
+        return uri.toURL().openStream();
+    }
+
+}
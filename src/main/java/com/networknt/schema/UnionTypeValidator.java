@@ -47,7 +47,7 @@ public class UnionTypeValidator extends BaseJsonValidator implements JsonValidat
             errorList.add(t.toString());
 
             if (n.isJsonObject()) {
-                schemas.add(new JsonSchema(ValidatorTypeCode.TYPE.getValue(), n, parentSchema));
+                schemas.add(parentSchema.compileSubschema(ValidatorTypeCode.TYPE.getValue(), n));
             } else {
                 schemas.add(new TypeValidator(schemaPath + "/" + i, n, parentSchema));
             }
@@ -58,7 +58,7 @@ public class UnionTypeValidator extends BaseJsonValidator implements JsonValidat
         this.error = "[" + StringUtils.join(errorList, ", ") + "]";
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         JsonType nodeType = TypeFactory.getValueNodeType(node);
@@ -80,4 +80,14 @@ public class UnionTypeValidator extends BaseJsonValidator implements JsonValidat
         }
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        for (JsonValidator schema : schemas) {
+            if (schema.isValid(node, rootNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -16,8 +16,8 @@
 
 package com.networknt.schema;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
-import com.google.gson.Gson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,23 +38,40 @@ public class UniqueItemsValidator extends BaseJsonValidator implements JsonValid
         parseErrorCode(getValidatorType().getErrorCodeKey());
     }
 
-    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+    boolean isUnique() {
+        return unique;
+    }
+
+    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, DataPath at) {
         debug(logger, node, rootNode, at);
 
         Set<ValidationMessage> errors = new HashSet<>();
 
-        if (unique && node.isJsonArray()) {
-            Set<JsonElement> set = new HashSet<>();
-            for (JsonElement n : node.getAsJsonArray()) {
-                set.add(n);
-            }
-
-            if (set.size() < node.getAsJsonArray().size()) {
-                errors.add(buildValidationMessage(at));
-            }
+        if (!isValid(node, rootNode)) {
+            errors.add(buildValidationMessage(at));
         }
 
         return errors;
     }
 
+    @Override
+    public boolean isValid(JsonElement node, JsonElement rootNode) {
+        if (!unique || !node.isJsonArray()) {
+            return true;
+        }
+        JsonArray array = node.getAsJsonArray();
+        if (array.size() < 2) {
+            return true;
+        }
+        // primitives are keyed by their value, objects and arrays by a structural hash that is
+        // computed once per item; stop at the first duplicate
+        Set<Object> keys = new HashSet<Object>(array.size() * 4 / 3 + 1);
+        for (JsonElement n : array) {
+            if (!keys.add(JsonValues.key(n))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
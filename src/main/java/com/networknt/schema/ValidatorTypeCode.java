@@ -17,42 +17,77 @@
 package com.networknt.schema;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public enum ValidatorTypeCode {
     ADDITIONAL_PROPERTIES("additionalProperties", "1001", new MessageFormat(
-            "{0}.{1}: is not defined in the schema and the schema does not allow additional properties")),
-    ALL_OF("allOf", "1002", new MessageFormat("{0}: should be valid to all the schemas {1}")),
-    ANY_OF("anyOf", "1003", new MessageFormat("{0}: should be valid to any of the schemas {1}")),
+            "{0}.{1}: is not defined in the schema and the schema does not allow additional properties"),
+            AdditionalPropertiesValidator::new, 5, JsonType.OBJECT),
+    ALL_OF("allOf", "1002", new MessageFormat("{0}: should be valid to all the schemas {1}"),
+            AllOfValidator::new, 8, JsonType.ANY),
+    ANY_OF("anyOf", "1003", new MessageFormat("{0}: should be valid to any of the schemas {1}"),
+            AnyOfValidator::new, 9, JsonType.ANY),
     CROSS_EDITS("crossEdits", "1004", new MessageFormat("{0}: has an error with 'cross edits'")),
-    DEPENDENCIES("dependencies", "1007", new MessageFormat("{0}: has an error with dependencies {1}")),
+    DEPENDENCIES("dependencies", "1007", new MessageFormat("{0}: has an error with dependencies {1}"),
+            DependenciesValidator::new, 3, JsonType.OBJECT),
     EDITS("edits", "1005", new MessageFormat("{0}: has an error with 'edits'")),
-    ENUM("enum", "1008", new MessageFormat("{0}: does not have a value in the enumeration {1}")),
-    FORMAT("format", "1009", new MessageFormat("{0}: does not match the {1} pattern {2}")),
-    ITEMS("items", "1010", new MessageFormat("{0}[{1}]: no validator found at this index")),
-    MAXIMUM("maximum", "1011", new MessageFormat("{0}: must have a maximum value of {1}")),
-    MAX_ITEMS("maxItems", "1012", new MessageFormat("{0}: there must be a maximum of {1} items in the array")),
-    MAX_LENGTH("maxLength", "1013", new MessageFormat("{0}: may only be {1} characters long")),
-    MAX_PROPERTIES("maxProperties", "1014", new MessageFormat("{0}: may only have a maximum of {1} properties")),
-    MINIMUM("minimum", "1015", new MessageFormat("{0}: must have a minimum value of {1}")),
-    MIN_ITEMS("minItems", "1016", new MessageFormat("{0}: there must be a minimum of {1} items in the array")),
-    MIN_LENGTH("minLength", "1017", new MessageFormat("{0}: must be at least {1} characters long")),
-    MIN_PROPERTIES("minProperties", "1018", new MessageFormat("{0}: should have a minimum of {1} properties")),
-    MULTIPLE_OF("multipleOf", "1019", new MessageFormat("{0}: must be multiple of {1}")),
-    NOT_ALLOWED("notAllowed", "1033", new MessageFormat("{0}.{1}: is not allowed but it is in the data")),
-    NOT("not", "1020", new MessageFormat("{0}: should not be valid to the schema {1}")),
-    ONE_OF("oneOf", "1022", new MessageFormat("{0}: should be valid to one and only one of the schemas {1}")),
-    PATTERN_PROPERTIES("patternProperties", "1024", new MessageFormat("{0}: has some error with 'pattern properties'")),
-    PATTERN("pattern", "1023", new MessageFormat("{0}: does not match the regex pattern {1}")),
-    PROPERTIES("properties", "1025", new MessageFormat("{0}: has an error with 'properties'")),
-    READ_ONLY("readOnly", "1032", new MessageFormat("{0}: is a readonly field, it cannot be changed")),
-    REF("ref", "1026", new MessageFormat("{0}: has an error with 'refs'")),
-    REQUIRED("required", "1028", new MessageFormat("{0}.{1}: is missing but it is required")),
-    TYPE("type", "1029", new MessageFormat("{0}: {1} found, {2} expected")),
+    ENUM("enum", "1008", new MessageFormat("{0}: does not have a value in the enumeration {1}"),
+            EnumValidator::new, 1, JsonType.ANY),
+    FORMAT("format", "1009", new MessageFormat("{0}: does not match the {1} pattern {2}"),
+            FormatValidator::new, 3, JsonType.STRING),
+    ITEMS("items", "1010", new MessageFormat("{0}[{1}]: no validator found at this index"),
+            ItemsValidator::new, 6, JsonType.ARRAY),
+    MAXIMUM("maximum", "1011", new MessageFormat("{0}: must have a maximum value of {1}"),
+            MaximumValidator::new, 2, JsonType.NUMBER, JsonType.INTEGER),
+    MAX_ITEMS("maxItems", "1012", new MessageFormat("{0}: there must be a maximum of {1} items in the array"),
+            MaxItemsValidator::new, 2, JsonType.ARRAY),
+    MAX_LENGTH("maxLength", "1013", new MessageFormat("{0}: may only be {1} characters long"),
+            MaxLengthValidator::new, 2, JsonType.STRING),
+    MAX_PROPERTIES("maxProperties", "1014", new MessageFormat("{0}: may only have a maximum of {1} properties"),
+            MaxPropertiesValidator::new, 2, JsonType.OBJECT),
+    MINIMUM("minimum", "1015", new MessageFormat("{0}: must have a minimum value of {1}"),
+            MinimumValidator::new, 2, JsonType.NUMBER, JsonType.INTEGER),
+    MIN_ITEMS("minItems", "1016", new MessageFormat("{0}: there must be a minimum of {1} items in the array"),
+            MinItemsValidator::new, 2, JsonType.ARRAY),
+    MIN_LENGTH("minLength", "1017", new MessageFormat("{0}: must be at least {1} characters long"),
+            MinLengthValidator::new, 2, JsonType.STRING),
+    MIN_PROPERTIES("minProperties", "1018", new MessageFormat("{0}: should have a minimum of {1} properties"),
+            MinPropertiesValidator::new, 2, JsonType.OBJECT),
+    MULTIPLE_OF("multipleOf", "1019", new MessageFormat("{0}: must be multiple of {1}"),
+            MultipleOfValidator::new, 2, JsonType.NUMBER, JsonType.INTEGER),
+    NOT_ALLOWED("notAllowed", "1033", new MessageFormat("{0}.{1}: is not allowed but it is in the data"),
+            NotAllowedValidator::new, 2, JsonType.OBJECT),
+    NOT("not", "1020", new MessageFormat("{0}: should not be valid to the schema {1}"),
+            NotValidator::new, 8, JsonType.ANY),
+    ONE_OF("oneOf", "1022", new MessageFormat("{0}: should be valid to one and only one of the schemas {1}"),
+            OneOfValidator::new, 10, JsonType.ANY),
+    PATTERN_PROPERTIES("patternProperties", "1024", new MessageFormat("{0}: has some error with 'pattern properties'"),
+            PatternPropertiesValidator::new, 7, JsonType.OBJECT),
+    PATTERN("pattern", "1023", new MessageFormat("{0}: does not match the regex pattern {1}"),
+            PatternValidator::new, 3, JsonType.STRING, JsonType.NUMBER, JsonType.INTEGER),
+    PROPERTIES("properties", "1025", new MessageFormat("{0}: has an error with 'properties'"),
+            PropertiesValidator::new, 6, JsonType.OBJECT),
+    READ_ONLY("readOnly", "1032", new MessageFormat("{0}: is a readonly field, it cannot be changed"),
+            ReadOnlyValidator::new, 3, JsonType.OBJECT),
+    REF("ref", "$ref", "1026", new MessageFormat("{0}: has an error with 'refs'"),
+            RefValidator::new, 8, JsonType.ANY),
+    REQUIRED("required", "1028", new MessageFormat("{0}.{1}: is missing but it is required"),
+            RequiredValidator::new, 1, JsonType.OBJECT),
+    TYPE("type", "1029", new MessageFormat("{0}: {1} found, {2} expected"),
+            TypeValidator::new, 0, JsonType.ANY),
     UNION_TYPE("unionType", "1030", new MessageFormat("{0}: {1} found, but {2} is required")),
-    UNIQUE_ITEMS("uniqueItems", "1031", new MessageFormat("{0}: the items in the array must be unique"));
-   
+    UNIQUE_ITEMS("uniqueItems", "1031", new MessageFormat("{0}: the items in the array must be unique"),
+            UniqueItemsValidator::new, 4, JsonType.ARRAY);
+
+    /**
+     * The cost of keywords that are not built in; they run after all built-in keywords.
+     */
+    public static final int CUSTOM_KEYWORD_COST = 11;
+
 	private static Map<String, ValidatorTypeCode> constants = new HashMap<String, ValidatorTypeCode>();
 
     static {
@@ -62,15 +97,33 @@ public enum ValidatorTypeCode {
     }
 
     private final String value;
+    private final String keyword;
     private final String errorCode;
     private final MessageFormat messageFormat;
     private final String errorCodeKey;
+    private final KeywordValidatorFactory validatorFactory;
+    private final int cost;
+    private final Set<JsonType> types;
 
     ValidatorTypeCode(String value, String errorCode, MessageFormat messageFormat) {
+        this(value, value, errorCode, messageFormat, null, CUSTOM_KEYWORD_COST, JsonType.ANY);
+    }
+
+    ValidatorTypeCode(String value, String errorCode, MessageFormat messageFormat,
+                      KeywordValidatorFactory validatorFactory, int cost, JsonType... types) {
+        this(value, value, errorCode, messageFormat, validatorFactory, cost, types);
+    }
+
+    ValidatorTypeCode(String value, String keyword, String errorCode, MessageFormat messageFormat,
+                      KeywordValidatorFactory validatorFactory, int cost, JsonType... types) {
         this.value = value;
+        this.keyword = keyword;
         this.errorCode = errorCode;
         this.messageFormat = messageFormat;
         this.errorCodeKey = value + "ErrorCode";
+        this.validatorFactory = validatorFactory;
+        this.cost = cost;
+        this.types = EnumSet.copyOf(Arrays.asList(types));
     }
 
     public static ValidatorTypeCode fromValue(String value) {
@@ -103,4 +156,38 @@ public enum ValidatorTypeCode {
         return errorCodeKey;
     }
 
+    /**
+     * @return the name of the keyword in a schema document, e.g. "$ref" for REF
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * @return the factory creating the validator for this keyword, or null if the type code
+     * is not a schema keyword on its own (e.g. UNION_TYPE)
+     */
+    public KeywordValidatorFactory getValidatorFactory() {
+        return validatorFactory;
+    }
+
+    /**
+     * A schema runs its keywords from the cheapest to the most expensive, so a node failing a
+     * simple check like type or required is rejected before subschemas are descended into.
+     * Custom keywords run after all built-in ones.
+     *
+     * @return the relative cost, from 0 for type to 10 for oneOf
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @param nodeType the type of the validated node
+     * @return false if the keyword accepts every node of this type, so it can be skipped
+     */
+    public boolean appliesTo(JsonType nodeType) {
+        return types.contains(JsonType.ANY) || types.contains(nodeType) || nodeType == JsonType.UNKNOWN;
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchValidationTest {
+    private final JsonSchema schema = new JsonSchemaFactory().getSchema(
+        "{\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}, \"required\": [\"id\"]}");
+
+    private List<JsonElement> records(int count) {
+        List<JsonElement> records = new ArrayList<JsonElement>();
+        for (int i = 0; i < count; i++) {
+            JsonObject record = new JsonObject();
+            if (i % 3 == 0) {
+                record.addProperty("id", "not a number");
+            } else if (i % 3 == 1) {
+                record.addProperty("id", i);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private void assertSameAsSequential(List<JsonElement> records, List<Set<ValidationMessage>> results) {
+        Assert.assertEquals(records.size(), results.size());
+        for (int i = 0; i < records.size(); i++) {
+            Assert.assertEquals(schema.validate(records.get(i)), results.get(i));
+        }
+    }
+
+    @Test
+    public void testCommonPool() {
+        List<JsonElement> records = records(10000);
+
+        assertSameAsSequential(records, schema.validateAll(records));
+    }
+
+    @Test
+    public void testExecutor() throws Exception {
+        List<JsonElement> records = records(5000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertSameAsSequential(records, schema.validateAll(records, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSmallBatch() {
+        List<JsonElement> records = records(JsonSchema.MIN_CHUNK_SIZE - 1);
+
+        assertSameAsSequential(records, schema.validateAll(records));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testExceptionIsRethrown() {
+        KeywordRegistry.register("objectOnly", new KeywordValidatorFactory() {
+            @Override
+            public JsonValidator newValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
+                return new JsonValidator() {
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement rootNode) {
+                        return validate(rootNode, rootNode, AT_ROOT);
+                    }
+
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+                        node.getAsJsonObject();
+                        return Collections.emptySet();
+                    }
+                };
+            }
+        });
+        JsonSchema objectOnly = new JsonSchemaFactory().getSchema("{\"objectOnly\": true}");
+        List<JsonElement> records = records(1000);
+        records.set(500, new JsonArray());
+
+        // the custom keyword assumes an object
+        objectOnly.validateAll(records);
+    }
+
+}
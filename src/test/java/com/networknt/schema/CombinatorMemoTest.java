@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CombinatorMemoTest {
+    private static final int DEPTH = 10;
+    private static final AtomicInteger evaluations = new AtomicInteger();
+
+    @BeforeClass
+    public static void registerCountingKeyword() {
+        KeywordRegistry.register("counted", new KeywordValidatorFactory() {
+            @Override
+            public JsonValidator newValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
+                return new JsonValidator() {
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement rootNode) {
+                        return validate(rootNode, rootNode, AT_ROOT);
+                    }
+
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+                        evaluations.incrementAndGet();
+                        return Collections.emptySet();
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * Each definition is anyOf: [allOf: [next, string], next], so without the memo an integer
+     * reaches the last definition 2^DEPTH times.
+     */
+    private JsonSchema schema(boolean memoize) {
+        JsonObject definitions = new JsonObject();
+        for (int i = 0; i < DEPTH; i++) {
+            JsonObject ref = new JsonObject();
+            ref.addProperty("$ref", "#/definitions/d" + (i + 1));
+            JsonObject string = new JsonObject();
+            string.addProperty("type", "string");
+            JsonObject allOf = new JsonObject();
+            allOf.add("allOf", array(ref, string));
+            JsonObject definition = new JsonObject();
+            definition.add("anyOf", array(allOf, ref));
+            definitions.add("d" + i, definition);
+        }
+        JsonObject last = new JsonObject();
+        last.addProperty("counted", true);
+        definitions.add("d" + DEPTH, last);
+        JsonObject node = new JsonObject();
+        node.add("definitions", definitions);
+        node.addProperty("$ref", "#/definitions/d0");
+
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setMemoizeCombinators(memoize);
+        return new JsonSchemaFactory(config).getSchema(node);
+    }
+
+    private static JsonArray array(JsonElement... elements) {
+        JsonArray array = new JsonArray();
+        for (JsonElement element : elements) {
+            array.add(element);
+        }
+        return array;
+    }
+
+    private int countIsValid(JsonSchema schema) {
+        evaluations.set(0);
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1)));
+        return evaluations.get();
+    }
+
+    private int countValidate(JsonSchema schema) {
+        evaluations.set(0);
+        Assert.assertTrue(schema.validate(new JsonPrimitive(1)).isEmpty());
+        return evaluations.get();
+    }
+
+    @Test
+    public void testSharedSubschemasAreEvaluatedOnce() {
+        Assert.assertEquals(1 << DEPTH, countIsValid(schema(false)));
+        // once through each branch of the last anyOf
+        Assert.assertEquals(2, countIsValid(schema(true)));
+
+        Assert.assertEquals(1 << DEPTH, countValidate(schema(false)));
+        Assert.assertTrue(countValidate(schema(true)) <= DEPTH * DEPTH);
+    }
+
+    @Test
+    public void testMemoIsPerRun() {
+        JsonSchema schema = schema(true);
+        Assert.assertEquals(2, countIsValid(schema));
+        Assert.assertEquals(2, countIsValid(schema));
+    }
+
+}
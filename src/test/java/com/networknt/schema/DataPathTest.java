@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Set;
+
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataPathTest {
+
+    @Test
+    public void testRender() {
+        Assert.assertEquals("$", DataPath.ROOT.toString());
+        Assert.assertEquals("$.items[2].name", DataPath.ROOT.property("items").index(2).property("name").toString());
+        Assert.assertEquals("$.a.b", DataPath.of("$.a").property("b").toString());
+        Assert.assertEquals(DataPath.of("$.a[0]"), DataPath.ROOT.property("a").index(0));
+    }
+
+    @Test
+    public void testMessagePath() {
+        JsonSchema schema = new JsonSchemaFactory().getSchema("{\"properties\": {\"items\": {\"items\": {"
+            + "\"properties\": {\"name\": {\"type\": \"string\"}}}}}}");
+
+        Set<ValidationMessage> errors = schema.validate(new JsonParser().parse(
+            "{\"items\": [{\"name\": \"a\"}, {\"name\": \"b\"}, {\"name\": 3}]}"));
+
+        Assert.assertEquals(1, errors.size());
+        Assert.assertEquals("$.items[2].name", errors.iterator().next().getPath());
+    }
+
+}
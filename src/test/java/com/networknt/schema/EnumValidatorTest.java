@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.math.BigInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnumValidatorTest {
+
+    private JsonSchema schema(String json) {
+        return new JsonSchemaFactory().getSchema(json);
+    }
+
+    private boolean isValid(JsonSchema schema, String data) {
+        return schema.isValid(new JsonParser().parse(data));
+    }
+
+    @Test
+    public void testLargeStringEnum() {
+        JsonArray codes = new JsonArray();
+        for (int i = 0; i < 5000; i++) {
+            codes.add("C" + i);
+        }
+        JsonObject node = new JsonObject();
+        node.add("enum", codes);
+        JsonSchema schema = new JsonSchemaFactory().getSchema(node);
+
+        Assert.assertTrue(isValid(schema, "\"C4999\""));
+        Assert.assertFalse(isValid(schema, "\"C5000\""));
+        Assert.assertFalse(isValid(schema, "4999"));
+    }
+
+    @Test
+    public void testNumbersCompareByValue() {
+        JsonSchema schema = schema("{\"enum\": [1, 2.5, 12345678901234567890]}");
+
+        Assert.assertTrue(isValid(schema, "1.0"));
+        Assert.assertTrue(isValid(schema, "2.50"));
+        Assert.assertTrue(isValid(schema, "1.2345678901234567890e19"));
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1)));
+        Assert.assertFalse(isValid(schema, "\"1\""));
+        Assert.assertFalse(isValid(schema, "true"));
+    }
+
+    @Test
+    public void testLargeIntegersWhateverTheirType() {
+        JsonSchema schema = schema("{\"enum\": [1234567890123456789, 9223372036854775807]}");
+
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1234567890123456789L)));
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(new BigInteger("1234567890123456789"))));
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(Long.MAX_VALUE)));
+        Assert.assertFalse(schema.isValid(new JsonPrimitive(1234567890123456788L)));
+        Assert.assertFalse(isValid(schema, "9223372036854775808"));
+    }
+
+    @Test(timeout = 10000)
+    public void testHugeExponentIsRejectedQuickly() {
+        JsonSchema schema = schema("{\"enum\": [1, 2, \"x\", 1e10000000]}");
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertFalse(isValid(schema, "1e10000001"));
+            Assert.assertTrue(isValid(schema, "10e9999999"));
+        }
+    }
+
+    @Test
+    public void testContainersCompareStructurally() {
+        JsonSchema schema = schema("{\"enum\": [{\"a\": 1, \"b\": [1, {\"c\": null}]}, [], false, null]}");
+
+        Assert.assertTrue(isValid(schema, "{\"b\": [1.0, {\"c\": null}], \"a\": 1}"));
+        Assert.assertFalse(isValid(schema, "{\"b\": [{\"c\": null}, 1], \"a\": 1}"));
+        Assert.assertFalse(isValid(schema, "{\"a\": 1}"));
+        Assert.assertTrue(isValid(schema, "[]"));
+        Assert.assertTrue(isValid(schema, "false"));
+        Assert.assertTrue(isValid(schema, "null"));
+        Assert.assertFalse(isValid(schema, "true"));
+        Assert.assertFalse(isValid(schema, "{}"));
+    }
+
+}
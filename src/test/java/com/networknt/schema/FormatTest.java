@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Set;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FormatTest {
+
+    /**
+     * Found by the ServiceLoader through META-INF/services/com.networknt.schema.Format.
+     */
+    public static class EvenFormat implements Format {
+        @Override
+        public String getName() {
+            return "even";
+        }
+
+        @Override
+        public boolean matches(String value) {
+            return !value.isEmpty() && "02468".indexOf(value.charAt(value.length() - 1)) >= 0;
+        }
+    }
+
+    private boolean matches(String format, String value) {
+        return FormatRegistry.get(format).matches(value);
+    }
+
+    @Test
+    public void testImpossibleDatesAreRejected() {
+        Assert.assertTrue(matches("date", "2017-01-31"));
+        Assert.assertTrue(matches("date", "2016-02-29"));
+        Assert.assertTrue(matches("date", "2000-02-29"));
+        Assert.assertFalse(matches("date", "2017-02-29"));
+        Assert.assertFalse(matches("date", "1900-02-29"));
+        Assert.assertFalse(matches("date", "2017-04-31"));
+        Assert.assertFalse(matches("date", "2017-00-10"));
+        Assert.assertFalse(matches("date", "2017-13-10"));
+        Assert.assertFalse(matches("date", "2017-1-10"));
+        Assert.assertFalse(matches("time", "24:00:00"));
+        Assert.assertTrue(matches("time", "23:59:60"));
+        Assert.assertFalse(matches("time", "12:60:00"));
+    }
+
+    @Test
+    public void testDateTime() {
+        Assert.assertTrue(matches("date-time", "1963-06-19T08:30:06.283185Z"));
+        Assert.assertTrue(matches("date-time", "1963-06-19t08:30:06z"));
+        Assert.assertTrue(matches("date-time", "1963-06-19 08:30:06+01:00"));
+        Assert.assertFalse(matches("date-time", "1963-06-19T08:30:06.Z"));
+        Assert.assertFalse(matches("date-time", "1963-06-19T08:30:06"));
+        Assert.assertFalse(matches("date-time", "1963-06-19T08:30:06+1:00"));
+        Assert.assertFalse(matches("date-time", "1963-02-30T08:30:06Z"));
+        Assert.assertFalse(matches("date-time", "06/19/1963 08:30:06 PST"));
+    }
+
+    @Test
+    public void testIpAddresses() {
+        Assert.assertTrue(matches("ipv4", "192.168.0.1"));
+        Assert.assertTrue(matches("ipv4", "010.0.0.255"));
+        Assert.assertFalse(matches("ipv4", "256.0.0.1"));
+        Assert.assertFalse(matches("ipv4", "1.2.3"));
+        Assert.assertFalse(matches("ipv4", "1.2.3.4."));
+
+        Assert.assertTrue(matches("ipv6", "::"));
+        Assert.assertTrue(matches("ipv6", "::1"));
+        Assert.assertTrue(matches("ipv6", "1::"));
+        Assert.assertTrue(matches("ipv6", "fe80::1%eth0"));
+        Assert.assertTrue(matches("ipv6", "2001:db8:0:0:0:0:2:1"));
+        Assert.assertTrue(matches("ipv6", "::ffff:192.168.0.1"));
+        Assert.assertTrue(matches("ipv6", "1:2:3:4:5:6:1.2.3.4"));
+        Assert.assertFalse(matches("ipv6", "1:2:3:4:5:6:7"));
+        Assert.assertFalse(matches("ipv6", "1:2:3:4:5:6:7:8:9"));
+        Assert.assertFalse(matches("ipv6", "1::2::3"));
+        Assert.assertFalse(matches("ipv6", "12345::"));
+        Assert.assertFalse(matches("ipv6", "1:2:3:4:5:6:7:"));
+        Assert.assertFalse(matches("ipv6", "::ffff:192.168.0.01"));
+        Assert.assertFalse(matches("ipv6", "::1.2.3.4:1"));
+        Assert.assertFalse(matches("ipv6", "::1%"));
+    }
+
+    @Test
+    public void testColor() {
+        Assert.assertTrue(matches("color", "#fff"));
+        Assert.assertTrue(matches("color", "00ff00"));
+        Assert.assertTrue(matches("color", "teal"));
+        Assert.assertTrue(matches("color", "rgb(255, 0, 10)"));
+        Assert.assertTrue(matches("color", "rgb( 100%,0%,5% )"));
+        Assert.assertFalse(matches("color", "#ffff"));
+        Assert.assertFalse(matches("color", "#ggg"));
+        Assert.assertFalse(matches("color", "rgb(256, 0, 0)"));
+        Assert.assertFalse(matches("color", "rgb(010, 0, 0)"));
+        Assert.assertFalse(matches("color", "rgb(10%, 0, 0)"));
+        Assert.assertFalse(matches("color", "rgb(101%, 0%, 0%)"));
+        Assert.assertFalse(matches("color", "pink"));
+    }
+
+    @Test
+    public void testHostnameAndUri() {
+        Assert.assertTrue(matches("hostname", "www.example.com"));
+        Assert.assertTrue(matches("hostname", "a-1.b"));
+        Assert.assertFalse(matches("hostname", "-a.com"));
+        Assert.assertFalse(matches("hostname", "a..com"));
+        Assert.assertFalse(matches("hostname", "a_b.com"));
+        Assert.assertFalse(matches("hostname", new String(new char[64]).replace('\0', 'a')));
+        Assert.assertFalse(matches("hostname", new String(new char[127]).replace("\0", "a.") + "a"));
+
+        Assert.assertTrue(matches("uri", "http://example.com/a?b=c"));
+        Assert.assertTrue(matches("uri", "urn:isbn:0451450523"));
+        Assert.assertTrue(matches("uri", "//example.com"));
+        Assert.assertFalse(matches("uri", "a,b:c"));
+        Assert.assertFalse(matches("uri", "http://a b"));
+        Assert.assertFalse(matches("uri", "/relative"));
+    }
+
+    @Test
+    public void testOtherFormats() {
+        Assert.assertTrue(matches("email", "joe@example.com"));
+        Assert.assertFalse(matches("email", "@example.com"));
+        Assert.assertFalse(matches("email", "joe@"));
+        Assert.assertFalse(matches("email", "jo e@example.com"));
+
+        Assert.assertTrue(matches("phone", "+1 555 1234567"));
+        Assert.assertFalse(matches("phone", "+1  5551234567"));
+        Assert.assertFalse(matches("phone", "+123456"));
+        Assert.assertFalse(matches("phone", "+1234567 "));
+
+        Assert.assertTrue(matches("utc-millisec", "1500000000.5"));
+        Assert.assertFalse(matches("utc-millisec", "1500000000."));
+        Assert.assertTrue(matches("alphanumeric", "abc123"));
+        Assert.assertFalse(matches("alpha", "abc123"));
+
+        Assert.assertTrue(matches("style", "color: red;"));
+        Assert.assertTrue(matches("style", "  \n font: 12px a:b"));
+        Assert.assertFalse(matches("style", "color: red; bold"));
+        Assert.assertFalse(matches("style", "x\ncolor: red"));
+        Assert.assertFalse(matches("style", "color:"));
+    }
+
+    @Test
+    public void testCustomFormats() {
+        Assert.assertNotNull(FormatRegistry.get("even"));
+
+        FormatRegistry.register(new Format() {
+            @Override
+            public String getName() {
+                return "upper";
+            }
+
+            @Override
+            public boolean matches(String value) {
+                return value.equals(value.toUpperCase());
+            }
+
+            @Override
+            public String getDescription() {
+                return "upper case";
+            }
+        });
+        JsonSchema schema = new JsonSchemaFactory().getSchema("{\"format\": \"upper\"}");
+
+        Assert.assertTrue(schema.isValid(new JsonPrimitive("ABC")));
+        Set<ValidationMessage> errors = schema.validate(new JsonPrimitive("abc"));
+        Assert.assertEquals(1, errors.size());
+        Assert.assertTrue(errors.iterator().next().getMessage().contains("upper case"));
+        Assert.assertTrue(new JsonSchemaFactory().getSchema("{\"format\": \"even\"}").isValid(new JsonPrimitive("12")));
+    }
+
+}
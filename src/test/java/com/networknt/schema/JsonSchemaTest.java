@@ -19,14 +19,18 @@ package com.networknt.schema;
 
 import java.io.File;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import io.undertow.Undertow;
 import io.undertow.server.handlers.resource.FileResourceManager;
 import org.apache.commons.lang3.StringUtils;
@@ -67,15 +71,56 @@ public class JsonSchemaTest {
         }
     }
 
+    private JsonSchemaFactory failFastFactory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setFailFast(true);
+        return new JsonSchemaFactory(config);
+    }
+
+    private JsonSchemaFactory lazyRefsFactory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setLazyRefs(true);
+        return new JsonSchemaFactory(config);
+    }
+
+    private JsonSchemaFactory linearRegexFactory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setRegexEngine(new LinearRegexEngine());
+        return new JsonSchemaFactory(config);
+    }
+
+    /**
+     * One factory for all cases of a suite file, so subschemas are shared between their schemas.
+     */
+    private final JsonSchemaFactory shareSubschemasFactory = shareSubschemasFactory();
+
+    private static JsonSchemaFactory shareSubschemasFactory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setShareSubschemas(true);
+        return new JsonSchemaFactory(config);
+    }
+
+    private JsonSchemaFactory memoizeCombinatorsFactory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setMemoizeCombinators(true);
+        return new JsonSchemaFactory(config);
+    }
+
     private void runTestFile(String testCaseFile) throws Exception {
         InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(testCaseFile);
 
         JsonArray testCases = BaseJsonSchemaValidatorTest.getJsonElementFromStream(in).getAsJsonArray();
+        List<CompiledSchema> compiledSchemas = generateAll(testCases);
 
         for (int j = 0; j < testCases.size(); j++) {
             try {
                 JsonObject testCase = testCases.get(j).getAsJsonObject();
                 JsonSchema schema = new JsonSchema(testCase.get("schema"));
+                JsonSchema failFastSchema = failFastFactory().getSchema(testCase.get("schema"));
+                JsonSchema lazyRefsSchema = lazyRefsFactory().getSchema(testCase.get("schema"));
+                JsonSchema linearRegexSchema = linearRegexFactory().getSchema(testCase.get("schema"));
+                JsonSchema memoSchema = memoizeCombinatorsFactory().getSchema(testCase.get("schema"));
+                JsonSchema sharedSchema = shareSubschemasFactory.getSchema(testCase.get("schema"));
                 JsonArray testNodes = testCase.get("tests").getAsJsonArray();
                 for (int i = 0; i < testNodes.size(); i++) {
                     JsonObject test = testNodes.get(i).getAsJsonObject();
@@ -83,6 +128,22 @@ public class JsonSchemaTest {
                     List<ValidationMessage> errors = new ArrayList<ValidationMessage>();
 
                     errors.addAll(schema.validate(node));
+                    Assert.assertEquals("isValid disagrees with validate for " + test.get("description"),
+                        errors.isEmpty(), schema.isValid(node));
+                    Set<ValidationMessage> failFastErrors = failFastSchema.validate(node);
+                    Assert.assertTrue(failFastErrors.size() <= 1);
+                    Assert.assertEquals(errors.isEmpty(), failFastErrors.isEmpty());
+                    Assert.assertEquals(new HashSet<ValidationMessage>(errors), lazyRefsSchema.validate(node));
+                    Assert.assertEquals(new HashSet<ValidationMessage>(errors), linearRegexSchema.validate(node));
+                    Assert.assertEquals(new HashSet<ValidationMessage>(errors), memoSchema.validate(node));
+                    Assert.assertEquals(errors.isEmpty(), memoSchema.isValid(node));
+                    Assert.assertEquals(new HashSet<ValidationMessage>(errors), sharedSchema.validate(node));
+                    Assert.assertEquals(new HashSet<ValidationMessage>(errors), new StreamingValidator(schema)
+                        .validate(new JsonReader(new StringReader(node.toString()))));
+                    if (compiledSchemas.get(j) != null) {
+                        Assert.assertEquals("generated code disagrees with validate for " + test.get("description"),
+                            errors.isEmpty(), compiledSchemas.get(j).isValid(node));
+                    }
 
                     if (test.get("valid").getAsJsonPrimitive().getAsBoolean()) {
                         if (!errors.isEmpty()) {
@@ -106,6 +167,33 @@ public class JsonSchemaTest {
         }
     }
 
+    /**
+     * Generate the code for all schemas of a suite file with one compiler run.
+     *
+     * @return the compiled schema of each test case, null where the schema is invalid
+     */
+    private static List<CompiledSchema> generateAll(JsonArray testCases) {
+        List<JsonSchema> schemas = new ArrayList<JsonSchema>();
+        List<Integer> indexes = new ArrayList<Integer>();
+        for (int j = 0; j < testCases.size(); j++) {
+            try {
+                schemas.add(new JsonSchema(testCases.get(j).getAsJsonObject().get("schema")));
+                indexes.add(j);
+            } catch (JsonSchemaException e) {
+                // skipped by runTestFile as well
+            }
+        }
+        List<CompiledSchema> generated = SchemaCodeGenerator.generate(schemas);
+        List<CompiledSchema> compiledSchemas = new ArrayList<CompiledSchema>();
+        for (int j = 0; j < testCases.size(); j++) {
+            compiledSchemas.add(null);
+        }
+        for (int i = 0; i < indexes.size(); i++) {
+            compiledSchemas.set(indexes.get(i), generated.get(i));
+        }
+        return compiledSchemas;
+    }
+
     @Test(/*expected = java.lang.StackOverflowError.class*/)
     public void testLoadingWithId() throws Exception {
         URL url = new URL("http://localhost:1234/self_ref/selfRef.json");
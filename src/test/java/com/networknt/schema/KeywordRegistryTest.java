@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeywordRegistryTest extends BaseJsonSchemaValidatorTest {
+
+    @Test
+    public void testBuiltInKeywords() {
+        for (ValidatorTypeCode code : ValidatorTypeCode.values()) {
+            if (code.getValidatorFactory() != null) {
+                Assert.assertSame(code.getValidatorFactory(), KeywordRegistry.get(code.getKeyword()));
+            }
+        }
+        Assert.assertNotNull(KeywordRegistry.get("$ref"));
+        Assert.assertNull(KeywordRegistry.get("ref"));
+        Assert.assertNull(KeywordRegistry.get("description"));
+    }
+
+    @Test
+    public void testCustomKeyword() throws Exception {
+        KeywordRegistry.register("evenLength", new KeywordValidatorFactory() {
+            @Override
+            public JsonValidator newValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
+                return new EvenLengthValidator();
+            }
+        });
+
+        JsonSchema schema = getJsonSchemaFromStringContent(
+            "{\"type\": \"string\", \"title\": \"even\", \"evenLength\": true}");
+        Assert.assertTrue(schema.validate(getJsonElementFromStringContent("\"ab\"")).isEmpty());
+        Set<ValidationMessage> errors = schema.validate(getJsonElementFromStringContent("\"abc\""));
+        Assert.assertEquals(1, errors.size());
+        Assert.assertEquals("$: odd length", errors.iterator().next().getMessage());
+    }
+
+    private static class EvenLengthValidator implements JsonValidator {
+        @Override
+        public Set<ValidationMessage> validate(JsonElement rootNode) {
+            return validate(rootNode, rootNode, AT_ROOT);
+        }
+
+        @Override
+        public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+            if (node.getAsString().length() % 2 == 0) {
+                return Collections.emptySet();
+            }
+            ValidationMessage message = new ValidationMessage();
+            message.setMessage(at + ": odd length");
+            return Collections.singleton(message);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.regex.PatternSyntaxException;
+
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LinearRegexEngineTest {
+    private static final String[] PATTERNS = {
+        "^a*$", "abc", "^abc$", "a|b|", "^(ab|a)(c|bcd)$", "x{2,3}", "^x{2}$", "^x{2,}$", "^[a-c-]+$",
+        "[^0-9]", "^\\d+(\\.\\d+)?$", "\\bfoo\\b", "\\Bo", "^\\w+@\\w+\\.com$", "^\\s*$", "^.+$",
+        "a.c", "^(?:a|b)*?c$", "^[\\]\\\\]$", "\\.", "^[\\d-]+$", "(a*)*b", "^$", "[^]x"
+    };
+    private static final String[] INPUTS = {
+        "", "a", "aa", "abc", "xabcx", "abcd", "b", "abbcd", "xx", "xxx", "xxxx", "a-c", "12", "1.5", "1.",
+        "foo", "a foo b", "food", "moo", "john@example.com", "   ", "\t", "a\nc", "abababc", "]", "\\",
+        "a{,2}", "12-3", "aaab", " "
+    };
+
+    private final RegexEngine engine = new LinearRegexEngine();
+    private final RegexEngine jdk = new JdkRegexEngine();
+
+    @Test
+    public void testSameResultsAsJdk() {
+        for (String pattern : PATTERNS) {
+            if (pattern.equals("[^]x")) {
+                // an empty negated class matches any character in ECMA 262, Java rejects it
+                continue;
+            }
+            Regex linear = engine.compile(pattern);
+            Regex expected = jdk.compile(pattern);
+            for (String input : INPUTS) {
+                if (input.equals(" ") && pattern.contains("\\s")) {
+                    // \s includes the no-break space in ECMA 262 only
+                    continue;
+                }
+                Assert.assertEquals(pattern + " find " + input, expected.find(input), linear.find(input));
+                Assert.assertEquals(pattern + " matches " + input, expected.matches(input), linear.matches(input));
+            }
+        }
+    }
+
+    @Test
+    public void testEcmaSemantics() {
+        Assert.assertTrue(engine.compile("^\\s$").matches(" "));
+        Assert.assertTrue(engine.compile("[^]x").find("\nx"));
+        Assert.assertFalse(engine.compile("[]").find("a"));
+        Assert.assertFalse(engine.compile("a$").find("a\n"));
+        Assert.assertTrue(engine.compile("^a{,2}$").matches("a{,2}"));
+        Assert.assertTrue(engine.compile("^\\u0041\\x42\\cJ$").matches("AB\n"));
+    }
+
+    // a backtracking engine would not finish on these, the timeout only keeps the build from hanging
+    @Test(timeout = 60000)
+    public void testLinearTime() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            input.append('a');
+        }
+        input.append('!');
+        Assert.assertFalse(engine.compile("^(a+)+$").find(input.toString()));
+        Assert.assertFalse(engine.compile("^(a|aa|a?)*$").find(input.toString()));
+        input.setLength(input.length() - 1);
+        Assert.assertTrue(engine.compile("^(a+)+$").find(input.toString()));
+    }
+
+    @Test
+    public void testUnsupportedSyntax() {
+        String[] unsupported = {"(a)\\1", "(?=a)", "(?!a)", "(?<=a)", "(?<name>a)", "\\p{L}", "a*+", "a**",
+            "*a", "(a", "a)", "[a", "[z-a]", "a{3,2}", "\\", "^*", "a{1000000000}"};
+        for (String pattern : unsupported) {
+            try {
+                engine.compile(pattern);
+                Assert.fail(pattern);
+            } catch (JsonSchemaException e) {
+                Assert.assertTrue(pattern, e.getCause() instanceof PatternSyntaxException);
+            }
+        }
+    }
+
+    @Test
+    public void testPatternKeywordUsesConfiguredEngine() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setRegexEngine(engine);
+        JsonSchema schema = new JsonSchemaFactory(config).getSchema(
+            "{\"pattern\": \"^(a+)+$\", \"patternProperties\": {\"^(x+)+$\": {\"type\": \"integer\"}}}");
+
+        Assert.assertFalse(schema.isValid(new JsonParser().parse("\"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!\"")));
+        Assert.assertFalse(schema.isValid(new JsonParser().parse(
+            "{\"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\": \"1\"}")));
+        Assert.assertTrue(schema.isValid(new JsonParser().parse("{\"xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx!\": \"1\"}")));
+    }
+
+    @Test
+    public void testUnsupportedPatternFailsSchema() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setRegexEngine(engine);
+        JsonSchemaFactory factory = new JsonSchemaFactory(config);
+        String[] schemas = {
+            "{\"properties\": {\"p\": {\"pattern\": \"^(?=.*[0-9]).{8,}$\"}}}",
+            "{\"patternProperties\": {\"^x(?!y)\": {}}, \"additionalProperties\": false}",
+            "{\"additionalProperties\": false, \"patternProperties\": {\"(a)\\\\1\": {}}}"
+        };
+        for (String schema : schemas) {
+            try {
+                factory.getSchema(schema);
+                Assert.fail(schema);
+            } catch (JsonSchemaException e) {
+                Throwable cause = e;
+                while (cause != null && !(cause instanceof PatternSyntaxException)) {
+                    cause = cause.getCause();
+                }
+                Assert.assertNotNull(schema, cause);
+            }
+        }
+    }
+
+}
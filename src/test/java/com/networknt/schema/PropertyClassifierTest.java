@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PropertyClassifierTest {
+    private static final String[] PATTERNS = {"^x-", "id$", "^name$", "tag", "^a\\.b", "^[0-9]+$", "v\\d", "", "^(s|t)_"};
+    private static final String[] NAMES = {"x-foo", "foo-x-", "id", "uuid", "ids", "name", "names", "tags", "a.b",
+        "axb", "123", "12a", "v1", "v", "s_1", "t_", "u_", "#ref", ""};
+
+    private JsonElement schemaNode() {
+        JsonObject patternProperties = new JsonObject();
+        for (String pattern : PATTERNS) {
+            patternProperties.add(pattern, new JsonObject());
+        }
+        JsonObject properties = new JsonObject();
+        properties.add("declared", new JsonObject());
+        JsonObject schema = new JsonObject();
+        schema.add("properties", properties);
+        schema.add("patternProperties", patternProperties);
+        return schema;
+    }
+
+    private int[] expected(String name) {
+        List<Integer> matching = new ArrayList<Integer>();
+        for (int i = 0; i < PATTERNS.length; i++) {
+            if (Pattern.compile(PATTERNS[i]).matcher(name).find()) {
+                matching.add(i);
+            }
+        }
+        int[] result = new int[matching.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matching.get(i);
+        }
+        return result;
+    }
+
+    @Test
+    public void testSameMatchesAsPatterns() {
+        for (RegexEngine engine : new RegexEngine[]{new JdkRegexEngine(), new LinearRegexEngine()}) {
+            PropertyClassifier classifier = new PropertyClassifier(schemaNode(), engine);
+            for (int round = 0; round < 2; round++) {
+                // the second round reads the cache
+                for (String name : NAMES) {
+                    Assert.assertArrayEquals(name, expected(name), classifier.getMatchingPatterns(name));
+                }
+            }
+            Assert.assertTrue(classifier.isDeclared("declared"));
+            Assert.assertFalse(classifier.isAdditional("declared"));
+            Assert.assertFalse(classifier.isDeclared("id"));
+        }
+    }
+
+    @Test
+    public void testAdditionalProperties() {
+        PropertyClassifier classifier = new PropertyClassifier(new JsonParser().parse(
+            "{\"properties\": {\"a\": {}}, \"patternProperties\": {\"^b\": {}}}"), new JdkRegexEngine());
+
+        Assert.assertFalse(classifier.isAdditional("a"));
+        Assert.assertFalse(classifier.isAdditional("bc"));
+        Assert.assertTrue(classifier.isAdditional("cb"));
+        Assert.assertEquals(0, new PropertyClassifier(new JsonParser().parse("{}"), new JdkRegexEngine())
+            .getMatchingPatterns("a").length);
+    }
+
+    @Test
+    public void testRegexSet() {
+        List<String> patterns = Arrays.asList("^a", "b+c", "^(x|y)$", "\\d");
+        for (RegexEngine engine : new RegexEngine[]{new JdkRegexEngine(), new LinearRegexEngine()}) {
+            RegexSet set = engine.compileSet(patterns);
+            Assert.assertEquals(4, set.size());
+            Assert.assertArrayEquals(new int[]{0, 1, 3}, set.findAll("abbc1"));
+            Assert.assertArrayEquals(new int[]{2}, set.findAll("x"));
+            Assert.assertArrayEquals(new int[0], set.findAll("xy"));
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RefValidatorTest extends BaseJsonSchemaValidatorTest {
+    private static final String PREFIX = "http://schemas.invalid/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JsonSchemaFactory getFactory(boolean lazyRefs) {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setLazyRefs(lazyRefs);
+        return new JsonSchemaFactory(config, new URIMappingFetcher().mapDirectory(PREFIX, folder.getRoot()));
+    }
+
+    private void writeSchema(String name, String schema) throws IOException {
+        Files.write(new File(folder.getRoot(), name).toPath(), schema.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JsonSchema getSchema(String schema) {
+        return new JsonSchemaFactory().getSchema(new JsonParser().parse(schema));
+    }
+
+    @Test
+    public void testRefsToSameDefinitionShareOneSchema() {
+        JsonSchema schema = getSchema("{\"$ref\": \"#/definitions/x\","
+            + "\"properties\": {\"a\": {\"$ref\": \"#/definitions/x\"}},"
+            + "\"definitions\": {\"x\": {\"type\": \"object\"}}}");
+        RefValidator ref = (RefValidator) schema.validators.get("#/$ref");
+        RefValidator other = new RefValidator("#/properties/a/$ref", new JsonPrimitive("#/definitions/x"), schema);
+
+        Assert.assertNotNull(ref.getSchema());
+        Assert.assertSame(ref.getSchema(), other.getSchema());
+        Assert.assertSame(ref.getSchema(), schema.getRefSchema("#/definitions/x"));
+    }
+
+    @Test
+    public void testRecursiveDefinition() throws Exception {
+        JsonElement tree = new JsonParser().parse("{\"name\": \"root\", \"tree\": {\"value\": \"a\","
+            + "\"branches\": [{\"value\": \"b\"}, {\"value\": \"c\", \"branches\": [{\"value\": 1}]}]}}");
+
+        for (boolean lazyRefs : new boolean[]{false, true}) {
+            JsonSchema schema = getFactory(lazyRefs).getSchema(getJsonElementFromClasspath("selfref.json"));
+
+            Assert.assertEquals(1, schema.validate(tree).size());
+        }
+    }
+
+    @Test
+    public void testDocumentsReferencingEachOther() throws Exception {
+        writeSchema("a.json", "{\"type\": \"object\", \"properties\": {\"b\": {\"$ref\": \"" + PREFIX + "b.json\"}}}");
+        writeSchema("b.json", "{\"type\": \"object\", \"properties\": {\"a\": {\"$ref\": \"" + PREFIX + "a.json\"}}}");
+        JsonElement valid = new JsonParser().parse("{\"b\": {\"a\": {\"b\": {}}}}");
+        JsonElement invalid = new JsonParser().parse("{\"b\": {\"a\": {\"b\": 1}}}");
+
+        for (boolean lazyRefs : new boolean[]{false, true}) {
+            JsonSchema schema = getFactory(lazyRefs).getSchema(URI.create(PREFIX + "a.json"));
+
+            Assert.assertTrue(schema.isValid(valid));
+            Assert.assertFalse(schema.isValid(invalid));
+        }
+    }
+
+    @Test
+    public void testLazyRefIsCompiledOnFirstUse() throws Exception {
+        JsonSchema schema = getFactory(true).getSchema(new JsonParser().parse(
+            "{\"$ref\": \"" + PREFIX + "missing.json\"}"));
+        try {
+            schema.validate(new JsonPrimitive(1));
+            Assert.fail("the missing schema should be loaded on first use");
+        } catch (JsonSchemaException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnresolvedPointer() {
+        JsonSchema schema = getSchema("{\"definitions\": {\"x\": {\"type\": \"integer\"}}}");
+
+        Assert.assertNull(schema.getRefSchema("#/definitions/y"));
+        Assert.assertNull(schema.getRefSchema("#/definitions/x/type/0"));
+    }
+
+}
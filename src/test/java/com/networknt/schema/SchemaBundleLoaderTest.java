@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaBundleLoaderTest {
+    private static final String PREFIX = "http://example.com/schemas/";
+    private static final URI ORDER = URI.create(PREFIX + "order.json");
+    private static final URI CUSTOMER = URI.create(PREFIX + "customer.json");
+    private static final URI MONEY = URI.create(PREFIX + "common/money.json");
+    private static final String VALID_ORDER = "{\"customer\": {\"name\": \"Ann\"},"
+        + " \"total\": {\"amount\": 5, \"currency\": \"EUR\"}}";
+    private static final String INVALID_ORDER = "{\"customer\": {\"name\": \"Ann\", \"lastOrder\": {\"customer\": {}}},"
+        + " \"total\": {\"amount\": 5, \"currency\": \"EUR\"}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JsonSchemaFactory factory() {
+        // nothing is fetched, the bundle provides every document
+        return new JsonSchemaFactory(new SchemaValidatorsConfig(), new URIMappingFetcher());
+    }
+
+    private File newFile(File directory, String path) {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        return file;
+    }
+
+    @Test
+    public void testClasspathBundle() {
+        JsonSchemaFactory factory = factory();
+        SchemaBundle bundle = new SchemaBundleLoader(factory).addClasspath(PREFIX, "bundle").load();
+
+        Assert.assertEquals(Arrays.asList(MONEY, CUSTOMER, ORDER), new ArrayList<URI>(bundle.getSchemas().keySet()));
+        Assert.assertEquals(new TreeSet<URI>(Arrays.asList(CUSTOMER, MONEY)),
+            new TreeSet<URI>(bundle.getDependencies(ORDER)));
+        Assert.assertEquals(Collections.singleton(ORDER), bundle.getDependencies(CUSTOMER));
+        Assert.assertSame(factory.getSchema(ORDER), bundle.getSchema(ORDER));
+        Assert.assertTrue(bundle.getSchema(ORDER).isValid(new JsonParser().parse(VALID_ORDER)));
+        Assert.assertFalse(bundle.getSchema(ORDER).isValid(new JsonParser().parse(INVALID_ORDER)));
+        Assert.assertTrue(bundle.getCompileNanos(MONEY) >= 0);
+        Assert.assertTrue(bundle.getReport(), bundle.getReport().contains("common/money.json  (0 dependencies)"));
+    }
+
+    @Test
+    public void testDirectoryBundleGivesTheSameResultsAsGetSchema() throws IOException {
+        File directory = folder.newFolder("schemas");
+        for (String path : new String[] {"order.json", "customer.json", "common/money.json"}) {
+            Files.copy(new File("src/test/resources/bundle/" + path).toPath(), newFile(directory, path).toPath());
+        }
+        SchemaBundle bundle = new SchemaBundleLoader(factory()).addDirectory(PREFIX, directory)
+            .load(new ForkJoinPool(4));
+        JsonSchemaFactory serial = new JsonSchemaFactory(new SchemaValidatorsConfig(),
+            new URIMappingFetcher().mapDirectory(PREFIX, directory));
+
+        for (String data : new String[] {VALID_ORDER, INVALID_ORDER, "{\"total\": {\"amount\": -1}}"}) {
+            Assert.assertEquals(serial.getSchema(ORDER).validate(new JsonParser().parse(data)),
+                bundle.getSchema(ORDER).validate(new JsonParser().parse(data)));
+        }
+    }
+
+    @Test
+    public void testLargePropertiesAreCompiledInParallel() {
+        JsonObject properties = new JsonObject();
+        JsonObject data = new JsonObject();
+        for (int i = 0; i < 5 * JsonSchema.PARALLEL_SIBLINGS; i++) {
+            properties.add("field" + i, new JsonParser().parse("{\"type\": \"string\", \"maxLength\": " + i + "}"));
+            data.addProperty("field" + i, "x");
+        }
+        JsonObject schema = new JsonObject();
+        schema.add("properties", properties);
+        SchemaBundle bundle = new SchemaBundleLoader(factory())
+            .add(URI.create(PREFIX + "wide.json"), schema.toString())
+            .load(new ForkJoinPool(4));
+
+        Set<ValidationMessage> errors = bundle.getSchema(URI.create(PREFIX + "wide.json")).validate(data);
+        Assert.assertEquals(new JsonSchemaFactory().getSchema(schema).validate(data), errors);
+        Assert.assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void testFirstFailureIsThrown() {
+        SchemaBundleLoader loader = new SchemaBundleLoader(factory())
+            .add(URI.create(PREFIX + "b.json"), "{\"type\": ")
+            .add(URI.create(PREFIX + "a.json"), "{\"$ref\": \"http://example.com/missing.json\"}")
+            .add(URI.create(PREFIX + "c.json"), "{\"type\": \"string\"}");
+        try {
+            loader.load();
+            Assert.fail();
+        } catch (JsonSchemaException e) {
+            // b.json cannot be parsed, so nothing is compiled
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("EOF"));
+        }
+    }
+
+    @Test
+    public void testDependenciesComeFirst() {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<String, Set<String>>();
+        dependencies.put("a", new TreeSet<String>(Arrays.asList("b", "x")));
+        dependencies.put("b", new TreeSet<String>(Arrays.asList("c")));
+        dependencies.put("c", new TreeSet<String>(Arrays.asList("b", "d")));
+        dependencies.put("d", Collections.<String>emptySet());
+
+        List<List<String>> components = new DependencyGraph(dependencies).components();
+
+        Assert.assertEquals(Arrays.asList(Arrays.asList("d"), Arrays.asList("b", "c"), Arrays.asList("a")),
+            components);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private URL schemaFile() throws IOException {
+        File file = folder.newFile("person.json");
+        Files.write(file.toPath(), "{\"type\": \"object\", \"required\": [\"name\"]}".getBytes(StandardCharsets.UTF_8));
+        return file.toURI().toURL();
+    }
+
+    @Test
+    public void testSchemaLoadedFromUrlIsCompiledOnce() throws IOException {
+        JsonSchemaFactory factory = new JsonSchemaFactory();
+        URL url = schemaFile();
+
+        JsonSchema first = factory.getSchema(url);
+        JsonSchema second = factory.getSchema(url);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, factory.getSchemaCache().getMissCount());
+        Assert.assertEquals(1, factory.getSchemaCache().getHitCount());
+    }
+
+    @Test
+    public void testSchemaCachedByContent() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setCacheByContent(true);
+        JsonSchemaFactory factory = new JsonSchemaFactory(config);
+
+        JsonSchema first = factory.getSchema("{\"type\": \"string\"}");
+        JsonSchema second = factory.getSchema("{\"type\": \"string\"}");
+        JsonSchema other = factory.getSchema("{\"type\": \"integer\"}");
+
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(2, factory.getSchemaCache().size());
+    }
+
+    @Test
+    public void testOldestSchemaIsEvicted() {
+        JsonElement node = new JsonParser().parse("{}");
+        SchemaCache cache = new SchemaCache(2);
+        cache.put("a", new JsonSchema(node));
+        cache.put("b", new JsonSchema(node));
+        cache.put("c", new JsonSchema(node));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertNull(cache.get("a"));
+        Assert.assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    public void testZeroSizeDisablesCache() throws IOException {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setSchemaCacheSize(0);
+        JsonSchemaFactory factory = new JsonSchemaFactory(config);
+        URL url = schemaFile();
+
+        Assert.assertNotSame(factory.getSchema(url), factory.getSchema(url));
+        Assert.assertEquals(0, factory.getSchemaCache().size());
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SchemaCodeGeneratorTest {
+    private static final String PERSON = "{\"type\": \"object\","
+        + "\"properties\": {"
+        + "  \"name\": {\"type\": \"string\", \"minLength\": 1, \"maxLength\": 8},"
+        + "  \"age\": {\"type\": \"integer\", \"minimum\": 0, \"exclusiveMinimum\": true},"
+        + "  \"tags\": {\"type\": \"array\", \"items\": {\"enum\": [\"a\", \"b\"]}, \"maxItems\": 2},"
+        + "  \"friend\": {\"$ref\": \"#\"}"
+        + "},"
+        + "\"required\": [\"name\"]}";
+
+    private boolean isValid(CompiledSchema schema, String data) {
+        return schema.isValid(new JsonParser().parse(data));
+    }
+
+    @Test
+    public void testGeneratedCodeAgreesWithSchema() {
+        CompiledSchema schema = SchemaCodeGenerator.generate(new JsonSchemaFactory().getSchema(PERSON));
+
+        Assert.assertTrue(isValid(schema, "{\"name\": \"Ann\", \"age\": 3, \"tags\": [\"a\"]}"));
+        Assert.assertTrue(isValid(schema, "{\"name\": \"Ann\", \"friend\": {\"name\": \"Bo\"}}"));
+        Assert.assertFalse(isValid(schema, "{\"age\": 3}"));
+        Assert.assertFalse(isValid(schema, "{\"name\": \"\"}"));
+        Assert.assertFalse(isValid(schema, "{\"name\": \"Ann\", \"age\": 0}"));
+        Assert.assertFalse(isValid(schema, "{\"name\": \"Ann\", \"tags\": [\"c\"]}"));
+        Assert.assertFalse(isValid(schema, "{\"name\": \"Ann\", \"friend\": {\"age\": 1}}"));
+        Assert.assertFalse(isValid(schema, "[]"));
+        Assert.assertEquals(1, schema.validate(new JsonParser().parse("{\"name\": 1}")).size());
+    }
+
+    @Test
+    public void testOnlyUnsupportedKeywordsCallTheirValidator() {
+        String source = SchemaCodeGenerator.generateSource(new JsonSchemaFactory().getSchema(PERSON));
+
+        // enum is the only keyword that is not inlined
+        Assert.assertTrue(source.contains("v0.isValid(node, root)"));
+        Assert.assertFalse(source.contains("v1"));
+        Assert.assertTrue(source.contains("object.has(\"name\")"));
+        Assert.assertTrue(source.contains("length(node) <= 8"));
+    }
+
+    @Test
+    public void testSchemasWithTheSameContentShareAMethod() {
+        String source = SchemaCodeGenerator.generateSource(new JsonSchemaFactory().getSchema(
+            "{\"properties\": {\"a\": {\"type\": \"string\"}, \"b\": {\"type\": \"string\"}}}"));
+
+        Assert.assertTrue(source.contains("s1(value, root)"));
+        Assert.assertFalse(source.contains("s2"));
+    }
+
+    @Test
+    public void testWideObjectIsSplitOverMethods() {
+        JsonObject properties = new JsonObject();
+        JsonObject data = new JsonObject();
+        for (int i = 0; i < 1000; i++) {
+            properties.add("field\n" + i, new JsonParser().parse("{\"type\": \"string\"}"));
+            data.addProperty("field\n" + i, "value" + i);
+        }
+        JsonObject node = new JsonObject();
+        node.add("properties", properties);
+        CompiledSchema schema = SchemaCodeGenerator.generate(new JsonSchema(node));
+
+        Assert.assertTrue(schema.isValid(data));
+        data.addProperty("field\n999", 999);
+        Assert.assertFalse(schema.isValid(data));
+    }
+
+}
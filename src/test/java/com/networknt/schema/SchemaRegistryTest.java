@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaRegistryTest {
+    private static final String PREFIX = "http://example.com/schemas/";
+    private static final URI ORDER = URI.create(PREFIX + "order.json");
+    private static final URI CUSTOMER = URI.create(PREFIX + "customer.json");
+    private static final URI MONEY = URI.create(PREFIX + "common/money.json");
+    private static final URI NAME = URI.create(PREFIX + "name.json");
+    private static final String ORDER_IN_YEN = "{\"customer\": {\"name\": \"Ann\"},"
+        + " \"total\": {\"amount\": 5, \"currency\": \"JPY\"}}";
+    private static final String MONEY_WITH_YEN = "{\"id\": \"" + MONEY + "\", \"type\": \"object\","
+        + " \"properties\": {\"currency\": {\"enum\": [\"EUR\", \"USD\", \"JPY\"]}}}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory() throws IOException {
+        File directory = folder.newFolder("schemas");
+        for (String path : Arrays.asList("order.json", "customer.json", "common/money.json")) {
+            File file = new File(directory, path);
+            file.getParentFile().mkdirs();
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream("bundle/" + path)) {
+                Files.copy(in, file.toPath());
+            }
+        }
+        write(new File(directory, "name.json"), "{\"type\": \"string\"}");
+        return directory;
+    }
+
+    private void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SchemaRegistry registry(File directory) {
+        return new SchemaRegistry(new JsonSchemaFactory(new SchemaValidatorsConfig(), new URIMappingFetcher()),
+            PREFIX, directory);
+    }
+
+    @Test
+    public void testReloadRecompilesDependents() throws IOException {
+        File directory = directory();
+        SchemaRegistry registry = registry(directory);
+        JsonSchema oldOrder = registry.getSchema(ORDER);
+        JsonSchema oldName = registry.getSchema(NAME);
+        Assert.assertFalse(oldOrder.isValid(new JsonParser().parse(ORDER_IN_YEN)));
+
+        write(new File(directory, "common/money.json"), MONEY_WITH_YEN);
+        Assert.assertEquals(new HashSet<URI>(Arrays.asList(MONEY, CUSTOMER, ORDER)),
+            new HashSet<URI>(registry.reload(Collections.singleton(MONEY))));
+
+        Assert.assertTrue(registry.getSchema(ORDER).isValid(new JsonParser().parse(ORDER_IN_YEN)));
+        Assert.assertSame(oldName, registry.getSchema(NAME));
+        // validations holding the old version are not affected
+        Assert.assertFalse(oldOrder.isValid(new JsonParser().parse(ORDER_IN_YEN)));
+        Assert.assertEquals(1, registry.getReloadCount());
+    }
+
+    @Test
+    public void testFailedReloadKeepsSchemas() throws IOException {
+        File directory = directory();
+        SchemaRegistry registry = registry(directory);
+        JsonSchema order = registry.getSchema(ORDER);
+        JsonSchema money = registry.getSchema(MONEY);
+
+        write(new File(directory, "common/money.json"), "{\"type\": ");
+        try {
+            registry.reload(Collections.singleton(MONEY));
+            Assert.fail("Expected a JsonSchemaException");
+        } catch (JsonSchemaException e) {
+            // expected
+        }
+        write(new File(directory, "common/money.json"), "{\"$ref\": \"missing.json\"}");
+        try {
+            registry.reload(Collections.singleton(MONEY));
+            Assert.fail("Expected the $ref to fail");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        Assert.assertSame(order, registry.getSchema(ORDER));
+        Assert.assertSame(money, registry.getSchema(MONEY));
+        Assert.assertEquals(0, registry.getReloadCount());
+
+        write(new File(directory, "common/money.json"), MONEY_WITH_YEN);
+        registry.reload(Collections.singleton(MONEY));
+        Assert.assertTrue(registry.getSchema(ORDER).isValid(new JsonParser().parse(ORDER_IN_YEN)));
+    }
+
+    @Test
+    public void testReloadAddsAndRemovesFiles() throws IOException {
+        File directory = directory();
+        SchemaRegistry registry = registry(directory);
+        URI address = URI.create(PREFIX + "address.json");
+
+        write(new File(directory, "address.json"), "{\"type\": \"object\"}");
+        Assert.assertEquals(Collections.singleton(address), registry.reload(Collections.singleton(address)));
+        Assert.assertNotNull(registry.getSchema(address));
+
+        Assert.assertTrue(new File(directory, "name.json").delete());
+        registry.reload(Collections.singleton(NAME));
+        Assert.assertNull(registry.getSchema(NAME));
+        Assert.assertEquals(4, registry.getSchemas().size());
+    }
+
+    @Test
+    public void testWatcherReloadsChangedFile() throws Exception {
+        File directory = directory();
+        try (SchemaRegistry registry = registry(directory)) {
+            registry.start();
+            write(new File(directory, "common/money.json"), MONEY_WITH_YEN);
+            // the JDK polls for changes on some platforms, e.g. every 2 seconds on macOS
+            long deadline = System.currentTimeMillis() + 30000;
+            while (registry.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertTrue(registry.getSchema(ORDER).isValid(new JsonParser().parse(ORDER_IN_YEN)));
+        }
+    }
+
+    @Test
+    public void testFileNamesAreEncoded() throws Exception {
+        File directory = directory();
+        write(new File(directory, "b c[1]%.json"), "{\"type\": \"string\"}");
+        URI uri = URI.create(PREFIX + "b%20c%5B1%5D%25.json");
+        try (SchemaRegistry registry = registry(directory)) {
+            Assert.assertTrue(registry.getSchema(uri).isValid(new JsonParser().parse("\"Ann\"")));
+            registry.start();
+            write(new File(directory, "b c[1]%.json"), "{\"type\": \"integer\"}");
+            long deadline = System.currentTimeMillis() + 30000;
+            while (registry.getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(registry.getSchema(uri).isValid(new JsonParser().parse("\"Ann\"")));
+            // the watcher is still running
+            write(new File(directory, "common/money.json"), MONEY_WITH_YEN);
+            while (registry.getReloadCount() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertTrue(registry.getSchema(ORDER).isValid(new JsonParser().parse(ORDER_IN_YEN)));
+        }
+    }
+
+}
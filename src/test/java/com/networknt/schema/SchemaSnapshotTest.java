@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SchemaSnapshotTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private JsonSchemaFactory factory() {
+        return new JsonSchemaFactory(new SchemaValidatorsConfig(), new URIFetcher() {
+            @Override
+            public InputStream fetch(URI uri) throws IOException {
+                fetches.incrementAndGet();
+                return new URLFetcher().fetch(uri);
+            }
+        });
+    }
+
+    private URI schemaFiles() throws IOException {
+        File address = folder.newFile("address.json");
+        Files.write(address.toPath(), ("{\"type\": \"object\", \"properties\": {\"zip\": {\"type\": \"string\","
+            + " \"pattern\": \"^[0-9]{5}$\"}}, \"required\": [\"zip\"]}").getBytes(StandardCharsets.UTF_8));
+        File person = folder.newFile("person.json");
+        Files.write(person.toPath(), ("{\"id\": \"" + person.toURI() + "\", \"type\": \"object\", \"properties\":"
+            + " {\"age\": {\"maximum\": 1.50e2}, \"address\": {\"$ref\": \"address.json\"}}}")
+            .getBytes(StandardCharsets.UTF_8));
+        return person.toURI();
+    }
+
+    private byte[] snapshot(URI uri, String fingerprint) {
+        JsonSchemaFactory factory = factory();
+        factory.getSchema(uri);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        factory.writeSnapshot(out, fingerprint);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testSnapshotIsLoadedWithoutFetching() throws IOException {
+        URI uri = schemaFiles();
+        byte[] snapshot = snapshot(uri, "v1");
+        fetches.set(0);
+
+        JsonSchemaFactory factory = factory();
+        Assert.assertTrue(factory.loadSnapshot(new ByteArrayInputStream(snapshot), "v1"));
+        // compiled on demand, a snapshot larger than the cache does not evict what it just compiled
+        Assert.assertEquals(0, factory.getSchemaCache().size());
+        JsonSchema schema = factory.getSchema(uri);
+
+        Assert.assertEquals(0, fetches.get());
+        Assert.assertEquals(2, factory.getSchemaCache().size());
+        JsonParser parser = new JsonParser();
+        Assert.assertTrue(schema.isValid(parser.parse("{\"age\": 150, \"address\": {\"zip\": \"12345\"}}")));
+        Assert.assertFalse(schema.isValid(parser.parse("{\"age\": 151}")));
+        Assert.assertFalse(schema.isValid(parser.parse("{\"address\": {\"zip\": \"1234\"}}")));
+    }
+
+    @Test
+    public void testOtherFingerprintFallsBackToSources() throws IOException {
+        URI uri = schemaFiles();
+        byte[] snapshot = snapshot(uri, "v1");
+        fetches.set(0);
+
+        JsonSchemaFactory factory = factory();
+        Assert.assertFalse(factory.loadSnapshot(new ByteArrayInputStream(snapshot), "v2"));
+        Assert.assertEquals(0, factory.getSchemaCache().size());
+        factory.getSchema(uri);
+        Assert.assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void testDamagedSnapshotIsIgnored() throws IOException {
+        byte[] snapshot = snapshot(schemaFiles(), "v1");
+        byte[] damaged = snapshot.clone();
+        damaged[damaged.length / 2] ^= 0x10;
+
+        Assert.assertFalse(factory().loadSnapshot(new ByteArrayInputStream(damaged), "v1"));
+        Assert.assertFalse(factory().loadSnapshot(new ByteArrayInputStream(snapshot, 0, snapshot.length - 3), "v1"));
+        Assert.assertFalse(factory().loadSnapshot(new ByteArrayInputStream(new byte[] {'{', '}'}), "v1"));
+    }
+
+    @Test
+    public void testDamagedLengthIsIgnored() throws IOException {
+        byte[] damaged = snapshot(schemaFiles(), "v1");
+        // the length of the fingerprint, after the magic number, the version and the new string marker
+        byte[] length = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        System.arraycopy(length, 0, damaged, 9, length.length);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean measured = threads instanceof com.sun.management.ThreadMXBean;
+        long before = measured ? ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+            Thread.currentThread().getId()) : 0;
+        Assert.assertFalse(factory().loadSnapshot(new ByteArrayInputStream(damaged), "v1"));
+        if (measured) {
+            long allocated = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+                Thread.currentThread().getId()) - before;
+            Assert.assertTrue(allocated + " bytes", allocated < 16 * 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void testDocumentsRoundTrip() throws IOException {
+        JsonParser parser = new JsonParser();
+        Map<String, JsonElement> documents = new LinkedHashMap<String, JsonElement>();
+        documents.put("file:/a.json", parser.parse("{\"enum\": [1, 1.0, 12345678901234567890, -0.5e-3, true, null,"
+            + " \"caf\\u00e9 \\ud83d\\ude00\", [], {}], \"type\": \"array\"}"));
+        documents.put("file:/b.json", parser.parse("{\"type\": \"array\", \"items\": {\"type\": \"string\"}}"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SchemaSnapshot.write(documents, "v1", out);
+        Map<String, JsonElement> read = SchemaSnapshot.read("v1", new ByteArrayInputStream(out.toByteArray()));
+
+        Assert.assertEquals(documents, read);
+        Assert.assertEquals("12345678901234567890",
+            read.get("file:/a.json").getAsJsonObject().get("enum").getAsJsonArray().get(2).toString());
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Set;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SchemaValidatorsConfigTest extends BaseJsonSchemaValidatorTest {
+    private static final String SCHEMA = "{\"type\": \"array\", \"items\": {"
+        + "\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}, \"required\": [\"id\", \"name\"]}}";
+
+    private JsonArray invalidItems(int count) {
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            JsonObject item = new JsonObject();
+            item.addProperty("id", "not a number");
+            array.add(item);
+        }
+        return array;
+    }
+
+    private JsonSchema getSchema(int maxErrors) {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setMaxErrors(maxErrors);
+        return new JsonSchemaFactory(config).getSchema(SCHEMA);
+    }
+
+    @Test
+    public void testUnlimitedErrors() throws Exception {
+        Set<ValidationMessage> errors = getJsonSchemaFromStringContent(SCHEMA).validate(invalidItems(100));
+        Assert.assertEquals(200, errors.size());
+    }
+
+    @Test
+    public void testMaxErrors() throws Exception {
+        Assert.assertEquals(5, getSchema(5).validate(invalidItems(100)).size());
+        Assert.assertEquals(1, getSchema(1).validate(invalidItems(100)).size());
+        Assert.assertEquals(0, getSchema(1).validate(new JsonArray()).size());
+    }
+
+    @Test
+    public void testFailFast() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        Assert.assertFalse(config.isFailFast());
+        config.setFailFast(true);
+        Assert.assertTrue(config.isFailFast());
+        Assert.assertEquals(1, config.getMaxErrors());
+        config.setFailFast(false);
+        Assert.assertEquals(SchemaValidatorsConfig.UNLIMITED_ERRORS, config.getMaxErrors());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxErrors() {
+        new SchemaValidatorsConfig().setMaxErrors(0);
+    }
+}
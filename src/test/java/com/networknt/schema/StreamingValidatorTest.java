@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamingValidatorTest {
+    private static final String SCHEMA = "{\"type\": \"object\", \"required\": [\"id\"],"
+        + "\"properties\": {\"id\": {\"type\": \"integer\"}, \"tags\": {\"type\": \"array\","
+        + "\"items\": {\"type\": \"string\"}, \"uniqueItems\": true}}, \"additionalProperties\": false}";
+
+    private final StreamingValidator validator =
+        new StreamingValidator(new JsonSchemaFactory().getSchema(SCHEMA));
+
+    private List<Integer> errorCounts(String json, boolean elements) throws IOException {
+        final List<Integer> counts = new ArrayList<Integer>();
+        StreamingValidator.Listener listener = new StreamingValidator.Listener() {
+            public void onResult(long index, Set<ValidationMessage> errors) {
+                Assert.assertEquals(counts.size(), index);
+                counts.add(errors.size());
+            }
+        };
+        JsonReader reader = new JsonReader(new StringReader(json));
+        if (elements) {
+            validator.validateElements(reader, listener);
+        } else {
+            validator.validateEach(reader, listener);
+        }
+        return counts;
+    }
+
+    @Test
+    public void testNewlineDelimitedJson() throws IOException {
+        List<Integer> counts = errorCounts("{\"id\": 1, \"tags\": [\"a\", \"b\"]}\n"
+            + "{\"tags\": [\"a\", \"a\"]}\n"
+            + "{\"id\": \"x\", \"other\": true}\n", false);
+
+        Assert.assertEquals(3, counts.size());
+        Assert.assertEquals(0, (int) counts.get(0));
+        Assert.assertEquals(2, (int) counts.get(1));
+        Assert.assertEquals(2, (int) counts.get(2));
+    }
+
+    @Test
+    public void testTopLevelArrayElements() throws IOException {
+        List<Integer> counts = errorCounts("[{\"id\": 1}, {\"id\": 2, \"tags\": [1]}, {}]", true);
+
+        Assert.assertEquals(3, counts.size());
+        Assert.assertEquals(0, (int) counts.get(0));
+        Assert.assertEquals(1, (int) counts.get(1));
+        Assert.assertEquals(1, (int) counts.get(2));
+    }
+
+    @Test
+    public void testSameMessagesAsTreeValidation() throws IOException {
+        String json = "{\"tags\": [\"a\", 2, \"a\"], \"other\": {}}";
+        JsonSchema schema = new JsonSchemaFactory().getSchema(SCHEMA);
+
+        Assert.assertEquals(schema.validate(new JsonParser().parse(json)),
+            new StreamingValidator(schema).validate(new JsonReader(new StringReader(json))));
+    }
+
+    @Test(timeout = 10000)
+    public void testHugeExponentsInUniqueItems() throws IOException {
+        StreamingValidator numbers = new StreamingValidator(new JsonSchemaFactory().getSchema(
+            "{\"uniqueItems\": true}"));
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            items.append("1e").append(9999999 - i).append(", ");
+        }
+
+        Assert.assertTrue(numbers.validate(new JsonReader(new StringReader(items + "1]"))).isEmpty());
+        Assert.assertEquals(1, numbers.validate(new JsonReader(new StringReader(items + "10e9999998]"))).size());
+    }
+
+    @Test
+    public void testDigestIgnoresMemberOrder() {
+        JsonParser parser = new JsonParser();
+
+        Assert.assertEquals(StreamingValidator.digest(parser.parse("{\"a\": 1, \"b\": [true, null]}")),
+            StreamingValidator.digest(parser.parse("{\"b\": [true, null], \"a\": 1.0}")));
+        Assert.assertNotEquals(StreamingValidator.digest(parser.parse("\"1\"")),
+            StreamingValidator.digest(parser.parse("1")));
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubschemaPoolTest {
+    private static final String NAME = "{\"type\": \"string\", \"maxLength\": 5}";
+
+    private JsonSchemaFactory factory() {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setShareSubschemas(true);
+        return new JsonSchemaFactory(config);
+    }
+
+    private boolean isValid(JsonSchema schema, String data) {
+        return schema.isValid(new JsonParser().parse(data));
+    }
+
+    @Test
+    public void testIdenticalSubschemasAreCompiledOnce() {
+        JsonSchemaFactory factory = factory();
+        JsonSchema person = factory.getSchema("{\"properties\": {\"first\": " + NAME + ", \"last\": " + NAME + "}}");
+        JsonSchema city = factory.getSchema("{\"items\": " + NAME + "}");
+
+        SubschemaPool pool = factory.getSubschemaPool();
+        Assert.assertEquals(1, pool.size());
+        Assert.assertEquals(2, pool.getHitCount());
+        Assert.assertEquals(2, pool.getSavedSchemaCount());
+        Assert.assertEquals(4, pool.getSavedValidatorCount());
+        Assert.assertTrue(isValid(person, "{\"first\": \"Ann\", \"last\": \"Lee\"}"));
+        Assert.assertFalse(isValid(person, "{\"first\": \"Ann\", \"last\": \"Leeson\"}"));
+        Assert.assertFalse(isValid(city, "[\"Ghent\", \"Antwerp\"]"));
+    }
+
+    @Test
+    public void testNestedSubschemasCountWhenReused() {
+        JsonSchemaFactory factory = factory();
+        String address = "{\"properties\": {\"street\": " + NAME + ", \"zip\": {\"type\": \"integer\"}}}";
+        factory.getSchema("{\"properties\": {\"home\": " + address + ", \"work\": " + address + "}}");
+
+        SubschemaPool pool = factory.getSubschemaPool();
+        // address, street and zip are compiled once, the second address reuses all three
+        Assert.assertEquals(3, pool.size());
+        Assert.assertEquals(1, pool.getHitCount());
+        Assert.assertEquals(3, pool.getSavedSchemaCount());
+    }
+
+    @Test
+    public void testSubschemasWithContextAreNotShared() {
+        KeywordRegistry.register("anything", new KeywordValidatorFactory() {
+            @Override
+            public JsonValidator newValidator(String schemaPath, JsonElement schemaNode, JsonSchema parentSchema) {
+                return new JsonValidator() {
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement rootNode) {
+                        return Collections.emptySet();
+                    }
+
+                    @Override
+                    public Set<ValidationMessage> validate(JsonElement node, JsonElement rootNode, String at) {
+                        return Collections.emptySet();
+                    }
+                };
+            }
+        });
+        JsonSchemaFactory factory = factory();
+        String schema = "{\"definitions\": {\"n\": {\"type\": \"integer\"}}, \"properties\": {"
+            + "\"a\": {\"items\": {\"$ref\": \"#/definitions/n\"}}, \"b\": {\"items\": {\"$ref\": \"#/definitions/n\"}},"
+            + "\"c\": {\"anything\": true}, \"d\": {\"anything\": true},"
+            + "\"e\": {\"id\": \"x\"}, \"f\": {\"id\": \"x\"}}}";
+        JsonSchema compiled = factory.getSchema(schema);
+
+        // only the $ref target goes into the pool, and nothing reuses it
+        Assert.assertEquals(1, factory.getSubschemaPool().size());
+        Assert.assertEquals(0, factory.getSubschemaPool().getHitCount());
+        Assert.assertFalse(isValid(compiled, "{\"a\": [\"1\"]}"));
+        Assert.assertTrue(isValid(compiled, "{\"b\": [1]}"));
+    }
+
+    @Test
+    public void testPropertyNamesAreNotKeywords() {
+        JsonSchemaFactory factory = factory();
+        String entity = "{\"properties\": {\"id\": {\"type\": \"integer\"}, \"$ref\": " + NAME + "},"
+            + " \"enum\": [{\"id\": 1, \"$ref\": \"a\"}, {\"id\": 2, \"$ref\": \"b\"}]}";
+        JsonSchema schema = factory.getSchema("{\"properties\": {\"a\": " + entity + ", \"b\": " + entity + "}}");
+
+        // entity and its two properties are compiled once, the second entity reuses them
+        Assert.assertEquals(3, factory.getSubschemaPool().size());
+        Assert.assertEquals(1, factory.getSubschemaPool().getHitCount());
+        Assert.assertTrue(isValid(schema, "{\"b\": {\"id\": 2, \"$ref\": \"b\"}}"));
+        Assert.assertFalse(isValid(schema, "{\"b\": {\"id\": 3, \"$ref\": \"b\"}}"));
+    }
+
+    @Test
+    public void testFingerprintsFollowContent() {
+        JsonElement document = new JsonParser().parse("{\"properties\": {\"a\": {\"items\": " + NAME + "},"
+            + " \"b\": {\"items\": " + NAME + "}, \"c\": {\"items\": {\"maxLength\": 5, \"type\": \"string\"}},"
+            + " \"d\": {\"items\": {\"$ref\": \"#\"}}}}");
+        Map<JsonElement, String> fingerprints = SubschemaPool.fingerprints(document);
+        JsonObject properties = document.getAsJsonObject().getAsJsonObject("properties");
+
+        Assert.assertEquals(fingerprints.get(properties.get("a")), fingerprints.get(properties.get("b")));
+        Assert.assertNotNull(fingerprints.get(properties.get("a")));
+        Assert.assertNotEquals(fingerprints.get(properties.get("a")), fingerprints.get(properties.get("c")));
+        Assert.assertTrue(fingerprints.containsKey(properties.get("d")));
+        Assert.assertNull(fingerprints.get(properties.get("d")));
+        Assert.assertNull(fingerprints.get(document));
+    }
+
+    @Test
+    public void testKeyOrderAndNumberLiteralsMatter() {
+        JsonSchemaFactory factory = factory();
+        factory.getSchema("{\"properties\": {\"a\": {\"type\": \"number\", \"maximum\": 1},"
+            + " \"b\": {\"maximum\": 1, \"type\": \"number\"}, \"c\": {\"type\": \"number\", \"maximum\": 1.0}}}");
+
+        Assert.assertEquals(3, factory.getSubschemaPool().size());
+    }
+
+    @Test
+    public void testSharingIsOffByDefault() {
+        JsonSchemaFactory factory = new JsonSchemaFactory();
+        factory.getSchema("{\"properties\": {\"first\": " + NAME + ", \"last\": " + NAME + "}}");
+
+        Assert.assertEquals(0, factory.getSubschemaPool().size());
+    }
+
+}
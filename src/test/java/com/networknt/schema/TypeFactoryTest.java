@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TypeFactoryTest {
+
+    private JsonType parsed(String json) {
+        return TypeFactory.getValueNodeType(new JsonParser().parse(json));
+    }
+
+    @Test
+    public void testParsedNumbers() {
+        Assert.assertEquals(JsonType.INTEGER, parsed("12"));
+        Assert.assertEquals(JsonType.INTEGER, parsed("-12"));
+        Assert.assertEquals(JsonType.INTEGER, parsed("123456789012345678901234567890"));
+        Assert.assertEquals(JsonType.NUMBER, parsed("1.0"));
+        Assert.assertEquals(JsonType.NUMBER, parsed("1e3"));
+        Assert.assertEquals(JsonType.NUMBER, parsed("-0.5"));
+    }
+
+    @Test
+    public void testJavaNumbers() {
+        Assert.assertEquals(JsonType.INTEGER, TypeFactory.getValueNodeType(new JsonPrimitive(1)));
+        Assert.assertEquals(JsonType.INTEGER, TypeFactory.getValueNodeType(new JsonPrimitive(1L)));
+        Assert.assertEquals(JsonType.INTEGER, TypeFactory.getValueNodeType(new JsonPrimitive(BigInteger.TEN)));
+        Assert.assertEquals(JsonType.INTEGER, TypeFactory.getValueNodeType(new JsonPrimitive(new BigDecimal("10"))));
+        Assert.assertEquals(JsonType.NUMBER, TypeFactory.getValueNodeType(new JsonPrimitive(new BigDecimal("10.0"))));
+        Assert.assertEquals(JsonType.NUMBER, TypeFactory.getValueNodeType(new JsonPrimitive(1.0)));
+        Assert.assertEquals(JsonType.NUMBER, TypeFactory.getValueNodeType(new JsonPrimitive(1.0f)));
+    }
+
+    private Object parsedKey(String json) {
+        return TypeFactory.numberKey(new JsonParser().parse(json).getAsNumber());
+    }
+
+    @Test
+    public void testNumberKeys() {
+        Assert.assertEquals(1L, parsedKey("1"));
+        Assert.assertEquals(1L, parsedKey("1.0"));
+        Assert.assertEquals(1L, parsedKey("1e0"));
+        Assert.assertEquals(1L, TypeFactory.numberKey(1.0));
+        Assert.assertEquals(0L, parsedKey("-0.0"));
+        Assert.assertEquals(1000L, parsedKey("1E3"));
+        Assert.assertEquals(parsedKey("0.5"), parsedKey("0.50"));
+        Assert.assertEquals(parsedKey("0.5"), TypeFactory.numberKey(0.5f));
+        Assert.assertEquals(parsedKey("123456789012345678901234567890"),
+            TypeFactory.numberKey(new BigInteger("123456789012345678901234567890")));
+        Assert.assertNotEquals(parsedKey("0.1"), parsedKey("0.10000000000000001"));
+    }
+
+    @Test
+    public void testLargeIntegerKeys() {
+        long[] values = {1234567890123456789L, Long.MAX_VALUE, Long.MIN_VALUE, -999999999999999999L};
+        for (long value : values) {
+            Object key = TypeFactory.numberKey(value);
+            Assert.assertEquals(Long.valueOf(value), key);
+            Assert.assertEquals(key, parsedKey(Long.toString(value)));
+            Assert.assertEquals(key, parsedKey(Long.toString(value) + ".0"));
+            Assert.assertEquals(key, TypeFactory.numberKey(BigInteger.valueOf(value)));
+            Assert.assertEquals(key, TypeFactory.numberKey(new BigDecimal(value).setScale(2)));
+        }
+        BigInteger beyond = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE);
+        Assert.assertEquals(parsedKey(beyond.toString()), TypeFactory.numberKey(beyond));
+        Assert.assertNotEquals(TypeFactory.numberKey(Long.MAX_VALUE), TypeFactory.numberKey(beyond));
+    }
+
+    @Test(timeout = 10000)
+    public void testHugeExponentsAreNotExpanded() {
+        // expanding each of these into a BigInteger takes seconds
+        for (int i = 0; i < 20; i++) {
+            Object key = parsedKey("1e10000000");
+            Assert.assertTrue(key instanceof BigDecimal);
+            Assert.assertEquals(key, parsedKey("10e9999999"));
+            Assert.assertNotEquals(key, parsedKey("-1e10000000"));
+            Assert.assertEquals(0L, parsedKey("0e10000000"));
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class URIMappingFetcherTest {
+    // .invalid never resolves, so these tests fail if anything goes to the network
+    private static final String PREFIX = "http://schemas.invalid/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRemoteRefFromClasspath() {
+        URIFetcher fetcher = new URIMappingFetcher().mapClasspath(PREFIX, "tests/");
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+
+        JsonSchema schema = factory.getSchema("{\"$ref\": \"" + PREFIX + "subSchemas.json#/refToInteger\"}");
+
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1)));
+        Assert.assertFalse(schema.isValid(new JsonPrimitive("a")));
+    }
+
+    @Test
+    public void testRemoteRefFromDirectory() {
+        URIFetcher fetcher = new URIMappingFetcher()
+            .mapDirectory(PREFIX, new File("src/test/resources/tests"));
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+
+        JsonSchema schema = factory.getSchema("{\"$ref\": \"" + PREFIX + "integer.json\"}");
+
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1)));
+        Assert.assertFalse(schema.isValid(new JsonPrimitive("a")));
+    }
+
+    @Test
+    public void testLongestPrefixWins() throws IOException {
+        URIMappingFetcher fetcher = new URIMappingFetcher()
+            .mapDirectory(PREFIX, new File("does-not-exist"))
+            .mapClasspath(PREFIX + "tests/", "tests/");
+
+        InputStream in = fetcher.fetch(URI.create(PREFIX + "tests/integer.json"));
+        Assert.assertNotNull(in);
+        in.close();
+    }
+
+    @Test
+    public void testEncodedPathIsDecoded() throws IOException {
+        File directory = folder.newFolder("my schemas");
+        Files.write(new File(directory, "my schema.json").toPath(), "{\"type\": \"integer\"}"
+            .getBytes(StandardCharsets.UTF_8));
+        URIFetcher fetcher = new URIMappingFetcher().mapDirectory(PREFIX + "my%20schemas/", directory);
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher);
+
+        JsonSchema schema = factory.getSchema("{\"$ref\": \"" + PREFIX + "my%20schemas/./my%20schema.json?v=1\"}");
+
+        Assert.assertTrue(schema.isValid(new JsonPrimitive(1)));
+        Assert.assertFalse(schema.isValid(new JsonPrimitive("a")));
+    }
+
+    @Test
+    public void testPathOutsideOfRootFails() throws IOException {
+        File directory = folder.newFolder("schemas");
+        Files.write(folder.newFile("secret.json").toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+        URIMappingFetcher fetcher = new URIMappingFetcher()
+            .mapDirectory(PREFIX + "schemas/", directory)
+            .mapClasspath(PREFIX, "tests/");
+        String[] outside = {PREFIX + "schemas/../secret.json", PREFIX + "schemas/%2e%2e/secret.json",
+            PREFIX + "schemas/..%2fsecret.json", PREFIX + "../tests/integer.json", PREFIX + "%2E%2E/tests/integer.json"};
+
+        for (String uri : outside) {
+            try {
+                fetcher.fetch(URI.create(uri)).close();
+                Assert.fail(uri);
+            } catch (FileNotFoundException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = JsonSchemaException.class)
+    public void testUnmappedUriFails() {
+        URIFetcher fetcher = new URIMappingFetcher().mapClasspath(PREFIX, "tests/");
+        new JsonSchemaFactory(new SchemaValidatorsConfig(), fetcher)
+            .getSchema("{\"$ref\": \"http://other.invalid/integer.json\"}");
+    }
+
+    @Test
+    public void testDocumentIsFetchedOnce() {
+        final AtomicInteger fetches = new AtomicInteger();
+        final URIFetcher classpath = new URIMappingFetcher().mapClasspath(PREFIX, "tests/");
+        URIFetcher counting = new URIFetcher() {
+            public InputStream fetch(URI uri) throws IOException {
+                fetches.incrementAndGet();
+                return classpath.fetch(uri);
+            }
+        };
+        JsonSchemaFactory factory = new JsonSchemaFactory(new SchemaValidatorsConfig(), counting);
+
+        factory.getSchema("{\"properties\": {"
+            + "\"a\": {\"$ref\": \"" + PREFIX + "subSchemas.json#/integer\"},"
+            + "\"b\": {\"$ref\": \"" + PREFIX + "subSchemas.json#/refToInteger\"}}}");
+
+        Assert.assertEquals(1, fetches.get());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.math.BigInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UniqueItemsValidatorTest {
+    private final JsonSchema schema = new JsonSchemaFactory().getSchema("{\"uniqueItems\": true}");
+
+    private boolean isValid(String data) {
+        return schema.isValid(new JsonParser().parse(data));
+    }
+
+    @Test
+    public void testPrimitives() {
+        Assert.assertTrue(isValid("[1, \"1\", true, \"true\", null, \"null\", 1.5]"));
+        Assert.assertFalse(isValid("[1, 2, 1.0]"));
+        Assert.assertFalse(isValid("[\"a\", \"b\", \"a\"]"));
+        Assert.assertFalse(isValid("[null, false, null]"));
+    }
+
+    @Test
+    public void testLargeIntegersWhateverTheirType() {
+        JsonArray array = new JsonArray();
+        array.add(1234567890123456789L);
+        array.add(new JsonParser().parse("1234567890123456789"));
+        Assert.assertFalse(schema.isValid(array));
+
+        array = new JsonArray();
+        array.add(new BigInteger("9223372036854775807"));
+        array.add(Long.MAX_VALUE);
+        Assert.assertFalse(schema.isValid(array));
+
+        array = new JsonArray();
+        array.add(Long.MAX_VALUE);
+        array.add(new JsonParser().parse("9223372036854775808"));
+        Assert.assertTrue(schema.isValid(array));
+    }
+
+    @Test(timeout = 10000)
+    public void testHugeExponents() {
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            items.append("1e").append(9999999 - i).append(", ");
+        }
+        Assert.assertTrue(isValid(items + "1]"));
+        Assert.assertFalse(isValid(items + "10e9999998]"));
+    }
+
+    @Test
+    public void testObjectsIgnoreMemberOrder() {
+        Assert.assertFalse(isValid("[{\"a\": 1, \"b\": [2, 3]}, {\"b\": [2, 3.0], \"a\": 1}]"));
+        Assert.assertTrue(isValid("[{\"a\": 1, \"b\": [2, 3]}, {\"a\": 1, \"b\": [3, 2]}]"));
+        Assert.assertTrue(isValid("[{\"a\": 1}, {\"a\": 1, \"b\": null}, [\"a\", 1]]"));
+    }
+
+    @Test
+    public void testStructuralEquality() {
+        JsonParser parser = new JsonParser();
+        String[][] equal = {{"{\"a\": {\"b\": [1, {}]}}", "{\"a\": {\"b\": [1.0, {}]}}"}, {"-0", "0.0"}};
+        for (String[] pair : equal) {
+            Assert.assertTrue(JsonValues.equal(parser.parse(pair[0]), parser.parse(pair[1])));
+            Assert.assertEquals(JsonValues.hash(parser.parse(pair[0])), JsonValues.hash(parser.parse(pair[1])));
+        }
+        Assert.assertFalse(JsonValues.equal(parser.parse("[[1]]"), parser.parse("[1]")));
+        Assert.assertFalse(JsonValues.equal(parser.parse("{\"a\": null}"), parser.parse("{\"b\": null}")));
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Network New Technologies Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.networknt.schema;
+
+import java.util.Set;
+
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ValidatorOrderTest {
+
+    private Set<ValidationMessage> validateFailFast(String schema, String data) {
+        SchemaValidatorsConfig config = new SchemaValidatorsConfig();
+        config.setFailFast(true);
+        return new JsonSchemaFactory(config).getSchema(schema).validate(new JsonParser().parse(data));
+    }
+
+    @Test
+    public void testCheapKeywordsRunFirst() {
+        Set<ValidationMessage> errors = validateFailFast(
+            "{\"properties\": {\"a\": {\"type\": \"string\"}}, \"required\": [\"b\"]}", "{\"a\": 1}");
+
+        Assert.assertEquals(1, errors.size());
+        Assert.assertEquals(ValidatorTypeCode.REQUIRED.getValue(), errors.iterator().next().getType());
+    }
+
+    @Test
+    public void testKeywordsOfOtherTypesAreSkipped() {
+        JsonSchema schema = new JsonSchemaFactory().getSchema(
+            "{\"minLength\": 2, \"maximum\": 3, \"required\": [\"a\"], \"items\": {\"type\": \"string\"}}");
+
+        Assert.assertEquals(1, schema.validate(new JsonParser().parse("5")).size());
+        Assert.assertTrue(schema.validate(new JsonParser().parse("[\"x\"]")).isEmpty());
+        Assert.assertTrue(schema.validate(new JsonParser().parse("\"xy\"")).isEmpty());
+        Assert.assertTrue(schema.isValid(new JsonParser().parse("null")));
+    }
+
+    @Test
+    public void testValidatorsAreBucketedByType() {
+        JsonSchema schema = new JsonSchemaFactory().getSchema(
+            "{\"type\": [\"string\", \"object\"], \"maxLength\": 4, \"required\": [\"a\"], \"enum\": [\"a\", {\"a\": 1}]}");
+
+        Assert.assertEquals(3, schema.getValidators(JsonType.STRING).length);
+        Assert.assertEquals(3, schema.getValidators(JsonType.OBJECT).length);
+        Assert.assertEquals(2, schema.getValidators(JsonType.ARRAY).length);
+        Assert.assertEquals(4, schema.getValidators(JsonType.UNKNOWN).length);
+    }
+
+}